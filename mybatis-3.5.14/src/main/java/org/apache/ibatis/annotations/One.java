@@ -66,4 +66,23 @@ public @interface One {
    */
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * Returns the statement id that retrieves the nested objects of several parents in one query. The statement receives
+   * the collected keys as a collection parameter.
+   *
+   * @return the batch statement id
+   *
+   * @since 3.5.15
+   */
+  String batchSelect() default "";
+
+  /**
+   * Returns the property of the nested objects holding the key used to match them with their parents.
+   *
+   * @return the batch key property
+   *
+   * @since 3.5.15
+   */
+  String batchKeyProperty() default "";
+
 }
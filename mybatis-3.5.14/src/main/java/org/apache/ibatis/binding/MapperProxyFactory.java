@@ -16,11 +16,14 @@
 package org.apache.ibatis.binding;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.binding.MapperProxy.MapperMethodInvoker;
+import org.apache.ibatis.binding.MapperProxy.PlainMethodInvoker;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -48,6 +51,35 @@ public class MapperProxyFactory<T> {
     return (T) Proxy.newProxyInstance(mapperInterface.getClassLoader(), new Class[] { mapperInterface }, mapperProxy);
   }
 
+  /**
+   * Builds the invokers of the abstract mapper methods ahead of their first call. Methods that are not bound to a
+   * statement are skipped, they keep failing when called.
+   *
+   * @param configuration
+   *          the configuration
+   *
+   * @return the number of invokers built
+   *
+   * @since 3.5.15
+   */
+  public int warmUp(Configuration configuration) {
+    int count = 0;
+    for (Method method : mapperInterface.getMethods()) {
+      if (method.isDefault() || Modifier.isStatic(method.getModifiers()) || method.isBridge()
+          || methodCache.containsKey(method)) {
+        continue;
+      }
+      try {
+        methodCache.putIfAbsent(method,
+            new PlainMethodInvoker(new MapperMethod(mapperInterface, method, configuration)));
+        count++;
+      } catch (BindingException e) {
+        // 没有绑定语句的方法只有被调用时才报错，预热时跳过
+      }
+    }
+    return count;
+  }
+
   public T newInstance(SqlSession sqlSession) {
     final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
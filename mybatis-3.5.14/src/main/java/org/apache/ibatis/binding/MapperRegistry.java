@@ -90,6 +90,17 @@ public class MapperRegistry {
     return Collections.unmodifiableCollection(knownMappers.keySet());
   }
 
+  /**
+   * Gets the proxy factories of the known mappers.
+   *
+   * @return the mapper proxy factories
+   *
+   * @since 3.5.15
+   */
+  public Collection<MapperProxyFactory<?>> getMapperProxyFactories() {
+    return Collections.unmodifiableCollection(knownMappers.values());
+  }
+
   /**
    * Adds the mappers.
    *
@@ -0,0 +1,247 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Saves the mapping metadata of a fully built configuration (statements, result maps, parameter maps, caches, key
+ * generators and mapper interfaces) into a compact binary snapshot, and restores it into a configuration without
+ * parsing any mapper.
+ * <p>
+ * A snapshot records a checksum of the mapper resources and interfaces it was built from, the class files of the
+ * types it refers to (result and parameter types, property types, type handlers) and of their superclasses, the
+ * configuration variables, the database id and a caller supplied source id (e.g. the relevant parts of the
+ * configuration file). Classes generated at runtime are only checked by name.
+ * {@link #read(Configuration, String, InputStream)} rejects a snapshot whose checksum no longer matches, so a stale
+ * snapshot is never used.
+ * <p>
+ * Statements built by the XML language driver (static and dynamic SQL) are supported. Configurations using sql
+ * providers, custom sql sources, sql nodes or key generators, or caches that were not built by MyBatis cannot be
+ * snapshotted; {@link #write(Configuration, String, OutputStream)} fails for them.
+ *
+ * @since 3.5.15
+ */
+public final class ConfigurationSnapshot {
+
+  static final int MAGIC = 0x4D42534E;
+  static final int VERSION = 3;
+
+  private static final String INTERFACE_PREFIX = "interface ";
+  private static final String NAMESPACE_PREFIX = "namespace:";
+
+  private ConfigurationSnapshot() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Writes the mapping metadata of the configuration.
+   *
+   * @param configuration
+   *          a configuration whose mappers are all parsed
+   * @param sourceId
+   *          identifies the sources the mappers were declared in, may be {@code null}
+   * @param out
+   *          the output stream, not closed
+   *
+   * @throws IOException
+   *           if the snapshot cannot be written
+   * @throws BuilderException
+   *           if the configuration contains elements a snapshot cannot hold
+   */
+  public static void write(Configuration configuration, String sourceId, OutputStream out) throws IOException {
+    configuration.getMappedStatements();
+    if (!configuration.getIncompleteStatements().isEmpty() || !configuration.getIncompleteResultMaps().isEmpty()
+        || !configuration.getIncompleteCacheRefs().isEmpty() || !configuration.getIncompleteMethods().isEmpty()) {
+      throw new BuilderException("Cannot create a mapping snapshot: the configuration has incomplete elements.");
+    }
+    List<String> resources = new ArrayList<>(new TreeSet<>(configuration.getLoadedResources()));
+    SnapshotWriter writer = new SnapshotWriter(configuration);
+    writer.writeBody();
+    List<String> classes = writer.getClassNames();
+    String checksum = checksum(configuration, sourceId, resources, classes);
+    if (checksum == null) {
+      throw new BuilderException("Cannot create a mapping snapshot: some of the loaded resources " + resources
+          + " or classes " + classes + " cannot be read.");
+    }
+    BufferedOutputStream buffered = new BufferedOutputStream(out);
+    writer.writeTo(checksum, resources, classes, buffered);
+    buffered.flush();
+  }
+
+  /**
+   * Restores the mapping metadata of a snapshot into the configuration, if the snapshot is still up to date.
+   *
+   * @param configuration
+   *          a configuration without mappers, with the same type aliases, type handlers and settings as the one the
+   *          snapshot was written from
+   * @param sourceId
+   *          the source id the snapshot was written with
+   * @param in
+   *          the input stream, not closed
+   *
+   * @return {@code true} if the snapshot was restored, {@code false} if it is stale and the mappers have to be parsed
+   *
+   * @throws IOException
+   *           if the snapshot cannot be read
+   * @throws BuilderException
+   *           if the snapshot is corrupt; the configuration is left unchanged
+   */
+  public static boolean read(Configuration configuration, String sourceId, InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+      return false;
+    }
+    String checksum = data.readUTF();
+    String databaseId = SnapshotReader.readRaw(data);
+    int resourceCount = data.readInt();
+    List<String> resources = new ArrayList<>(resourceCount);
+    for (int i = 0; i < resourceCount; i++) {
+      resources.add(SnapshotReader.readRaw(data));
+    }
+    int classCount = data.readInt();
+    List<String> classes = new ArrayList<>(classCount);
+    for (int i = 0; i < classCount; i++) {
+      classes.add(SnapshotReader.readRaw(data));
+    }
+    if (!Objects.equals(databaseId, configuration.getDatabaseId())
+        || !checksum.equals(checksum(configuration, sourceId, resources, classes))) {
+      return false;
+    }
+    SnapshotReader reader = new SnapshotReader(configuration, data);
+    try {
+      reader.read();
+    } catch (RuntimeException e) {
+      throw new BuilderException("Error reading the mapping snapshot. Cause: " + e, e);
+    }
+    reader.apply(resources);
+    return true;
+  }
+
+  static String checksum(Configuration configuration, String sourceId, List<String> resources,
+      List<String> classes) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new BuilderException("SHA-256 is not available.", e);
+    }
+    update(digest, String.valueOf(VERSION));
+    update(digest, sourceId);
+    update(digest, configuration.getDatabaseId());
+    // 映射文件中的 ${} 占位符会被配置变量替换，变量改变时快照也需要失效
+    Properties variables = configuration.getVariables();
+    if (variables != null) {
+      for (String name : new TreeSet<>(variables.stringPropertyNames())) {
+        update(digest, name + "=" + variables.getProperty(name));
+      }
+    }
+    byte[] buffer = new byte[8192];
+    for (String resource : resources) {
+      update(digest, resource);
+      if (resource.startsWith(NAMESPACE_PREFIX)) {
+        continue;
+      }
+      try (InputStream in = openResource(resource)) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          digest.update(buffer, 0, read);
+        }
+      } catch (IOException e) {
+        return null;
+      }
+    }
+    // 结果类型、属性类型和类型处理器都是按类解析出来的，类（包括父类）改变时快照也需要失效
+    for (String className : classes) {
+      update(digest, className);
+      Class<?> type;
+      try {
+        type = Resources.classForName(className);
+      } catch (ClassNotFoundException e) {
+        return null;
+      }
+      while (type != null && type.getClassLoader() != null && !type.getName().startsWith("java.")) {
+        // 运行时生成的类没有 class 文件，只能按类名校验
+        try (InputStream in = type.getClassLoader()
+            .getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+          int read;
+          while (in != null && (read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+          }
+        } catch (IOException e) {
+          return null;
+        }
+        type = type.getSuperclass();
+      }
+    }
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private static InputStream openResource(String resource) throws IOException {
+    if (resource.startsWith(INTERFACE_PREFIX)) {
+      // 注解 Mapper 以 class 文件作为校验内容
+      return Resources.getResourceAsStream(resource.substring(INTERFACE_PREFIX.length()).replace('.', '/') + ".class");
+    }
+    try {
+      return Resources.getResourceAsStream(resource);
+    } catch (IOException e) {
+      return Resources.getUrlAsStream(resource);
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  static <T> List<T> unique(Collection<?> values, Class<T> type) {
+    // StrictMap 中同一对象会以全名和短名各存一份，短名冲突时还会存放 Ambiguity 占位对象
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<T> result = new ArrayList<>();
+    for (Object value : values) {
+      if (type.isInstance(value) && seen.add(value)) {
+        result.add(type.cast(value));
+      }
+    }
+    return result;
+  }
+
+}
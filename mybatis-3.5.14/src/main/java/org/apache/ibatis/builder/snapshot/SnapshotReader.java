@@ -0,0 +1,352 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.SqlNodeCodec;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.sharding.ShardingStrategy;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Reads the body written by {@link SnapshotWriter}. Everything is built before anything is added to the
+ * configuration, so a snapshot that cannot be read leaves the configuration untouched.
+ */
+class SnapshotReader {
+
+  private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class, void.class }) {
+      PRIMITIVES.put(type.getName(), type);
+    }
+  }
+
+  private final Configuration configuration;
+  private final DataInputStream in;
+  private String[] strings;
+  private final Map<String, CacheBuilder> cacheBuilders = new LinkedHashMap<>();
+  private final Map<String, Cache> caches = new HashMap<>();
+  private final Map<String, String> cacheRefs = new LinkedHashMap<>();
+  private final Map<String, ResultMap> resultMaps = new LinkedHashMap<>();
+  private final Map<String, ParameterMap> parameterMaps = new LinkedHashMap<>();
+  private final Map<String, MappedStatement> statements = new LinkedHashMap<>();
+  private final Map<String, KeyGenerator> keyGenerators = new LinkedHashMap<>();
+  private final List<Class<?>> mappers = new ArrayList<>();
+
+  SnapshotReader(Configuration configuration, DataInputStream in) {
+    this.configuration = configuration;
+    this.in = in;
+  }
+
+  void read() throws IOException {
+    strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = readRaw(in);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      CacheBuilder builder = CacheBuilder.readFrom(in, this::string);
+      caches.put(builder.getId(), builder.build());
+      cacheBuilders.put(builder.getId(), builder);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      cacheRefs.put(readString(), readString());
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      ResultMap resultMap = readResultMap();
+      resultMaps.put(resultMap.getId(), resultMap);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      ParameterMap parameterMap = readParameterMap();
+      parameterMaps.put(parameterMap.getId(), parameterMap);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      MappedStatement ms = readStatement();
+      statements.put(ms.getId(), ms);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      mappers.add(readClass());
+    }
+  }
+
+  void apply(List<String> loadedResources) {
+    for (CacheBuilder cacheBuilder : cacheBuilders.values()) {
+      configuration.addCache(caches.get(cacheBuilder.getId()));
+      configuration.addCacheBuilder(cacheBuilder);
+    }
+    cacheRefs.forEach(configuration::addCacheRef);
+    resultMaps.values().forEach(configuration::addResultMap);
+    parameterMaps.values().forEach(configuration::addParameterMap);
+    statements.values().forEach(configuration::addMappedStatement);
+    keyGenerators.forEach(configuration::addKeyGenerator);
+    loadedResources.forEach(configuration::addLoadedResource);
+    // 对应的资源已标记为已加载，注册 Mapper 接口时不会再解析注解和 XML
+    mappers.forEach(configuration::addMapper);
+  }
+
+  private ResultMap readResultMap() throws IOException {
+    String id = readString();
+    Class<?> type = readClass();
+    byte autoMapping = in.readByte();
+    boolean hasNestedResultMaps = in.readBoolean();
+    List<ResultMapping> resultMappings = readResultMappings();
+    Discriminator discriminator = null;
+    if (in.readBoolean()) {
+      ResultMapping resultMapping = readResultMapping();
+      Map<String, String> discriminatorMap = new HashMap<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        discriminatorMap.put(readString(), readString());
+      }
+      discriminator = new Discriminator.Builder(configuration, resultMapping, discriminatorMap).build();
+    }
+    ResultMap resultMap = new ResultMap.Builder(configuration, id, type, resultMappings,
+        autoMapping < 0 ? null : autoMapping == 1).discriminator(discriminator).build();
+    if (hasNestedResultMaps) {
+      resultMap.forceNestedResultMaps();
+    }
+    return resultMap;
+  }
+
+  private List<ResultMapping> readResultMappings() throws IOException {
+    int count = in.readInt();
+    List<ResultMapping> resultMappings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      resultMappings.add(readResultMapping());
+    }
+    return resultMappings;
+  }
+
+  private ResultMapping readResultMapping() throws IOException {
+    ResultMapping.Builder builder = new ResultMapping.Builder(configuration, readString());
+    builder.column(readString());
+    Class<?> javaType = readClass();
+    JdbcType jdbcType = readEnum(JdbcType.class);
+    builder.javaType(javaType).jdbcType(jdbcType).typeHandler(readTypeHandler(javaType, jdbcType));
+    builder.nestedResultMapId(readString()).nestedQueryId(readString()).nestedBatchQueryId(readString())
+        .batchKeyProperty(readString());
+    int notNullColumnCount = in.readInt();
+    if (notNullColumnCount >= 0) {
+      Set<String> notNullColumns = new HashSet<>();
+      for (int i = 0; i < notNullColumnCount; i++) {
+        notNullColumns.add(readString());
+      }
+      builder.notNullColumns(notNullColumns);
+    }
+    builder.columnPrefix(readString());
+    List<ResultFlag> flags = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      flags.add(readEnum(ResultFlag.class));
+    }
+    builder.flags(flags).composites(readResultMappings());
+    builder.resultSet(readString()).foreignColumn(readString()).lazy(in.readBoolean());
+    return builder.build();
+  }
+
+  private ParameterMap readParameterMap() throws IOException {
+    String id = readString();
+    Class<?> type = readClass();
+    return new ParameterMap.Builder(configuration, id, type, readParameterMappings()).build();
+  }
+
+  private List<ParameterMapping> readParameterMappings() throws IOException {
+    int count = in.readInt();
+    List<ParameterMapping> parameterMappings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String property = readString();
+      ParameterMode mode = readEnum(ParameterMode.class);
+      Class<?> javaType = readClass();
+      JdbcType jdbcType = readEnum(JdbcType.class);
+      Integer numericScale = readInteger();
+      TypeHandler<?> typeHandler = readTypeHandler(javaType, jdbcType);
+      parameterMappings.add(new ParameterMapping.Builder(configuration, property, javaType).mode(mode)
+          .jdbcType(jdbcType).numericScale(numericScale).typeHandler(typeHandler).resultMapId(readString())
+          .jdbcTypeName(readString()).expression(readString()).build());
+    }
+    return parameterMappings;
+  }
+
+  private MappedStatement readStatement() throws IOException {
+    String id = readString();
+    String resource = readString();
+    SqlCommandType sqlCommandType = readEnum(SqlCommandType.class);
+    SqlSource sqlSource = readSqlSource();
+    MappedStatement.Builder builder = new MappedStatement.Builder(configuration, id, sqlSource, sqlCommandType)
+        .resource(resource);
+    builder.statementType(readEnum(StatementType.class)).resultSetType(readEnum(ResultSetType.class));
+    builder.fetchSize(readInteger()).timeout(readInteger());
+    String cacheId = readString();
+    if (cacheId != null) {
+      builder.cache(lookup(caches, cacheId, "cache"));
+    }
+    builder.parameterMap(in.readBoolean() ? lookup(parameterMaps, readString(), "parameter map") : readParameterMap());
+    int resultMapCount = in.readInt();
+    List<ResultMap> statementResultMaps = new ArrayList<>(resultMapCount);
+    for (int i = 0; i < resultMapCount; i++) {
+      statementResultMaps.add(in.readBoolean() ? lookup(resultMaps, readString(), "result map") : readResultMap());
+    }
+    builder.resultMaps(statementResultMaps);
+    builder.flushCacheRequired(in.readBoolean()).useCache(in.readBoolean()).resultOrdered(in.readBoolean());
+    builder.keyGenerator(readKeyGenerator());
+    builder.keyProperty(readString()).keyColumn(readString()).databaseId(readString());
+    builder.lang(configuration.getLanguageDriver(readClass().asSubclass(LanguageDriver.class)));
+    builder.resultSets(readString()).dirtySelect(in.readBoolean());
+    builder.shardingStrategy(readShardingStrategy());
+    return builder.build();
+  }
+
+  private ShardingStrategy readShardingStrategy() throws IOException {
+    Class<?> type = readClass();
+    if (type == null) {
+      return null;
+    }
+    try {
+      return (ShardingStrategy) type.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new BuilderException("Error creating sharding strategy " + type.getName() + ". Cause: " + e, e);
+    }
+  }
+
+  private KeyGenerator readKeyGenerator() throws IOException {
+    byte kind = in.readByte();
+    if (kind == 0) {
+      return NoKeyGenerator.INSTANCE;
+    }
+    if (kind == 1) {
+      return Jdbc3KeyGenerator.INSTANCE;
+    }
+    String keyStatementId = readString();
+    boolean executeBefore = in.readBoolean();
+    KeyGenerator keyGenerator = keyGenerators.get(keyStatementId);
+    if (keyGenerator == null) {
+      keyGenerator = new SelectKeyGenerator(lookup(statements, keyStatementId, "key statement"), executeBefore);
+      keyGenerators.put(keyStatementId, keyGenerator);
+    }
+    return keyGenerator;
+  }
+
+  private SqlSource readSqlSource() throws IOException {
+    if (in.readByte() == 0) {
+      String sql = readString();
+      return new StaticSqlSource(configuration, sql, readParameterMappings());
+    }
+    return SqlNodeCodec.read(configuration, in, this::string);
+  }
+
+  @SuppressWarnings("unchecked")
+  private TypeHandler<?> readTypeHandler(Class<?> javaType, JdbcType jdbcType) throws IOException {
+    Class<?> handlerType = readClass();
+    if (handlerType == null) {
+      return null;
+    }
+    // 与 MapperBuilderAssistant 的解析顺序一致：优先复用已注册的实例，找不到时才新建
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    if (javaType != null) {
+      TypeHandler<?> typeHandler = registry.getTypeHandler(javaType, jdbcType);
+      if (typeHandler != null && typeHandler.getClass() == handlerType) {
+        return typeHandler;
+      }
+    }
+    TypeHandler<?> typeHandler = registry.getMappingTypeHandler((Class<? extends TypeHandler<?>>) handlerType);
+    return typeHandler != null ? typeHandler : registry.getInstance(javaType, handlerType);
+  }
+
+  private Class<?> readClass() throws IOException {
+    String name = readString();
+    if (name == null) {
+      return null;
+    }
+    Class<?> primitive = PRIMITIVES.get(name);
+    if (primitive != null) {
+      return primitive;
+    }
+    try {
+      return Resources.classForName(name);
+    } catch (ClassNotFoundException e) {
+      throw new BuilderException("Class " + name + " of the mapping snapshot was not found.", e);
+    }
+  }
+
+  private <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+    String name = readString();
+    return name == null ? null : Enum.valueOf(type, name);
+  }
+
+  private Integer readInteger() throws IOException {
+    return in.readBoolean() ? in.readInt() : null;
+  }
+
+  private String readString() throws IOException {
+    return string(in.readInt());
+  }
+
+  private String string(int index) {
+    return index < 0 ? null : strings[index];
+  }
+
+  static String readRaw(DataInputStream data) throws IOException {
+    int length = data.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    data.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static <T> T lookup(Map<String, T> items, String id, String kind) {
+    T item = items.get(id);
+    if (item == null) {
+      throw new BuilderException("The mapping snapshot does not contain the " + kind + " " + id + ".");
+    }
+    return item;
+  }
+
+}
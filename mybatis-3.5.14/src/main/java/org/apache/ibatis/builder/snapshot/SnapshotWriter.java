@@ -0,0 +1,386 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.SqlNodeCodec;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Writes the mapping metadata of a configuration. Strings are collected into a table written ahead of the body, so
+ * repeated class names, ids and properties are stored once. The names of the classes the metadata refers to are
+ * collected as well, so that the snapshot can be invalidated when one of them changes.
+ */
+class SnapshotWriter {
+
+  private final Configuration configuration;
+  private final Map<String, Integer> strings = new HashMap<>();
+  private final List<String> stringTable = new ArrayList<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private final DataOutputStream body = new DataOutputStream(buffer);
+  private final Set<String> classNames = new TreeSet<>();
+
+  SnapshotWriter(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  void writeBody() throws IOException {
+    List<Cache> caches = ConfigurationSnapshot.unique(configuration.getCaches(), Cache.class);
+    List<ResultMap> resultMaps = ConfigurationSnapshot.unique(configuration.getResultMaps(), ResultMap.class);
+    List<ParameterMap> parameterMaps = ConfigurationSnapshot.unique(configuration.getParameterMaps(),
+        ParameterMap.class);
+    List<MappedStatement> statements = ConfigurationSnapshot.unique(configuration.getMappedStatements(),
+        MappedStatement.class);
+    // selectKey 语句必须先于使用它的语句写出，读取时才能直接引用
+    statements.sort((a, b) -> Boolean.compare(!isKeyStatement(a), !isKeyStatement(b)));
+
+    body.writeInt(caches.size());
+    for (Cache cache : caches) {
+      writeCache(cache);
+    }
+    writeStringMap(configuration.getCacheRefs());
+    body.writeInt(resultMaps.size());
+    for (ResultMap resultMap : resultMaps) {
+      writeResultMap(resultMap);
+    }
+    body.writeInt(parameterMaps.size());
+    for (ParameterMap parameterMap : parameterMaps) {
+      writeParameterMap(parameterMap);
+    }
+    body.writeInt(statements.size());
+    for (MappedStatement ms : statements) {
+      writeStatement(ms);
+    }
+    Collection<Class<?>> mappers = configuration.getMapperRegistry().getMappers();
+    body.writeInt(mappers.size());
+    for (Class<?> mapper : mappers) {
+      writeClass(mapper);
+    }
+    body.flush();
+  }
+
+  /**
+   * Gets the names of the classes the body refers to, apart from primitive and JDK types.
+   *
+   * @return the sorted class names
+   */
+  List<String> getClassNames() {
+    return new ArrayList<>(classNames);
+  }
+
+  void writeTo(String checksum, List<String> resources, List<String> classes, OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(ConfigurationSnapshot.MAGIC);
+    data.writeInt(ConfigurationSnapshot.VERSION);
+    data.writeUTF(checksum);
+    writeRaw(data, configuration.getDatabaseId());
+    data.writeInt(resources.size());
+    for (String resource : resources) {
+      writeRaw(data, resource);
+    }
+    data.writeInt(classes.size());
+    for (String className : classes) {
+      writeRaw(data, className);
+    }
+    data.writeInt(stringTable.size());
+    for (String string : stringTable) {
+      writeRaw(data, string);
+    }
+    buffer.writeTo(data);
+    data.flush();
+  }
+
+  private static boolean isKeyStatement(MappedStatement ms) {
+    return ms.getId().endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX);
+  }
+
+  private void writeCache(Cache cache) throws IOException {
+    CacheBuilder builder = configuration.getCacheBuilder(cache.getId());
+    if (builder == null) {
+      throw unsupported("cache '" + cache.getId() + "' was not built by MyBatis");
+    }
+    builder.writeTo(body, this::index);
+  }
+
+  private void writeResultMap(ResultMap resultMap) throws IOException {
+    writeString(resultMap.getId());
+    writeClass(resultMap.getType());
+    Boolean autoMapping = resultMap.getAutoMapping();
+    body.writeByte(autoMapping == null ? -1 : autoMapping ? 1 : 0);
+    body.writeBoolean(resultMap.hasNestedResultMaps());
+    writeResultMappings(resultMap.getResultMappings());
+    Discriminator discriminator = resultMap.getDiscriminator();
+    body.writeBoolean(discriminator != null);
+    if (discriminator != null) {
+      writeResultMapping(discriminator.getResultMapping());
+      writeStringMap(discriminator.getDiscriminatorMap());
+    }
+  }
+
+  private void writeResultMappings(List<ResultMapping> resultMappings) throws IOException {
+    body.writeInt(resultMappings.size());
+    for (ResultMapping resultMapping : resultMappings) {
+      writeResultMapping(resultMapping);
+    }
+  }
+
+  private void writeResultMapping(ResultMapping resultMapping) throws IOException {
+    writeString(resultMapping.getProperty());
+    writeString(resultMapping.getColumn());
+    writeClass(resultMapping.getJavaType());
+    writeEnum(resultMapping.getJdbcType());
+    writeTypeHandler(resultMapping.getTypeHandler());
+    writeString(resultMapping.getNestedResultMapId());
+    writeString(resultMapping.getNestedQueryId());
+    writeString(resultMapping.getNestedBatchQueryId());
+    writeString(resultMapping.getBatchKeyProperty());
+    Set<String> notNullColumns = resultMapping.getNotNullColumns();
+    writeStrings(notNullColumns);
+    writeString(resultMapping.getColumnPrefix());
+    body.writeInt(resultMapping.getFlags().size());
+    for (ResultFlag flag : resultMapping.getFlags()) {
+      writeEnum(flag);
+    }
+    writeResultMappings(resultMapping.getComposites());
+    writeString(resultMapping.getResultSet());
+    writeString(resultMapping.getForeignColumn());
+    body.writeBoolean(resultMapping.isLazy());
+  }
+
+  private void writeParameterMap(ParameterMap parameterMap) throws IOException {
+    writeString(parameterMap.getId());
+    writeClass(parameterMap.getType());
+    writeParameterMappings(parameterMap.getParameterMappings());
+  }
+
+  private void writeParameterMappings(List<ParameterMapping> parameterMappings) throws IOException {
+    body.writeInt(parameterMappings.size());
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      writeString(parameterMapping.getProperty());
+      writeEnum(parameterMapping.getMode());
+      writeClass(parameterMapping.getJavaType());
+      writeEnum(parameterMapping.getJdbcType());
+      writeInteger(parameterMapping.getNumericScale());
+      writeTypeHandler(parameterMapping.getTypeHandler());
+      writeString(parameterMapping.getResultMapId());
+      writeString(parameterMapping.getJdbcTypeName());
+      writeString(parameterMapping.getExpression());
+    }
+  }
+
+  private void writeStatement(MappedStatement ms) throws IOException {
+    writeString(ms.getId());
+    writeString(ms.getResource());
+    writeEnum(ms.getSqlCommandType());
+    writeSqlSource(ms);
+    writeEnum(ms.getStatementType());
+    writeEnum(ms.getResultSetType());
+    writeInteger(ms.getFetchSize());
+    writeInteger(ms.getTimeout());
+    writeString(ms.getCache() == null ? null : ms.getCache().getId());
+    ParameterMap parameterMap = ms.getParameterMap();
+    boolean sharedParameterMap = isRegistered(parameterMap);
+    body.writeBoolean(sharedParameterMap);
+    if (sharedParameterMap) {
+      writeString(parameterMap.getId());
+    } else {
+      writeParameterMap(parameterMap);
+    }
+    body.writeInt(ms.getResultMaps().size());
+    for (ResultMap resultMap : ms.getResultMaps()) {
+      boolean sharedResultMap = isRegistered(resultMap);
+      body.writeBoolean(sharedResultMap);
+      if (sharedResultMap) {
+        writeString(resultMap.getId());
+      } else {
+        writeResultMap(resultMap);
+      }
+    }
+    body.writeBoolean(ms.isFlushCacheRequired());
+    body.writeBoolean(ms.isUseCache());
+    body.writeBoolean(ms.isResultOrdered());
+    writeKeyGenerator(ms);
+    writeString(join(ms.getKeyProperties()));
+    writeString(join(ms.getKeyColumns()));
+    writeString(ms.getDatabaseId());
+    writeClass(ms.getLang().getClass());
+    writeString(join(ms.getResultSets()));
+    body.writeBoolean(ms.isDirtySelect());
+    // 分片策略由 XML 中的类名无参构造，保存类名即可还原
+    writeClass(ms.getShardingStrategy() == null ? null : ms.getShardingStrategy().getClass());
+  }
+
+  private boolean isRegistered(ParameterMap parameterMap) {
+    return configuration.hasParameterMap(parameterMap.getId())
+        && configuration.getParameterMap(parameterMap.getId()) == parameterMap;
+  }
+
+  private boolean isRegistered(ResultMap resultMap) {
+    return configuration.hasResultMap(resultMap.getId()) && configuration.getResultMap(resultMap.getId()) == resultMap;
+  }
+
+  private void writeKeyGenerator(MappedStatement ms) throws IOException {
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    if (keyGenerator instanceof NoKeyGenerator) {
+      body.writeByte(0);
+    } else if (keyGenerator instanceof Jdbc3KeyGenerator) {
+      body.writeByte(1);
+    } else if (keyGenerator instanceof SelectKeyGenerator) {
+      SelectKeyGenerator selectKeyGenerator = (SelectKeyGenerator) keyGenerator;
+      body.writeByte(2);
+      writeString(selectKeyGenerator.getKeyStatement().getId());
+      body.writeBoolean(selectKeyGenerator.isExecuteBefore());
+    } else {
+      throw unsupported("statement '" + ms.getId() + "' uses the key generator " + keyGenerator.getClass().getName());
+    }
+  }
+
+  private void writeSqlSource(MappedStatement ms) throws IOException {
+    SqlSource sqlSource = ms.getSqlSource();
+    if (sqlSource instanceof DynamicSqlSource) {
+      body.writeByte(1);
+      try {
+        SqlNodeCodec.write((DynamicSqlSource) sqlSource, body, this::index);
+      } catch (UnsupportedOperationException e) {
+        throw unsupported("statement '" + ms.getId() + "' uses the sql node " + e.getMessage());
+      }
+    } else if (sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource) {
+      // 静态 SQL 在构建时已完成解析，直接保存解析后的 SQL 和参数映射
+      BoundSql boundSql = sqlSource.getBoundSql(null);
+      body.writeByte(0);
+      writeString(boundSql.getSql());
+      writeParameterMappings(boundSql.getParameterMappings());
+    } else {
+      throw unsupported("statement '" + ms.getId() + "' uses the sql source " + sqlSource.getClass().getName());
+    }
+  }
+
+  private void writeTypeHandler(TypeHandler<?> typeHandler) throws IOException {
+    writeClass(typeHandler == null ? null : typeHandler.getClass());
+  }
+
+  private void writeClass(Class<?> type) throws IOException {
+    if (type != null) {
+      Class<?> elementType = type;
+      while (elementType.isArray()) {
+        elementType = elementType.getComponentType();
+      }
+      // 基本类型和 JDK 的类不会随应用变化，无需参与校验
+      if (!elementType.isPrimitive() && elementType.getClassLoader() != null
+          && !elementType.getName().startsWith("java.")) {
+        classNames.add(elementType.getName());
+      }
+    }
+    writeString(type == null ? null : type.getName());
+  }
+
+  private void writeEnum(Enum<?> value) throws IOException {
+    writeString(value == null ? null : value.name());
+  }
+
+  private void writeInteger(Integer value) throws IOException {
+    body.writeBoolean(value != null);
+    if (value != null) {
+      body.writeInt(value);
+    }
+  }
+
+  private void writeStrings(Collection<String> values) throws IOException {
+    body.writeInt(values == null ? -1 : values.size());
+    if (values != null) {
+      for (String value : values) {
+        writeString(value);
+      }
+    }
+  }
+
+  private void writeStringMap(Map<String, String> map) throws IOException {
+    body.writeInt(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      writeString(entry.getKey());
+      writeString(entry.getValue());
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    body.writeInt(index(value));
+  }
+
+  private int index(String value) {
+    if (value == null) {
+      return -1;
+    }
+    Integer index = strings.get(value);
+    if (index == null) {
+      index = stringTable.size();
+      strings.put(value, index);
+      stringTable.add(value);
+    }
+    return index;
+  }
+
+  private static void writeRaw(DataOutputStream data, String value) throws IOException {
+    if (value == null) {
+      data.writeInt(-1);
+      return;
+    }
+    // writeUTF 最多只能写 64KB，SQL 文本可能更长
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static String join(String[] values) {
+    return values == null ? null : String.join(",", values);
+  }
+
+  private static BuilderException unsupported(String reason) {
+    return new BuilderException("Cannot create a mapping snapshot: " + reason + ".");
+  }
+
+}
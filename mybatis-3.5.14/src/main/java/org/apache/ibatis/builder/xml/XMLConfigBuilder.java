@@ -15,20 +15,40 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.snapshot.ConfigurationSnapshot;
 import org.apache.ibatis.datasource.DataSourceFactory;
+import org.apache.ibatis.datasource.replica.ReplicaDataSources;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.DatabaseIdProvider;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.parsing.XNode;
@@ -44,6 +64,7 @@ import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.sharding.ShardingStrategy;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
 
@@ -164,8 +185,12 @@ public class XMLConfigBuilder extends BaseBuilder {
       databaseIdProviderElement(root.evalNode("databaseIdProvider"));
       // 解析 typeHandlers 标签
       typeHandlersElement(root.evalNode("typeHandlers"));
-      // 解析 mappers 标签
-      mappersElement(root.evalNode("mappers"));
+      // 解析 mappers 标签，配置了映射快照且快照未过期时直接从快照加载，不再解析任何 mapper
+      String snapshotSourceId = mapperSnapshotSourceId(root);
+      if (!loadMapperSnapshot(snapshotSourceId)) {
+        mappersElement(root.evalNode("mappers"));
+        writeMapperSnapshot(snapshotSourceId);
+      }
 
     } catch (Exception e) {
       throw new BuilderException("Error parsing SQL Mapper Configuration. Cause: " + e, e);
@@ -346,6 +371,16 @@ public class XMLConfigBuilder extends BaseBuilder {
         booleanValueOf(props.getProperty("argNameBasedConstructorAutoMapping"), false));
     configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
     configuration.setNullableOnForEach(booleanValueOf(props.getProperty("nullableOnForEach"), false));
+    configuration.setBatchSelectSize(integerValueOf(props.getProperty("batchSelectSize"), 100));
+    configuration.setUseMethodHandles(booleanValueOf(props.getProperty("useMethodHandles"), false));
+    configuration.setParallelMapperParsing(booleanValueOf(props.getProperty("parallelMapperParsing"), false));
+    configuration.setMapperSnapshot(props.getProperty("mapperSnapshot"));
+    configuration.setStatementMetricsEnabled(booleanValueOf(props.getProperty("statementMetricsEnabled"), false));
+    configuration.setPhysicalPagingEnabled(booleanValueOf(props.getProperty("physicalPagingEnabled"), false));
+    configuration.setPagingDialect((Dialect) createInstance(props.getProperty("pagingDialect")));
+    configuration.setCountCacheTtl(longValueOf(props.getProperty("countCacheTtl"), null));
+    configuration
+        .setDefaultShardingStrategy((ShardingStrategy) createInstance(props.getProperty("defaultShardingStrategy")));
   }
 
   private void environmentsElement(XNode context) throws Exception {
@@ -372,6 +407,14 @@ public class XMLConfigBuilder extends BaseBuilder {
         // 构建一个 Environment 环境对象出来，其中存有事务工厂和数据源工厂
         Environment.Builder environmentBuilder = new Environment.Builder(id).transactionFactory(txFactory)
             .dataSource(dataSource);
+        // 可选的只读副本数据源，与 dataSource 标签的配置方式相同
+        List<DataSource> replicaDataSources = new ArrayList<>();
+        for (XNode replica : child.evalNodes("replicaDataSource")) {
+          replicaDataSources.add(dataSourceElement(replica).getDataSource());
+        }
+        if (!replicaDataSources.isEmpty()) {
+          environmentBuilder.replicas(new ReplicaDataSources(replicaDataSources));
+        }
         // 再将环境信息保存到 Configuration 对象里面
         configuration.setEnvironment(environmentBuilder.build());
         break;
@@ -481,8 +524,14 @@ public class XMLConfigBuilder extends BaseBuilder {
       return;
     }
 
+    List<XNode> children = context.getChildren();
+    // 开启并行解析时，先并发读取并解析所有 mapper XML 文档，再按声明顺序逐个注册，保证结果与顺序解析一致
+    List<CompletableFuture<XPathParser>> documents = configuration.isParallelMapperParsing()
+        ? parseMapperDocuments(children) : null;
+
     // 遍历 <mappers> 标签下的子节点
-    for (XNode child : context.getChildren()) {
+    for (int i = 0; i < children.size(); i++) {
+      XNode child = children.get(i);
       // 如果是 <package> 标签
       if ("package".equals(child.getName())) {
         // 则从中拿到 <package name="com.whoiszxl"> 中的 name 值
@@ -502,6 +551,11 @@ public class XMLConfigBuilder extends BaseBuilder {
         if (resource != null && url == null && mapperClass == null) {
           // 记录错误上下文的资源
           ErrorContext.instance().resource(resource);
+          if (documents != null) {
+            new XMLMapperBuilder(getDocument(documents.get(i)), configuration, resource,
+                configuration.getSqlFragments()).parse();
+            continue;
+          }
           // 通过 Resources 工具从这个路径里拿到对应文件的输入流，此处也就是 memberMapper.xml 的输入流
           try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
             // 通过 XPath 进行解析
@@ -512,6 +566,11 @@ public class XMLConfigBuilder extends BaseBuilder {
         } else if (resource == null && url != null && mapperClass == null) {
           // 如果 url 存在，其他的不存在
           ErrorContext.instance().resource(url);
+          if (documents != null) {
+            new XMLMapperBuilder(getDocument(documents.get(i)), configuration, url, configuration.getSqlFragments())
+                .parse();
+            continue;
+          }
           // 通过 url 获取到输入流后，再通过 XPath 进行解析
           try (InputStream inputStream = Resources.getUrlAsStream(url)) {
             XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url,
@@ -530,6 +589,132 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  private List<CompletableFuture<XPathParser>> parseMapperDocuments(List<XNode> children) {
+    List<CompletableFuture<XPathParser>> documents = new ArrayList<>(children.size());
+    int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), children.size()));
+    AtomicInteger threadNumber = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-mapper-parser-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (XNode child : children) {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        String mapperClass = child.getStringAttribute("class");
+        if ("package".equals(child.getName()) || mapperClass != null || (resource == null) == (url == null)) {
+          // package、class 以及非法配置仍在注册阶段按原逻辑处理
+          documents.add(null);
+        } else {
+          documents.add(CompletableFuture.supplyAsync(() -> parseMapperDocument(resource, url), executor));
+        }
+      }
+    } finally {
+      // 已提交的任务会继续执行完毕
+      executor.shutdown();
+    }
+    return documents;
+  }
+
+  private XPathParser parseMapperDocument(String resource, String url) {
+    try (InputStream inputStream = resource != null ? Resources.getResourceAsStream(resource)
+        : Resources.getUrlAsStream(url)) {
+      return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private static XPathParser getDocument(CompletableFuture<XPathParser> document) throws Exception {
+    try {
+      return document.join();
+    } catch (CompletionException e) {
+      // 还原为顺序解析时抛出的原始异常
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    }
+  }
+
+  private static String mapperSnapshotSourceId(XNode root) {
+    // 别名、类型处理器、设置项和 mapper 声明都会影响构建结果，任何一项改变都使快照失效
+    XNode mappers = root.evalNode("mappers");
+    StringBuilder sourceId = new StringBuilder().append(root.evalNode("settings")).append(root.evalNode("typeAliases"))
+        .append(root.evalNode("typeHandlers")).append(mappers);
+    if (mappers != null) {
+      for (XNode child : mappers.getChildren()) {
+        if ("package".equals(child.getName())) {
+          // <package> 扫描到的接口和同名 XML 不在配置文件中，包内新增 mapper 时也需要使快照失效
+          sourceId.append(scannedMappers(child.getStringAttribute("name")));
+        }
+      }
+    }
+    return sourceId.toString();
+  }
+
+  private static Set<String> scannedMappers(String packageName) {
+    // 与 MapperRegistry.addMappers 的扫描方式以及 MapperAnnotationBuilder 查找 XML 的方式保持一致
+    ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+    resolverUtil.find(new ResolverUtil.IsA(Object.class), packageName);
+    Set<String> names = new TreeSet<>();
+    for (Class<?> type : resolverUtil.getClasses()) {
+      if (type.isInterface()) {
+        names.add(type.getName());
+        String xmlResource = type.getName().replace('.', '/') + ".xml";
+        if (type.getResource("/" + xmlResource) != null || type.getClassLoader() != null
+            && type.getClassLoader().getResource(xmlResource) != null) {
+          names.add(xmlResource);
+        }
+      }
+    }
+    return names;
+  }
+
+  private boolean loadMapperSnapshot(String sourceId) {
+    String location = configuration.getMapperSnapshot();
+    if (location == null || !Files.isRegularFile(Paths.get(location))) {
+      return false;
+    }
+    try (InputStream in = Files.newInputStream(Paths.get(location))) {
+      return ConfigurationSnapshot.read(configuration, sourceId, in);
+    } catch (IOException | BuilderException e) {
+      LogFactory.getLog(XMLConfigBuilder.class)
+          .warn("Ignoring the mapping snapshot " + location + " and parsing the mappers. Cause: " + e);
+      return false;
+    }
+  }
+
+  private void writeMapperSnapshot(String sourceId) {
+    String location = configuration.getMapperSnapshot();
+    if (location == null) {
+      return;
+    }
+    Path path = Paths.get(location).toAbsolutePath();
+    Path temp = null;
+    try {
+      Files.createDirectories(path.getParent());
+      // 先写临时文件再替换，避免其他进程读到写了一半的快照
+      temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        ConfigurationSnapshot.write(configuration, sourceId, out);
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | BuilderException e) {
+      LogFactory.getLog(XMLConfigBuilder.class)
+          .warn("Could not write the mapping snapshot " + location + ". Cause: " + e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // ignored
+        }
+      }
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     // 如果没有指定环境id，则直接抛出异常
     if (environment == null) {
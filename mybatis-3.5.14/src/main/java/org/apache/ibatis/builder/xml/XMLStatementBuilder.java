@@ -33,6 +33,7 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.sharding.ShardingStrategy;
 
 /**
  * @author Clinton Begin
@@ -163,11 +164,15 @@ public class XMLStatementBuilder extends BaseBuilder {
     // Also see Transaction Control Method. Default: false (since 3.5.12)
     boolean dirtySelect = context.getBooleanAttribute("affectData", Boolean.FALSE);
 
+    // 分片策略，根据参数选择语句执行的分片，未设置时使用全局默认策略
+    ShardingStrategy shardingStrategy = (ShardingStrategy) createInstance(
+        context.getStringAttribute("shardingStrategy"));
+
     // 创建 MappedStatement 对象，并将其添加到 Configuration 对象中
     // MappedStatement 对象就相当于一个 <select> 这样的标签的整体信息
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap,
         parameterTypeClass, resultMap, resultTypeClass, resultSetTypeEnum, flushCache, useCache, resultOrdered,
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect, shardingStrategy);
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -16,6 +16,10 @@
 package org.apache.ibatis.cursor;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Cursor contract to handle fetching items lazily using an Iterator. Cursors are a perfect fit to handle millions of
@@ -42,4 +46,23 @@ public interface Cursor<T> extends Closeable, Iterable<T> {
    * @return -1 if the first cursor item has not been retrieved. The index of the current item retrieved.
    */
   int getCurrentIndex();
+
+  /**
+   * Returns a sequential {@link Stream} backed by this cursor. Like {@link #iterator()}, this method can be called only
+   * once. Closing the returned stream closes the cursor, so it should be used in a try-with-resources block when it may
+   * not be fully consumed.
+   *
+   * @return a sequential stream of the cursor items
+   *
+   * @since 3.5.15
+   */
+  default Stream<T> stream() {
+    return StreamSupport.stream(spliterator(), false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Publisher contract to consume query results with demand-driven flow control. Rows are fetched from the underlying
+ * {@link Cursor} only as the subscriber requests them, following the Reactive Streams protocol. The nested interfaces
+ * mirror {@code java.util.concurrent.Flow} and {@code org.reactivestreams}, so adapting to either is a matter of
+ * delegating method by method.
+ * <p>
+ * A cursor publisher can be subscribed only once.
+ *
+ * @param <T>
+ *          the published element type
+ *
+ * @since 3.5.15
+ */
+public interface CursorPublisher<T> {
+
+  /**
+   * Subscribes the given subscriber. {@link Subscriber#onSubscribe(Subscription)} is called before this method
+   * returns, and no row is fetched until {@link Subscription#request(long)} is called.
+   *
+   * @param subscriber
+   *          the subscriber
+   */
+  void subscribe(Subscriber<? super T> subscriber);
+
+  /**
+   * Receiver of the published elements.
+   *
+   * @param <T>
+   *          the element type
+   */
+  interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Link between a publisher and its subscriber.
+   */
+  interface Subscription {
+
+    /**
+     * Adds {@code n} elements to the current unfulfilled demand.
+     *
+     * @param n
+     *          the increment of demand, must be positive
+     */
+    void request(long n);
+
+    /**
+     * Stops sending elements and closes the underlying cursor and statement.
+     */
+    void cancel();
+  }
+}
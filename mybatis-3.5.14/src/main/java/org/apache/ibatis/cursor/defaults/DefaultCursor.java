@@ -19,6 +19,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
@@ -42,6 +45,9 @@ public class DefaultCursor<T> implements Cursor<T> {
   private final RowBounds rowBounds;
   protected final ObjectWrapperResultHandler<T> objectWrapperResultHandler = new ObjectWrapperResultHandler<>();
 
+  private static final int DEFAULT_SPLIT_BATCH_SIZE = 1024;
+  private static final int MAX_SPLIT_BATCH_SIZE = 1 << 25;
+
   private final CursorIterator cursorIterator = new CursorIterator();
   private boolean iteratorRetrieved;
 
@@ -103,6 +109,16 @@ public class DefaultCursor<T> implements Cursor<T> {
     return cursorIterator;
   }
 
+  /**
+   * Returns a spliterator over the cursor items. The spliterator is ordered and of unknown size. When used by a parallel
+   * stream it splits off batches of already fetched items, the batch size starting at the fetch size hint of the row
+   * bounds (or {@value #DEFAULT_SPLIT_BATCH_SIZE}) and growing on each split.
+   */
+  @Override
+  public Spliterator<T> spliterator() {
+    return new CursorSpliterator(iterator());
+  }
+
   @Override
   public void close() {
     if (isClosed()) {
@@ -222,4 +238,63 @@ public class DefaultCursor<T> implements Cursor<T> {
       throw new UnsupportedOperationException("Cannot remove element from Cursor");
     }
   }
+
+  protected class CursorSpliterator implements Spliterator<T> {
+
+    private final Iterator<T> iterator;
+    private int batchSize;
+
+    protected CursorSpliterator(Iterator<T> iterator) {
+      this.iterator = iterator;
+      Integer fetchSize = rowBounds.getFetchSize();
+      this.batchSize = fetchSize != null && fetchSize > 0 ? Math.min(fetchSize, MAX_SPLIT_BATCH_SIZE)
+          : DEFAULT_SPLIT_BATCH_SIZE;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (action == null) {
+        throw new NullPointerException();
+      }
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      action.accept(iterator.next());
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      if (action == null) {
+        throw new NullPointerException();
+      }
+      while (iterator.hasNext()) {
+        action.accept(iterator.next());
+      }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      if (!iterator.hasNext()) {
+        return null;
+      }
+      Object[] batch = new Object[batchSize];
+      int size = 0;
+      do {
+        batch[size++] = iterator.next();
+      } while (size < batch.length && iterator.hasNext());
+      batchSize = Math.min(batchSize << 1, MAX_SPLIT_BATCH_SIZE);
+      return Spliterators.spliterator(batch, 0, size, Spliterator.ORDERED);
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED;
+    }
+  }
 }
@@ -0,0 +1,192 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+
+/**
+ * Default implementation of {@link CursorPublisher}. The cursor is opened lazily on the first request and every
+ * interaction with it (opening, fetching and closing) happens on the given executor, serialized so that at most one
+ * task touches the cursor at any time. This keeps blocking JDBC calls off the subscriber threads; passing a
+ * virtual-thread-per-task executor is a good fit on recent JDKs.
+ * <p>
+ * The cursor belongs to a {@code SqlSession} which is not thread safe, the session must not be used while publishing.
+ *
+ * @param <T>
+ *          the published element type
+ */
+public class DefaultCursorPublisher<T> implements CursorPublisher<T> {
+
+  private final Supplier<Cursor<T>> cursorSupplier;
+  private final Executor executor;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public DefaultCursorPublisher(Supplier<Cursor<T>> cursorSupplier, Executor executor) {
+    this.cursorSupplier = cursorSupplier;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+      subscriber.onError(new IllegalStateException("A CursorPublisher can be subscribed only once."));
+      return;
+    }
+    subscriber.onSubscribe(new CursorSubscription<>(cursorSupplier, executor, subscriber));
+  }
+
+  private enum CancelledSubscription implements Subscription {
+    INSTANCE;
+
+    @Override
+    public void request(long n) {
+      // nothing to deliver
+    }
+
+    @Override
+    public void cancel() {
+      // already cancelled
+    }
+  }
+
+  static class CursorSubscription<T> implements Subscription, Runnable {
+
+    private final Supplier<Cursor<T>> cursorSupplier;
+    private final Executor executor;
+    private final Subscriber<? super T> subscriber;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // only accessed by the drain task
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+    private boolean done;
+
+    CursorSubscription(Supplier<Cursor<T>> cursorSupplier, Executor executor, Subscriber<? super T> subscriber) {
+      this.cursorSupplier = cursorSupplier;
+      this.executor = executor;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Non-positive request signals are illegal: " + n);
+      } else {
+        long current;
+        long next;
+        do {
+          current = requested.get();
+          next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!requested.compareAndSet(current, next));
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (workInProgress.getAndIncrement() == 0) {
+        try {
+          executor.execute(this);
+        } catch (RuntimeException e) {
+          cancelled = true;
+          subscriber.onError(e);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        if (!done) {
+          drain();
+        }
+        missed = workInProgress.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void drain() {
+      try {
+        if (cancelled) {
+          terminate();
+          return;
+        }
+        if (invalidRequest != null) {
+          terminate();
+          subscriber.onError(invalidRequest);
+          return;
+        }
+        if (cursor == null) {
+          cursor = cursorSupplier.get();
+          iterator = cursor.iterator();
+        }
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted != demand) {
+          if (cancelled) {
+            terminate();
+            return;
+          }
+          if (!iterator.hasNext()) {
+            terminate();
+            subscriber.onComplete();
+            return;
+          }
+          subscriber.onNext(iterator.next());
+          emitted++;
+        }
+        if (demand != Long.MAX_VALUE) {
+          requested.addAndGet(-emitted);
+        }
+      } catch (Throwable t) {
+        terminate();
+        subscriber.onError(t);
+      }
+    }
+
+    private void terminate() {
+      done = true;
+      if (cursor != null) {
+        try {
+          cursor.close();
+        } catch (Exception e) {
+          // ignore
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.replica;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * The read replicas of an {@link org.apache.ibatis.mapping.Environment}. Connections are taken from the replicas in
+ * turn. A replica that fails to provide a connection is excluded for a while, after which it is tried again.
+ *
+ * @since 3.5.15
+ */
+public class ReplicaDataSources {
+
+  private static final Log log = LogFactory.getLog(ReplicaDataSources.class);
+
+  /**
+   * The default time, in milliseconds, a replica is excluded after failing to provide a connection.
+   */
+  public static final long DEFAULT_EXCLUSION_MILLIS = 30000L;
+
+  private final List<DataSource> dataSources;
+  private final long exclusionMillis;
+  private final AtomicLongArray excludedUntil;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaDataSources(List<DataSource> dataSources) {
+    this(dataSources, DEFAULT_EXCLUSION_MILLIS);
+  }
+
+  /**
+   * Instantiates the replicas.
+   *
+   * @param dataSources
+   *          the data sources of the replicas
+   * @param exclusionMillis
+   *          how long a replica is excluded after failing to provide a connection
+   */
+  public ReplicaDataSources(List<DataSource> dataSources, long exclusionMillis) {
+    if (dataSources == null || dataSources.isEmpty()) {
+      throw new IllegalArgumentException("Parameter 'dataSources' must not be empty");
+    }
+    this.dataSources = Collections.unmodifiableList(new ArrayList<>(dataSources));
+    this.exclusionMillis = exclusionMillis;
+    this.excludedUntil = new AtomicLongArray(dataSources.size());
+  }
+
+  public List<DataSource> getDataSources() {
+    return dataSources;
+  }
+
+  public long getExclusionMillis() {
+    return exclusionMillis;
+  }
+
+  /**
+   * Gets a read only connection from the next available replica.
+   *
+   * @return the connection, or {@code null} if no replica is available
+   */
+  public Connection getConnection() {
+    int size = dataSources.size();
+    int start = Math.floorMod(next.getAndIncrement(), size);
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % size;
+      if (isExcluded(index)) {
+        continue;
+      }
+      Connection connection = null;
+      try {
+        connection = dataSources.get(index).getConnection();
+        connection.setAutoCommit(true);
+        connection.setReadOnly(true);
+        return connection;
+      } catch (SQLException e) {
+        closeQuietly(connection);
+        exclude(index);
+        log.warn("Excluding replica " + index + " for " + exclusionMillis + " ms. Cause: " + e);
+      }
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("No replica is available.");
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether a replica is excluded.
+   *
+   * @param index
+   *          the index of the replica
+   *
+   * @return {@code true} if the replica recently failed to provide a connection
+   */
+  public boolean isExcluded(int index) {
+    return excludedUntil.get(index) > System.currentTimeMillis();
+  }
+
+  /**
+   * Excludes a replica, e.g. after a health check failed.
+   *
+   * @param index
+   *          the index of the replica
+   */
+  public void exclude(int index) {
+    excludedUntil.set(index, System.currentTimeMillis() + exclusionMillis);
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+
+}
@@ -22,10 +22,14 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -34,6 +38,7 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -41,6 +46,8 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.sharding.ShardTransaction;
+import org.apache.ibatis.transaction.ReadWriteSplittingTransaction;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -50,6 +57,8 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public abstract class BaseExecutor implements Executor {
 
   private static final Log log = LogFactory.getLog(BaseExecutor.class);
+  private static final Pattern LOCKING_READ = Pattern
+      .compile("\\bFOR\\s+(UPDATE|SHARE)\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b", Pattern.CASE_INSENSITIVE);
 
   protected Transaction transaction;
   protected Executor wrapper;
@@ -61,6 +70,8 @@ public abstract class BaseExecutor implements Executor {
 
   protected int queryStack;
   private boolean closed;
+  /** 当前执行的语句是否为可以路由到只读副本的查询 */
+  private boolean replicaRead;
 
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
@@ -114,6 +125,7 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
+    replicaRead = false;
     return doUpdate(ms, parameter);
   }
 
@@ -158,6 +170,10 @@ public abstract class BaseExecutor implements Executor {
       queryStack++;
       // 从本地缓存也就是一级缓存中获取数据
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
+      StatementMetricsRegistry metrics = configuration.getStatementMetrics();
+      if (metrics != null && resultHandler == null) {
+        metrics.get(ms.getId()).recordLocalCacheLookup(list != null);
+      }
 
       if (list != null) {
         // 如果存在则处理一下`存储过程`的结果输出参数
@@ -194,6 +210,7 @@ public abstract class BaseExecutor implements Executor {
   @Override
   public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
     BoundSql boundSql = ms.getBoundSql(parameter);
+    replicaRead = isReplicaReadable(ms, boundSql);
     return doQueryCursor(ms, parameter, rowBounds, boundSql);
   }
 
@@ -225,6 +242,19 @@ public abstract class BaseExecutor implements Executor {
     cacheKey.update(rowBounds.getOffset());
     // 分页 limit
     cacheKey.update(rowBounds.getLimit());
+    if (rowBounds instanceof KeysetRowBounds) {
+      // 键集分页的排序键和上一页最后一行的键值同样决定查询结果
+      KeysetRowBounds keyset = (KeysetRowBounds) rowBounds;
+      for (KeysetRowBounds.SortKey sortKey : keyset.getSortKeys()) {
+        // 逐项写入排序键的字段，缓存键序列化时不要求 SortKey 可序列化
+        cacheKey.update(sortKey.getColumn());
+        cacheKey.update(sortKey.getProperty());
+        cacheKey.update(sortKey.isDescending());
+      }
+      for (Object value : keyset.getAfterValues()) {
+        cacheKey.update(value);
+      }
+    }
     // JDBC 规范化后的预编译 SQL 语句
     cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
@@ -256,6 +286,10 @@ public abstract class BaseExecutor implements Executor {
       // 环境信息的ID
       cacheKey.update(configuration.getEnvironment().getId());
     }
+    if (transaction instanceof ShardTransaction) {
+      // 各分片共用命名空间的二级缓存，分片 ID 区分不同分片上的相同查询
+      cacheKey.update(((ShardTransaction) transaction).getShardId());
+    }
     return cacheKey;
   }
 
@@ -264,6 +298,12 @@ public abstract class BaseExecutor implements Executor {
     return localCache.getObject(key) != null;
   }
 
+  @Override
+  public boolean isExecuting(MappedStatement ms, CacheKey key) {
+    // 查询执行期间本地缓存中放的是占位符
+    return localCache.getObject(key) == EXECUTION_PLACEHOLDER;
+  }
+
   @Override
   public void commit(boolean required) throws SQLException {
     if (closed) {
@@ -360,6 +400,7 @@ public abstract class BaseExecutor implements Executor {
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
       // 执行实际的查询操作，获取查询结果列表
+      replicaRead = isReplicaReadable(ms, boundSql);
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
     } finally {
       // 从本地缓存中移除之前放入的占位符对象，确保缓存中不存在此占位符
@@ -376,8 +417,9 @@ public abstract class BaseExecutor implements Executor {
   }
 
   protected Connection getConnection(Log statementLog) throws SQLException {
-    // 从事务对象中拿到 JDBC Connection 连接
-    Connection connection = transaction.getConnection();
+    // 从事务对象中拿到 JDBC Connection 连接，可以读副本的查询从副本获取
+    Connection connection = isReplicaRead() ? ((ReadWriteSplittingTransaction) transaction).getReadConnection()
+        : transaction.getConnection();
     // 如果 debug 开启了，那么需要创建一个带日志功能的代理 Connection
     if (statementLog.isDebugEnabled()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
@@ -385,6 +427,28 @@ public abstract class BaseExecutor implements Executor {
     return connection;
   }
 
+  /**
+   * Returns whether the statement being executed is a read sent to the read replicas of a
+   * {@link ReadWriteSplittingTransaction}.
+   *
+   * @return {@code true} if {@link #getConnection(Log)} returns a replica connection for the statement
+   *
+   * @since 3.5.15
+   */
+  protected boolean isReplicaRead() {
+    return replicaRead && transaction instanceof ReadWriteSplittingTransaction
+        && ((ReadWriteSplittingTransaction) transaction).isReadingFromReplicas();
+  }
+
+  private static boolean isReplicaReadable(MappedStatement ms, BoundSql boundSql) {
+    // 存储过程、带副作用的查询、要求刷新缓存的查询和 selectKey 可能写入数据或依赖刚写入的数据，始终在主库执行
+    // 加锁读取（FOR UPDATE 等）必须锁住主库上的行
+    return ms.getSqlCommandType() == SqlCommandType.SELECT && ms.getStatementType() != StatementType.CALLABLE
+        && !ms.isDirtySelect() && !ms.isFlushCacheRequired()
+        && !ms.getId().endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX)
+        && !LOCKING_READ.matcher(boundSql.getSql()).find();
+  }
+
   @Override
   public void setExecutorWrapper(Executor wrapper) {
     this.wrapper = wrapper;
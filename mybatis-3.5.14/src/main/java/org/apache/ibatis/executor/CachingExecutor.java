@@ -16,12 +16,15 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.executor.pagination.CountSqlSource;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -112,14 +115,17 @@ public class CachingExecutor implements Executor {
         ensureNoOutParams(ms, boundSql);
 
         // 从二级缓存中获取数据
-        @SuppressWarnings("unchecked")
-        List<E> list = (List<E>) tcm.getObject(cache, key);
+        List<E> list = getCachedList(ms, cache, key);
+        StatementMetricsRegistry metrics = ms.getConfiguration().getStatementMetrics();
+        if (metrics != null) {
+          metrics.get(ms.getId()).recordCacheLookup(list != null);
+        }
 
         // 如果二级缓存中没有查询到，则从一级缓存中查，一级缓存再没有数据，则从数据库查询
         if (list == null) {
           list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
           // 从一级缓存或数据库查询到数据后，需要将其保存回二级缓存
-          tcm.putObject(cache, key, list); // issue #578 and #116
+          putCachedList(ms, cache, key, list); // issue #578 and #116
         }
         return list;
       }
@@ -128,6 +134,38 @@ public class CachingExecutor implements Executor {
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
 
+  @SuppressWarnings("unchecked")
+  private <E> List<E> getCachedList(MappedStatement ms, Cache cache, CacheKey key) {
+    List<E> list = (List<E>) tcm.getObject(cache, key);
+    if (list == null || !isCountStatement(ms)) {
+      return list;
+    }
+    // 计数语句的缓存条目为 [count, expiresAt]，过期的条目视为未命中，在下次查询后被覆盖
+    if (list.size() != 2 || (Long) list.get(1) < System.currentTimeMillis()) {
+      return null;
+    }
+    List<E> count = new ArrayList<>(1);
+    count.add(list.get(0));
+    return count;
+  }
+
+  private void putCachedList(MappedStatement ms, Cache cache, CacheKey key, List<?> list) {
+    if (!isCountStatement(ms) || list.size() != 1) {
+      tcm.putObject(cache, key, list);
+      return;
+    }
+    // 计数语句的结果可以设置比命名空间缓存更短的存活时间
+    Long ttl = ms.getConfiguration().getCountCacheTtl();
+    List<Long> entry = new ArrayList<>(2);
+    entry.add((Long) list.get(0));
+    entry.add(ttl == null ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+    tcm.putObject(cache, key, entry);
+  }
+
+  private static boolean isCountStatement(MappedStatement ms) {
+    return ms.getId().endsWith(CountSqlSource.COUNT_SUFFIX);
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return delegate.flushStatements();
@@ -174,6 +212,11 @@ public class CachingExecutor implements Executor {
     return delegate.isCached(ms, key);
   }
 
+  @Override
+  public boolean isExecuting(MappedStatement ms, CacheKey key) {
+    return delegate.isExecuting(ms, key);
+  }
+
   @Override
   public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key,
       Class<?> targetType) {
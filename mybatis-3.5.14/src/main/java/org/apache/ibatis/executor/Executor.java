@@ -54,6 +54,23 @@ public interface Executor {
 
   boolean isCached(MappedStatement ms, CacheKey key);
 
+  /**
+   * Returns whether a query is being executed by this executor, as when a nested select refers back to a query whose
+   * results are still being read.
+   *
+   * @param ms
+   *          the statement
+   * @param key
+   *          the cache key of the query
+   *
+   * @return {@code true} if the query has started and its results are not in the local cache yet
+   *
+   * @since 3.5.15
+   */
+  default boolean isExecuting(MappedStatement ms, CacheKey key) {
+    return false;
+  }
+
   void clearLocalCache();
 
   void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType);
@@ -41,6 +41,14 @@ public class SelectKeyGenerator implements KeyGenerator {
     this.keyStatement = keyStatement;
   }
 
+  public MappedStatement getKeyStatement() {
+    return keyStatement;
+  }
+
+  public boolean isExecuteBefore() {
+    return executeBefore;
+  }
+
   @Override
   public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
     if (executeBefore) {
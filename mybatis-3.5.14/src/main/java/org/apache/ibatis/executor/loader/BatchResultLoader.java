@@ -0,0 +1,156 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A {@link ResultLoader} that loads the results of several siblings at once. All batch result loaders created for the
+ * same nested select while handling one result set share a {@link Batch}. When one of them is triggered, the keys of
+ * the pending siblings are collected and passed to the batch select, and the returned objects are distributed back to
+ * each loader using the batch key property.
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final Batch batch;
+
+  public BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement,
+      Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, Batch batch) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    batch.add(this);
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    batch.load(this);
+    return resultObject;
+  }
+
+  /**
+   * Pending loaders of one nested select.
+   */
+  public static class Batch {
+
+    private final MappedStatement batchStatement;
+    private final String keyProperty;
+    private final int batchSize;
+    private final List<BatchResultLoader> pending = new ArrayList<>();
+
+    public Batch(MappedStatement batchStatement, String keyProperty, int batchSize) {
+      this.batchStatement = batchStatement;
+      this.keyProperty = keyProperty;
+      this.batchSize = Math.max(batchSize, 1);
+    }
+
+    private synchronized void add(BatchResultLoader loader) {
+      pending.add(loader);
+    }
+
+    private synchronized void load(BatchResultLoader trigger) throws SQLException {
+      if (trigger.loaded) {
+        return;
+      }
+      List<BatchResultLoader> loaders = new ArrayList<>();
+      Set<Object> keys = new LinkedHashSet<>();
+      loaders.add(trigger);
+      keys.add(trigger.parameterObject);
+      for (Iterator<BatchResultLoader> iterator = pending.iterator(); iterator.hasNext();) {
+        BatchResultLoader loader = iterator.next();
+        if (loader == trigger || loader.loaded) {
+          iterator.remove();
+        } else if (keys.size() < batchSize || keys.contains(loader.parameterObject)) {
+          keys.add(loader.parameterObject);
+          loaders.add(loader);
+          iterator.remove();
+        }
+      }
+      List<Object> results = trigger.selectList(batchStatement,
+          ParamNameResolver.wrapToMapIfCollection(new ArrayList<>(keys), null));
+      Map<Object, List<Object>> resultsByKey = groupByKey(trigger.configuration, results, keyProperty);
+      for (BatchResultLoader loader : loaders) {
+        List<Object> list = resultsByKey.get(normalizeKey(loader.parameterObject));
+        loader.resultObject = loader.resultExtractor.extractObjectFromList(list == null ? new ArrayList<>() : list,
+            loader.targetType);
+        loader.loaded = true;
+      }
+    }
+  }
+
+  /**
+   * Groups the results of a batch select by the normalized value of their key property.
+   *
+   * @param configuration
+   *          the configuration
+   * @param results
+   *          the results of the batch select
+   * @param keyProperty
+   *          the property of the results holding the key
+   *
+   * @return the results grouped by key
+   */
+  public static Map<Object, List<Object>> groupByKey(Configuration configuration, List<Object> results,
+      String keyProperty) {
+    Map<Object, List<Object>> resultsByKey = new HashMap<>();
+    for (Object result : results) {
+      MetaObject metaObject = configuration.newMetaObject(result);
+      resultsByKey.computeIfAbsent(normalizeKey(metaObject.getValue(keyProperty)), k -> new ArrayList<>())
+          .add(result);
+    }
+    return resultsByKey;
+  }
+
+  /**
+   * Normalizes a key so that keys read from the parent rows and from the nested objects match even when they were
+   * mapped to different numeric types.
+   *
+   * @param key
+   *          the key
+   *
+   * @return the normalized key
+   */
+  public static Object normalizeKey(Object key) {
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    }
+    if (key instanceof BigDecimal || key instanceof BigInteger) {
+      try {
+        return new BigDecimal(key.toString()).longValueExact();
+      } catch (ArithmeticException e) {
+        return key;
+      }
+    }
+    return key;
+  }
+
+}
@@ -33,4 +33,32 @@ public interface ProxyFactory {
   Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs);
 
+  /**
+   * Creates a proxy of the result type directly, instead of creating a result object first and copying its properties
+   * into a proxy. The default implementation does the latter.
+   *
+   * @param type
+   *          the result type
+   * @param lazyLoader
+   *          the lazy loader
+   * @param configuration
+   *          the configuration
+   * @param objectFactory
+   *          the object factory
+   * @param constructorArgTypes
+   *          the constructor argument types
+   * @param constructorArgs
+   *          the constructor arguments
+   *
+   * @return the proxy
+   *
+   * @since 3.5.15
+   */
+  default Object createProxyInstance(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration,
+      ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    Object target = constructorArgTypes.isEmpty() ? objectFactory.create(type)
+        : objectFactory.create(type, constructorArgTypes, constructorArgs);
+    return createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+  }
+
 }
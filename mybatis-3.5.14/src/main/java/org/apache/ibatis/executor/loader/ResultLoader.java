@@ -68,19 +68,26 @@ public class ResultLoader {
   }
 
   public Object loadResult() throws SQLException {
-    List<Object> list = selectList();
+    List<Object> list = selectList(mappedStatement, parameterObject, cacheKey, boundSql);
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
 
-  private <E> List<E> selectList() throws SQLException {
+  protected <E> List<E> selectList(MappedStatement ms, Object parameter) throws SQLException {
+    return selectList(ms, parameter, null, null);
+  }
+
+  private <E> List<E> selectList(MappedStatement ms, Object parameter, CacheKey key, BoundSql boundSql)
+      throws SQLException {
     Executor localExecutor = executor;
     if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
       localExecutor = newExecutor();
     }
     try {
-      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER,
-          cacheKey, boundSql);
+      if (key == null) {
+        return localExecutor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      }
+      return localExecutor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, key, boundSql);
     } finally {
       if (localExecutor != executor) {
         localExecutor.close(false);
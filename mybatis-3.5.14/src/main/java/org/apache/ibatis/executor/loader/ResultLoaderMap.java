@@ -48,6 +48,7 @@ import org.apache.ibatis.session.RowBounds;
 public class ResultLoaderMap {
 
   private final Map<String, LoadPair> loaderMap = new HashMap<>();
+  private volatile boolean empty = true;
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
     String upperFirst = getUppercaseFirstProperty(property);
@@ -57,6 +58,7 @@ public class ResultLoaderMap {
           + " already exists in the result map. The leftmost property of all lazy loaded properties must be unique within a result map.");
     }
     loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
+    empty = false;
   }
 
   public final Map<String, LoadPair> getProperties() {
@@ -71,6 +73,18 @@ public class ResultLoaderMap {
     return loaderMap.size();
   }
 
+  /**
+   * Returns whether all properties have been loaded. Unlike the other methods, this one may be called without
+   * synchronizing on this map.
+   *
+   * @return {@code true} if there is no property left to load
+   *
+   * @since 3.5.15
+   */
+  public boolean isEmpty() {
+    return empty;
+  }
+
   public boolean hasLoader(String property) {
     return loaderMap.containsKey(property.toUpperCase(Locale.ENGLISH));
   }
@@ -78,7 +92,12 @@ public class ResultLoaderMap {
   public boolean load(String property) throws SQLException {
     LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
     if (pair != null) {
-      pair.load();
+      try {
+        pair.load();
+      } finally {
+        // only published once the value is set, so unsynchronized readers never see a half loaded object
+        empty = loaderMap.isEmpty();
+      }
       return true;
     }
     return false;
@@ -86,6 +105,7 @@ public class ResultLoaderMap {
 
   public void remove(String property) {
     loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    empty = loaderMap.isEmpty();
   }
 
   public void loadAll() throws SQLException {
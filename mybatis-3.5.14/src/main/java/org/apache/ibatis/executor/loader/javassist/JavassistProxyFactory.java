@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.executor.loader.javassist;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +56,13 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     }
   }
 
+  private static final ClassValue<ProxyClass> PROXY_CLASSES = new ClassValue<ProxyClass>() {
+    @Override
+    protected ProxyClass computeValue(Class<?> type) {
+      return new ProxyClass(type);
+    }
+  };
+
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
@@ -62,6 +70,14 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
         constructorArgTypes, constructorArgs);
   }
 
+  @Override
+  public Object createProxyInstance(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration,
+      ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration,
+        objectFactory, constructorArgTypes, constructorArgs);
+    return createStaticProxy(type, callback, constructorArgTypes, constructorArgs);
+  }
+
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
     return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes,
@@ -70,27 +86,9 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   static Object createStaticProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes,
       List<Object> constructorArgs) {
-
-    ProxyFactory enhancer = new ProxyFactory();
-    enhancer.setSuperclass(type);
-
-    try {
-      type.getDeclaredMethod(WRITE_REPLACE_METHOD);
-      // ObjectOutputStream will call writeReplace of objects returned by writeReplace
-      if (LogHolder.log.isDebugEnabled()) {
-        LogHolder.log.debug(WRITE_REPLACE_METHOD + " method was found on bean " + type + ", make sure it returns this");
-      }
-    } catch (NoSuchMethodException e) {
-      enhancer.setInterfaces(new Class[] { WriteReplaceInterface.class });
-    } catch (SecurityException e) {
-      // nothing to do here
-    }
-
     Object enhanced;
-    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
     try {
-      enhanced = enhancer.create(typesArray, valuesArray);
+      enhanced = PROXY_CLASSES.get(type).newInstance(constructorArgTypes, constructorArgs);
     } catch (Exception e) {
       throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
     }
@@ -98,6 +96,52 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     return enhanced;
   }
 
+  /**
+   * The proxy class generated for a result type. It is generated once per type, so creating a proxy only costs a
+   * constructor call.
+   */
+  private static class ProxyClass {
+
+    private final Class<?> proxyType;
+    private final Constructor<?> defaultConstructor;
+
+    ProxyClass(Class<?> type) {
+      ProxyFactory enhancer = new ProxyFactory();
+      enhancer.setSuperclass(type);
+
+      try {
+        type.getDeclaredMethod(WRITE_REPLACE_METHOD);
+        // ObjectOutputStream will call writeReplace of objects returned by writeReplace
+        if (LogHolder.log.isDebugEnabled()) {
+          LogHolder.log
+              .debug(WRITE_REPLACE_METHOD + " method was found on bean " + type + ", make sure it returns this");
+        }
+      } catch (NoSuchMethodException e) {
+        enhancer.setInterfaces(new Class[] { WriteReplaceInterface.class });
+      } catch (SecurityException e) {
+        // nothing to do here
+      }
+
+      this.proxyType = enhancer.createClass();
+      Constructor<?> constructor;
+      try {
+        constructor = proxyType.getConstructor();
+      } catch (NoSuchMethodException e) {
+        constructor = null;
+      }
+      this.defaultConstructor = constructor;
+    }
+
+    Object newInstance(List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws Exception {
+      if (constructorArgTypes.isEmpty() && defaultConstructor != null) {
+        return defaultConstructor.newInstance();
+      }
+      Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
+      Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
+      return proxyType.getConstructor(typesArray).newInstance(valuesArray);
+    }
+  }
+
   private static class EnhancedResultObjectProxyImpl implements MethodHandler {
 
     private final Class<?> type;
@@ -133,6 +177,10 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     public Object invoke(Object enhanced, Method method, Method methodProxy, Object[] args) throws Throwable {
       final String methodName = method.getName();
       try {
+        // no locking needed once every lazy property has been loaded
+        if (lazyLoader.isEmpty() && !WRITE_REPLACE_METHOD.equals(methodName)) {
+          return methodProxy.invoke(enhanced, args);
+        }
         synchronized (lazyLoader) {
           if (WRITE_REPLACE_METHOD.equals(methodName)) {
             Object original;
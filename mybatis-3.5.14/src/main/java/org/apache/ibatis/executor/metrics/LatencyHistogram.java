@@ -0,0 +1,166 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with power of two buckets, from 1 microsecond to about 9 minutes. Recording is lock free and
+ * may be done by any number of threads.
+ *
+ * @since 3.5.15
+ */
+public final class LatencyHistogram {
+
+  private static final int MIN_SHIFT = 10;
+  private static final int BUCKETS = 31;
+
+  private final LongAdder[] counts = new LongAdder[BUCKETS];
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+  LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    counts[bucket(nanos)].increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  void reset() {
+    for (LongAdder count : counts) {
+      count.reset();
+    }
+    totalNanos.reset();
+    maxNanos.reset();
+  }
+
+  Snapshot snapshot() {
+    long[] bucketCounts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      bucketCounts[i] = counts[i].sum();
+    }
+    return new Snapshot(bucketCounts, totalNanos.sum(), maxNanos.get());
+  }
+
+  static int bucket(long nanos) {
+    // bucket i holds the values up to 2^(MIN_SHIFT + i) nanoseconds
+    int bits = 64 - Long.numberOfLeadingZeros(Math.max(nanos - 1, 0));
+    return Math.min(Math.max(bits - MIN_SHIFT, 0), BUCKETS - 1);
+  }
+
+  static long upperBound(int bucket) {
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << (MIN_SHIFT + bucket);
+  }
+
+  /**
+   * An immutable view of a histogram.
+   */
+  public static final class Snapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    Snapshot(long[] bucketCounts, long totalNanos, long maxNanos) {
+      this.bucketCounts = bucketCounts;
+      this.count = Arrays.stream(bucketCounts).sum();
+      this.totalNanos = totalNanos;
+      this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+    public long getMeanNanos() {
+      return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Gets the upper bounds of the buckets, in nanoseconds. The last bucket is unbounded.
+     *
+     * @return the upper bounds
+     */
+    public long[] getBucketUpperBoundsNanos() {
+      long[] bounds = new long[bucketCounts.length];
+      for (int i = 0; i < bounds.length; i++) {
+        bounds[i] = upperBound(i);
+      }
+      return bounds;
+    }
+
+    public long[] getBucketCounts() {
+      return bucketCounts.clone();
+    }
+
+    public long getMedianNanos() {
+      return percentileNanos(50);
+    }
+
+    public long getP99Nanos() {
+      return percentileNanos(99);
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket holding it, capped by the maximum.
+     *
+     * @param percentile
+     *          the percentile, from 0 to 100
+     *
+     * @return the estimated latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentileNanos(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(count * percentile / 100);
+      long seen = 0;
+      for (int i = 0; i < bucketCounts.length; i++) {
+        seen += bucketCounts[i];
+        if (seen >= rank && seen > 0) {
+          return Math.min(upperBound(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "count=" + count + ", mean=" + getMeanNanos() + "ns, p50=" + getMedianNanos() + "ns, p99="
+          + getP99Nanos() + "ns, max=" + maxNanos + "ns";
+    }
+  }
+
+}
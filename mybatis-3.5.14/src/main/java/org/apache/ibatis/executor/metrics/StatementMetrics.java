@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The execution metrics of one mapped statement.
+ * <p>
+ * The latency of each execution is recorded in three phases: preparing the JDBC statement and binding its parameters,
+ * executing it, and mapping its results. Rows, batches and cache lookups are counted as well.
+ *
+ * @since 3.5.15
+ */
+public final class StatementMetrics {
+
+  private final String statementId;
+  private final LatencyHistogram prepare = new LatencyHistogram();
+  private final LatencyHistogram execute = new LatencyHistogram();
+  private final LatencyHistogram resultMapping = new LatencyHistogram();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder batchedStatements = new LongAdder();
+  private final LongAdder localCacheHits = new LongAdder();
+  private final LongAdder localCacheMisses = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  StatementMetrics(String statementId) {
+    this.statementId = statementId;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public void recordPrepare(long nanos) {
+    prepare.record(nanos);
+  }
+
+  public void recordExecute(long nanos) {
+    execute.record(nanos);
+  }
+
+  public void recordResultMapping(long nanos, int rowCount) {
+    resultMapping.record(nanos);
+    rows.add(rowCount);
+  }
+
+  public void recordBatch(int batchSize, long nanos) {
+    execute.record(nanos);
+    batches.increment();
+    batchedStatements.add(batchSize);
+  }
+
+  public void recordLocalCacheLookup(boolean hit) {
+    (hit ? localCacheHits : localCacheMisses).increment();
+  }
+
+  public void recordCacheLookup(boolean hit) {
+    (hit ? cacheHits : cacheMisses).increment();
+  }
+
+  void reset() {
+    prepare.reset();
+    execute.reset();
+    resultMapping.reset();
+    rows.reset();
+    batches.reset();
+    batchedStatements.reset();
+    localCacheHits.reset();
+    localCacheMisses.reset();
+    cacheHits.reset();
+    cacheMisses.reset();
+  }
+
+  /**
+   * Takes a snapshot of the metrics. Counters are read one by one while other threads may record, so a snapshot is not
+   * an atomic view.
+   *
+   * @return the snapshot
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(this);
+  }
+
+  /**
+   * An immutable view of the metrics of a statement.
+   */
+  public static final class Snapshot {
+
+    private final String statementId;
+    private final LatencyHistogram.Snapshot prepare;
+    private final LatencyHistogram.Snapshot execute;
+    private final LatencyHistogram.Snapshot resultMapping;
+    private final long rows;
+    private final long batches;
+    private final long batchedStatements;
+    private final long localCacheHits;
+    private final long localCacheMisses;
+    private final long cacheHits;
+    private final long cacheMisses;
+
+    private Snapshot(StatementMetrics metrics) {
+      this.statementId = metrics.statementId;
+      this.prepare = metrics.prepare.snapshot();
+      this.execute = metrics.execute.snapshot();
+      this.resultMapping = metrics.resultMapping.snapshot();
+      this.rows = metrics.rows.sum();
+      this.batches = metrics.batches.sum();
+      this.batchedStatements = metrics.batchedStatements.sum();
+      this.localCacheHits = metrics.localCacheHits.sum();
+      this.localCacheMisses = metrics.localCacheMisses.sum();
+      this.cacheHits = metrics.cacheHits.sum();
+      this.cacheMisses = metrics.cacheMisses.sum();
+    }
+
+    public String getStatementId() {
+      return statementId;
+    }
+
+    /**
+     * Gets the number of JDBC executions. A batch counts as one execution.
+     *
+     * @return the number of executions
+     */
+    public long getExecutions() {
+      return execute.getCount();
+    }
+
+    public LatencyHistogram.Snapshot getPrepare() {
+      return prepare;
+    }
+
+    public LatencyHistogram.Snapshot getExecute() {
+      return execute;
+    }
+
+    public LatencyHistogram.Snapshot getResultMapping() {
+      return resultMapping;
+    }
+
+    /**
+     * Gets the number of top level result objects mapped by queries.
+     *
+     * @return the number of rows
+     */
+    public long getRows() {
+      return rows;
+    }
+
+    public long getBatches() {
+      return batches;
+    }
+
+    public long getBatchedStatements() {
+      return batchedStatements;
+    }
+
+    public long getLocalCacheHits() {
+      return localCacheHits;
+    }
+
+    public long getLocalCacheMisses() {
+      return localCacheMisses;
+    }
+
+    public double getLocalCacheHitRatio() {
+      return ratio(localCacheHits, localCacheMisses);
+    }
+
+    public long getCacheHits() {
+      return cacheHits;
+    }
+
+    public long getCacheMisses() {
+      return cacheMisses;
+    }
+
+    public double getCacheHitRatio() {
+      return ratio(cacheHits, cacheMisses);
+    }
+
+    private static double ratio(long hits, long misses) {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+      return statementId + " {executions=" + getExecutions() + ", rows=" + rows + ", prepare=[" + prepare
+          + "], execute=[" + execute + "], resultMapping=[" + resultMapping + "], batches=" + batches
+          + ", batchedStatements=" + batchedStatements + ", localCacheHitRatio=" + getLocalCacheHitRatio()
+          + ", cacheHitRatio=" + getCacheHitRatio() + "}";
+    }
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.List;
+
+/**
+ * The JMX interface of {@link StatementMetricsRegistry}.
+ *
+ * @since 3.5.15
+ */
+public interface StatementMetricsMXBean {
+
+  /**
+   * Gets the metrics of all executed statements.
+   *
+   * @return the statement metrics, sorted by statement id
+   */
+  List<StatementMetrics.Snapshot> getStatements();
+
+  /**
+   * Clears all recorded metrics.
+   */
+  void reset();
+
+}
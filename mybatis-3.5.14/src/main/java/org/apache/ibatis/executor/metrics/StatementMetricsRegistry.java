@@ -0,0 +1,121 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.util.MapUtil;
+
+/**
+ * Holds the execution metrics of the statements of a configuration. Enabled with the {@code statementMetricsEnabled}
+ * setting, and available from {@link org.apache.ibatis.session.Configuration#getStatementMetrics()}.
+ * <p>
+ * All counters are {@link java.util.concurrent.atomic.LongAdder}s, so recording does not contend between threads.
+ *
+ * @since 3.5.15
+ */
+public class StatementMetricsRegistry implements StatementMetricsMXBean {
+
+  private final Map<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+  private ObjectName objectName;
+
+  /**
+   * Gets the metrics of a statement, creating them on first use.
+   *
+   * @param statementId
+   *          the mapped statement id
+   *
+   * @return the metrics
+   */
+  public StatementMetrics get(String statementId) {
+    return MapUtil.computeIfAbsent(metrics, statementId, StatementMetrics::new);
+  }
+
+  /**
+   * Gets a snapshot of the metrics of a statement.
+   *
+   * @param statementId
+   *          the mapped statement id
+   *
+   * @return the snapshot, or {@code null} if the statement was not executed
+   */
+  public StatementMetrics.Snapshot snapshot(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    return statementMetrics == null ? null : statementMetrics.snapshot();
+  }
+
+  @Override
+  public List<StatementMetrics.Snapshot> getStatements() {
+    List<StatementMetrics.Snapshot> snapshots = new ArrayList<>(metrics.size());
+    for (StatementMetrics statementMetrics : metrics.values()) {
+      snapshots.add(statementMetrics.snapshot());
+    }
+    snapshots.sort((a, b) -> a.getStatementId().compareTo(b.getStatementId()));
+    return snapshots;
+  }
+
+  @Override
+  public void reset() {
+    for (StatementMetrics statementMetrics : metrics.values()) {
+      statementMetrics.reset();
+    }
+  }
+
+  /**
+   * Registers this registry in the platform MBean server as {@code org.apache.ibatis:type=StatementMetrics,name=}
+   * <i>name</i>.
+   *
+   * @param name
+   *          distinguishes the configurations of an application, e.g. the environment id
+   *
+   * @return the object name
+   *
+   * @throws JMException
+   *           if the registration fails
+   */
+  public synchronized ObjectName registerMBean(String name) throws JMException {
+    unregisterMBean();
+    ObjectName newName = new ObjectName("org.apache.ibatis:type=StatementMetrics,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+    objectName = newName;
+    return newName;
+  }
+
+  /**
+   * Removes this registry from the platform MBean server, if it was registered.
+   *
+   * @throws JMException
+   *           if the removal fails
+   */
+  public synchronized void unregisterMBean() throws JMException {
+    if (objectName != null) {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+      objectName = null;
+    }
+  }
+
+}
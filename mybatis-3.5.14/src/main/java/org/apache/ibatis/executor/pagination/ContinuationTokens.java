@@ -0,0 +1,179 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes sort key values into continuation tokens. Each value is written as a type tag followed by its value, so that
+ * decoding a token never instantiates arbitrary classes.
+ */
+final class ContinuationTokens {
+
+  private static final int VERSION = 1;
+
+  private ContinuationTokens() {
+    // Prevent Instantiation
+  }
+
+  static String encode(List<Object> values) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeByte(values.size());
+      for (Object value : values) {
+        writeValue(out, value);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not encode the continuation token.", e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  static List<Object> decode(String token) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+      if (in.readUnsignedByte() != VERSION) {
+        throw new IOException("Unsupported token version.");
+      }
+      int size = in.readUnsignedByte();
+      List<Object> values = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        values.add(readValue(in));
+      }
+      if (in.read() != -1) {
+        throw new IOException("Unexpected trailing bytes.");
+      }
+      return values;
+    } catch (IOException | RuntimeException e) {
+      // the token comes from a client: invalid Base64, truncated data or unparsable values
+      throw new IllegalArgumentException("Malformed continuation token '" + token + "'.", e);
+    }
+  }
+
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value instanceof String) {
+      out.writeByte('S');
+      out.writeUTF((String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte('I');
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte('J');
+      out.writeLong((Long) value);
+    } else if (value instanceof Short) {
+      out.writeByte('H');
+      out.writeShort((Short) value);
+    } else if (value instanceof Double) {
+      out.writeByte('D');
+      out.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      out.writeByte('F');
+      out.writeFloat((Float) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte('Z');
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof BigDecimal) {
+      out.writeByte('N');
+      out.writeUTF(value.toString());
+    } else if (value instanceof BigInteger) {
+      out.writeByte('B');
+      out.writeUTF(value.toString());
+    } else if (value instanceof Timestamp) {
+      out.writeByte('T');
+      out.writeLong(((Timestamp) value).getTime());
+      out.writeInt(((Timestamp) value).getNanos());
+    } else if (value instanceof java.sql.Date) {
+      out.writeByte('d');
+      out.writeLong(((Date) value).getTime());
+    } else if (value.getClass() == Date.class) {
+      out.writeByte('U');
+      out.writeLong(((Date) value).getTime());
+    } else if (value instanceof LocalDate) {
+      out.writeByte('L');
+      out.writeUTF(value.toString());
+    } else if (value instanceof LocalDateTime) {
+      out.writeByte('M');
+      out.writeUTF(value.toString());
+    } else if (value instanceof Instant) {
+      out.writeByte('X');
+      out.writeUTF(value.toString());
+    } else if (value instanceof UUID) {
+      out.writeByte('R');
+      out.writeUTF(value.toString());
+    } else {
+      throw new IllegalArgumentException(
+          "Sort key values of type " + value.getClass().getName() + " cannot be put in a continuation token.");
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'S':
+        return in.readUTF();
+      case 'I':
+        return in.readInt();
+      case 'J':
+        return in.readLong();
+      case 'H':
+        return in.readShort();
+      case 'D':
+        return in.readDouble();
+      case 'F':
+        return in.readFloat();
+      case 'Z':
+        return in.readBoolean();
+      case 'N':
+        return new BigDecimal(in.readUTF());
+      case 'B':
+        return new BigInteger(in.readUTF());
+      case 'T':
+        Timestamp timestamp = new Timestamp(in.readLong());
+        timestamp.setNanos(in.readInt());
+        return timestamp;
+      case 'd':
+        return new java.sql.Date(in.readLong());
+      case 'U':
+        return new Date(in.readLong());
+      case 'L':
+        return LocalDate.parse(in.readUTF());
+      case 'M':
+        return LocalDateTime.parse(in.readUTF());
+      case 'X':
+        return Instant.parse(in.readUTF());
+      case 'R':
+        return UUID.fromString(in.readUTF());
+      default:
+        throw new IOException("Unknown value type '" + (char) tag + "'.");
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.executor.pagination.DialectSupport.Word;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A SQL source counting the rows of the query of another SQL source. The trailing {@code ORDER BY} of the query is
+ * removed, unless it is followed by a limit, and the query is wrapped in {@code SELECT COUNT(*)}. The count query is
+ * bound to the same parameters as the original query.
+ *
+ * @since 3.5.15
+ */
+public class CountSqlSource implements SqlSource {
+
+  /**
+   * The suffix appended to the id of a select to get the id of its count statement.
+   */
+  public static final String COUNT_SUFFIX = "!count";
+
+  private final Configuration configuration;
+  private final SqlSource sqlSource;
+
+  public CountSqlSource(Configuration configuration, SqlSource sqlSource) {
+    this.configuration = configuration;
+    this.sqlSource = sqlSource;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql countBoundSql = new BoundSql(configuration, getCountSql(boundSql.getSql()),
+        boundSql.getParameterMappings(), parameterObject);
+    countBoundSql.getAdditionalParameters().putAll(boundSql.getAdditionalParameters());
+    return countBoundSql;
+  }
+
+  /**
+   * Derives the query counting the rows of a query.
+   *
+   * @param sql
+   *          the query
+   *
+   * @return the count query
+   */
+  public static String getCountSql(String sql) {
+    return "SELECT COUNT(*) FROM (" + removeOrderBy(DialectSupport.trimQuery(sql)) + ") COUNT_";
+  }
+
+  /**
+   * Removes the top level {@code ORDER BY} clause ending a query. It is kept when followed by {@code LIMIT},
+   * {@code OFFSET} or {@code FETCH}, since it then determines which rows are counted.
+   */
+  static String removeOrderBy(String sql) {
+    List<Word> words = DialectSupport.getTopLevelWords(sql);
+    int orderBy = -1;
+    for (int w = words.size() - 2; w >= 0 && orderBy < 0; w--) {
+      if ("ORDER".equals(words.get(w).text) && "BY".equals(words.get(w + 1).text)) {
+        orderBy = w;
+      }
+    }
+    if (orderBy < 0) {
+      return sql;
+    }
+    for (Word word : words.subList(orderBy + 2, words.size())) {
+      if ("LIMIT".equals(word.text) || "OFFSET".equals(word.text) || "FETCH".equals(word.text)) {
+        return sql;
+      }
+    }
+    return sql.substring(0, words.get(orderBy).start).trim();
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+/**
+ * Rewrites queries into the paging syntax of a database, so that only the rows of the requested page are read and sent
+ * by the database.
+ *
+ * @since 3.5.15
+ *
+ * @see DialectRegistry
+ * @see org.apache.ibatis.session.Configuration#setPhysicalPagingEnabled(boolean)
+ */
+public interface Dialect {
+
+  /**
+   * Rewrites a query so that it skips {@code offset} rows and returns at most {@code limit} rows. The offset and limit
+   * are not written into the query: each value is added as a {@code ?} placeholder after the placeholders of the
+   * query, and appended to {@code parameters} in the same order, so the rewritten query does not change from page to
+   * page.
+   *
+   * @param sql
+   *          the query
+   * @param offset
+   *          the number of rows to skip, {@code 0} to skip none
+   * @param limit
+   *          the maximum number of rows, {@link org.apache.ibatis.session.RowBounds#NO_ROW_LIMIT} for no limit
+   * @param parameters
+   *          the list receiving the values to bind to the added placeholders
+   *
+   * @return the paged query
+   *
+   * @throws org.apache.ibatis.executor.ExecutorException
+   *           if the query cannot be paged by this dialect, e.g. because it is already paged or locks rows
+   */
+  String getPagedSql(String sql, int offset, int limit, List<Object> parameters);
+
+  /**
+   * Returns whether {@link #getPagedSql(String, int, int, List)} can rewrite a query. When physical paging is enabled,
+   * a query this dialect cannot rewrite is paged in memory instead.
+   *
+   * @param sql
+   *          the query
+   *
+   * @return {@code true} if the query can be paged by this dialect
+   */
+  default boolean isPageable(String sql) {
+    return true;
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dialects used to page queries, by database id. The id is matched ignoring case and is either one of the names
+ * registered by default or a name registered with {@link #register(String, Dialect)}, such as an alias given to
+ * {@link org.apache.ibatis.mapping.VendorDatabaseIdProvider}.
+ * <p>
+ * Registered by default are {@code mysql}, {@code mariadb}, {@code postgresql}, {@code h2}, {@code hsqldb},
+ * {@code sqlite}, {@code derby}, {@code db2}, {@code sqlserver} and {@code oracle}, as well as the product names
+ * these databases report to {@link org.apache.ibatis.mapping.VendorDatabaseIdProvider} when it has no aliases.
+ *
+ * @since 3.5.15
+ */
+public class DialectRegistry {
+
+  private final Map<String, Dialect> dialects = new ConcurrentHashMap<>();
+
+  public DialectRegistry() {
+    Dialect limitOffset = new LimitOffsetDialect();
+    Dialect offsetFetch = new OffsetFetchDialect();
+    register("mysql", limitOffset);
+    register("mariadb", limitOffset);
+    register("postgresql", limitOffset);
+    register("h2", limitOffset);
+    register("hsqldb", limitOffset);
+    register("HSQL Database Engine", limitOffset);
+    register("sqlite", limitOffset);
+    register("derby", offsetFetch);
+    register("Apache Derby", offsetFetch);
+    register("db2", offsetFetch);
+    register("sqlserver", offsetFetch);
+    register("Microsoft SQL Server", offsetFetch);
+    register("oracle", new RowNumDialect());
+  }
+
+  /**
+   * Registers the dialect of a database id, replacing any dialect registered for it.
+   *
+   * @param databaseId
+   *          the database id
+   * @param dialect
+   *          the dialect
+   */
+  public void register(String databaseId, Dialect dialect) {
+    dialects.put(databaseId.toLowerCase(Locale.ENGLISH), dialect);
+  }
+
+  /**
+   * Gets the dialect of a database id.
+   *
+   * @param databaseId
+   *          the database id, may be {@code null}
+   *
+   * @return the dialect, or {@code null} if none is registered for the id
+   */
+  public Dialect getDialect(String databaseId) {
+    if (databaseId == null) {
+      return null;
+    }
+    Dialect dialect = dialects.get(databaseId);
+    return dialect != null ? dialect : dialects.get(databaseId.toLowerCase(Locale.ENGLISH));
+  }
+
+}
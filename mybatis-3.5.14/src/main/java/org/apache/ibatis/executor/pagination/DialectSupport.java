@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+final class DialectSupport {
+
+  private DialectSupport() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Removes trailing whitespace and statement terminators, so that clauses can be appended to the query.
+   */
+  static String trimQuery(String sql) {
+    int end = sql.length();
+    while (end > 0 && (Character.isWhitespace(sql.charAt(end - 1)) || sql.charAt(end - 1) == ';')) {
+      end--;
+    }
+    return end == sql.length() ? sql : sql.substring(0, end);
+  }
+
+  /**
+   * Checks that paging clauses can be added to a query. It must not be paged already or lock rows, since neither
+   * clause can be followed or wrapped by the paging syntax.
+   *
+   * @param sql
+   *          the query
+   * @param orderByRequired
+   *          whether the paging syntax is only valid after a top level {@code ORDER BY}
+   */
+  static void checkPageable(String sql, boolean orderByRequired) {
+    String reason = getUnpageableReason(sql, orderByRequired);
+    if (reason != null) {
+      throw new ExecutorException(reason + sql);
+    }
+  }
+
+  /**
+   * Returns whether {@link #checkPageable(String, boolean)} accepts a query.
+   */
+  static boolean isPageable(String sql, boolean orderByRequired) {
+    return getUnpageableReason(trimQuery(sql), orderByRequired) == null;
+  }
+
+  private static String getUnpageableReason(String sql, boolean orderByRequired) {
+    List<Word> words = getTopLevelWords(sql);
+    boolean orderBy = false;
+    for (int w = 0; w < words.size(); w++) {
+      String word = words.get(w).text;
+      String next = w + 1 < words.size() ? words.get(w + 1).text : null;
+      if ("LIMIT".equals(word) || "OFFSET".equals(word) || "FETCH".equals(word)) {
+        return "Cannot page a query that already has a " + word + " clause: ";
+      }
+      if ("FOR".equals(word) && "UPDATE".equals(next)) {
+        return "Cannot page a query locking rows with FOR UPDATE: ";
+      }
+      orderBy |= "ORDER".equals(word) && "BY".equals(next);
+    }
+    if (orderByRequired && !orderBy) {
+      return "Paging with OFFSET and FETCH requires a query with an ORDER BY clause: ";
+    }
+    return null;
+  }
+
+  /**
+   * Gets the keywords and identifiers of a query outside of parentheses, literals and comments, upper cased.
+   */
+  static List<Word> getTopLevelWords(String sql) {
+    List<Word> words = new ArrayList<>();
+    int depth = 0;
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        // skip literals and quoted identifiers, a doubled quote is read as two adjacent literals
+        int end = sql.indexOf(c, i + 1);
+        i = end < 0 ? sql.length() : end + 1;
+      } else if (c == '-' && i + 1 < sql.length() && sql.charAt(i + 1) == '-') {
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? sql.length() : end + 1;
+      } else if (c == '/' && i + 1 < sql.length() && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? sql.length() : end + 2;
+      } else if (c == '(') {
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth--;
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        int start = i;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+            || sql.charAt(i) == '$' || sql.charAt(i) == '.')) {
+          i++;
+        }
+        if (depth == 0) {
+          words.add(new Word(sql.substring(start, i).toUpperCase(Locale.ENGLISH), start));
+        }
+      } else {
+        i++;
+      }
+    }
+    return words;
+  }
+
+  static final class Word {
+
+    final String text;
+    final int start;
+
+    Word(String text, int start) {
+      this.text = text;
+      this.start = start;
+    }
+  }
+
+}
@@ -0,0 +1,316 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Row bounds paging a select by seeking past the sort key values of the last row of the previous page, instead of
+ * skipping rows with an offset. The query is wrapped so that it only returns the rows after those values, ordered by
+ * the sort keys, and limited by the {@link org.apache.ibatis.session.Configuration#getPagingDialect() paging dialect}
+ * when one is found. The sort keys must identify a row, e.g. end with the primary key.
+ * <p>
+ * A page is read with a mapper method declaring a {@code KeysetRowBounds} (or {@code RowBounds}) parameter. The bounds
+ * of the next page are computed with {@link #next(List)}, and may be handed to a client as a
+ * {@link #getContinuationToken() continuation token}.
+ *
+ * @since 3.5.15
+ */
+public class KeysetRowBounds extends RowBounds {
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+
+  private final List<SortKey> sortKeys;
+  private final List<Object> afterValues;
+
+  /**
+   * Instantiates the bounds of the first page.
+   *
+   * @param limit
+   *          the maximum number of rows of a page
+   * @param sortKeys
+   *          the sort keys
+   */
+  public KeysetRowBounds(int limit, SortKey... sortKeys) {
+    this(limit, null, Arrays.asList(sortKeys), Collections.emptyList());
+  }
+
+  /**
+   * Instantiates the bounds of a page.
+   *
+   * @param limit
+   *          the maximum number of rows of a page
+   * @param fetchSize
+   *          the fetch size hint, or {@code null}
+   * @param sortKeys
+   *          the sort keys
+   * @param afterValues
+   *          the sort key values of the last row of the previous page, empty for the first page
+   */
+  public KeysetRowBounds(int limit, Integer fetchSize, List<SortKey> sortKeys, List<?> afterValues) {
+    super(NO_ROW_OFFSET, limit, fetchSize);
+    if (limit <= 0) {
+      throw new IllegalArgumentException("The limit of a keyset page must be positive but was " + limit + ".");
+    }
+    if (sortKeys.isEmpty()) {
+      throw new IllegalArgumentException("Keyset paging requires at least one sort key.");
+    }
+    if (!afterValues.isEmpty() && afterValues.size() != sortKeys.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + sortKeys.size() + " sort key values but got " + afterValues.size() + ".");
+    }
+    for (Object value : afterValues) {
+      if (value == null) {
+        throw new IllegalArgumentException("Sort key values must not be null.");
+      }
+    }
+    this.sortKeys = Collections.unmodifiableList(new ArrayList<>(sortKeys));
+    this.afterValues = Collections.unmodifiableList(new ArrayList<>(afterValues));
+  }
+
+  /**
+   * Instantiates the bounds of the page following a continuation token.
+   *
+   * @param token
+   *          the token returned by {@link #getContinuationToken()}
+   * @param limit
+   *          the maximum number of rows of a page
+   * @param sortKeys
+   *          the sort keys the token was created with
+   *
+   * @return the bounds
+   *
+   * @throws IllegalArgumentException
+   *           if the token is malformed or does not match the sort keys
+   */
+  public static KeysetRowBounds fromContinuationToken(String token, int limit, SortKey... sortKeys) {
+    return new KeysetRowBounds(limit, null, Arrays.asList(sortKeys), ContinuationTokens.decode(token));
+  }
+
+  public List<SortKey> getSortKeys() {
+    return sortKeys;
+  }
+
+  /**
+   * Gets the sort key values of the last row of the previous page.
+   *
+   * @return the values, empty for the first page
+   */
+  public List<Object> getAfterValues() {
+    return afterValues;
+  }
+
+  public boolean isFirstPage() {
+    return afterValues.isEmpty();
+  }
+
+  /**
+   * Computes the bounds of the page following the given one. The sort key values are read from the properties of the
+   * last result.
+   *
+   * @param page
+   *          the results read with these bounds
+   *
+   * @return the bounds of the next page, or {@code null} if the page was the last one
+   */
+  public KeysetRowBounds next(List<?> page) {
+    if (page.size() < getLimit()) {
+      return null;
+    }
+    MetaObject last = SystemMetaObject.forObject(page.get(page.size() - 1));
+    List<Object> values = new ArrayList<>(sortKeys.size());
+    for (SortKey sortKey : sortKeys) {
+      Object value = last.getValue(sortKey.getProperty());
+      if (value == null) {
+        throw new IllegalStateException(
+            "The sort key property '" + sortKey.getProperty() + "' of the last row is null.");
+      }
+      values.add(value);
+    }
+    return new KeysetRowBounds(getLimit(), getFetchSize(), sortKeys, values);
+  }
+
+  /**
+   * Encodes the sort key values of the last row of the previous page into an URL safe token. The token only carries
+   * values; it is read back with {@link #fromContinuationToken(String, int, SortKey...)} and the same sort keys.
+   *
+   * @return the token, or {@code null} for the first page
+   */
+  public String getContinuationToken() {
+    return isFirstPage() ? null : ContinuationTokens.encode(afterValues);
+  }
+
+  /**
+   * Wraps a query so that it only returns the rows after the last row of the previous page, ordered by the sort keys.
+   * The returned query has one placeholder for each of the {@link #getSeekParameters() seek parameters}, after the
+   * placeholders of the original query.
+   *
+   * @param sql
+   *          the query
+   *
+   * @return the wrapped query
+   */
+  public String getSeekSql(String sql) {
+    StringBuilder seek = new StringBuilder(sql.length() + 64 * sortKeys.size());
+    seek.append("SELECT * FROM (").append(DialectSupport.trimQuery(sql)).append(") KEYSET_");
+    if (!isFirstPage()) {
+      // (k1 > ?) OR (k1 = ? AND k2 > ?) ..., unlike a row value comparison it supports mixed directions
+      seek.append(" WHERE ");
+      for (int i = 0; i < sortKeys.size(); i++) {
+        seek.append(i == 0 ? "(" : " OR (");
+        for (int j = 0; j < i; j++) {
+          seek.append(sortKeys.get(j).getColumn()).append(" = ? AND ");
+        }
+        SortKey sortKey = sortKeys.get(i);
+        seek.append(sortKey.getColumn()).append(sortKey.isDescending() ? " < ?)" : " > ?)");
+      }
+    }
+    seek.append(" ORDER BY ");
+    for (int i = 0; i < sortKeys.size(); i++) {
+      SortKey sortKey = sortKeys.get(i);
+      seek.append(i == 0 ? "" : ", ").append(sortKey.getColumn()).append(sortKey.isDescending() ? " DESC" : " ASC");
+    }
+    return seek.toString();
+  }
+
+  /**
+   * Gets the values bound to the placeholders added by {@link #getSeekSql(String)}, in order.
+   *
+   * @return the values, empty for the first page
+   */
+  public List<Object> getSeekParameters() {
+    List<Object> parameters = new ArrayList<>();
+    for (int i = 0; i < afterValues.size(); i++) {
+      parameters.addAll(afterValues.subList(0, i + 1));
+    }
+    return parameters;
+  }
+
+  /**
+   * A column the pages are ordered by.
+   */
+  public static final class SortKey {
+
+    private final String column;
+    private final String property;
+    private final boolean descending;
+
+    private SortKey(String column, String property, boolean descending) {
+      if (column == null || !IDENTIFIER.matcher(column).matches()) {
+        throw new IllegalArgumentException("Invalid sort key column '" + column + "'.");
+      }
+      this.column = column;
+      this.property = property == null ? column : property;
+      this.descending = descending;
+    }
+
+    /**
+     * Creates an ascending sort key read from the result property of the same name.
+     *
+     * @param column
+     *          the column label in the results of the query
+     *
+     * @return the sort key
+     */
+    public static SortKey asc(String column) {
+      return new SortKey(column, null, false);
+    }
+
+    /**
+     * Creates an ascending sort key.
+     *
+     * @param column
+     *          the column label in the results of the query
+     * @param property
+     *          the result property holding the column value
+     *
+     * @return the sort key
+     */
+    public static SortKey asc(String column, String property) {
+      return new SortKey(column, property, false);
+    }
+
+    /**
+     * Creates a descending sort key read from the result property of the same name.
+     *
+     * @param column
+     *          the column label in the results of the query
+     *
+     * @return the sort key
+     */
+    public static SortKey desc(String column) {
+      return new SortKey(column, null, true);
+    }
+
+    /**
+     * Creates a descending sort key.
+     *
+     * @param column
+     *          the column label in the results of the query
+     * @param property
+     *          the result property holding the column value
+     *
+     * @return the sort key
+     */
+    public static SortKey desc(String column, String property) {
+      return new SortKey(column, property, true);
+    }
+
+    public String getColumn() {
+      return column;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public boolean isDescending() {
+      return descending;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SortKey)) {
+        return false;
+      }
+      SortKey other = (SortKey) o;
+      return descending == other.descending && column.equals(other.column) && property.equals(other.property);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(column, property, descending);
+    }
+
+    @Override
+    public String toString() {
+      return column + (descending ? " DESC" : " ASC");
+    }
+  }
+
+}
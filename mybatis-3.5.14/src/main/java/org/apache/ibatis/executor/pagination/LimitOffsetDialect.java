@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A dialect appending {@code LIMIT n OFFSET m}, as supported by MySQL, MariaDB, PostgreSQL, H2, HSQLDB and SQLite.
+ *
+ * @since 3.5.15
+ */
+public class LimitOffsetDialect implements Dialect {
+
+  @Override
+  public String getPagedSql(String sql, int offset, int limit, List<Object> parameters) {
+    String query = DialectSupport.trimQuery(sql);
+    DialectSupport.checkPageable(query, false);
+    StringBuilder paged = new StringBuilder(query.length() + 20).append(query).append(" LIMIT ?");
+    // MySQL does not accept OFFSET without LIMIT
+    parameters.add(limit == RowBounds.NO_ROW_LIMIT ? Integer.MAX_VALUE : limit);
+    if (offset > 0) {
+      paged.append(" OFFSET ?");
+      parameters.add(offset);
+    }
+    return paged.toString();
+  }
+
+  @Override
+  public boolean isPageable(String sql) {
+    return DialectSupport.isPageable(sql, false);
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A dialect appending the SQL:2008 {@code OFFSET m ROWS FETCH NEXT n ROWS ONLY} clauses, as supported by Derby, DB2,
+ * Oracle 12c and later, and SQL Server 2012 and later. The query must have a top level {@code ORDER BY}: SQL Server
+ * only accepts the clauses after one, and without it the rows of each page are not defined.
+ *
+ * @since 3.5.15
+ */
+public class OffsetFetchDialect implements Dialect {
+
+  @Override
+  public String getPagedSql(String sql, int offset, int limit, List<Object> parameters) {
+    String query = DialectSupport.trimQuery(sql);
+    DialectSupport.checkPageable(query, true);
+    StringBuilder paged = new StringBuilder(query.length() + 40).append(query).append(" OFFSET ? ROWS");
+    parameters.add(offset);
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      paged.append(" FETCH NEXT ? ROWS ONLY");
+      parameters.add(limit);
+    }
+    return paged.toString();
+  }
+
+  @Override
+  public boolean isPageable(String sql) {
+    return DialectSupport.isPageable(sql, true);
+  }
+
+}
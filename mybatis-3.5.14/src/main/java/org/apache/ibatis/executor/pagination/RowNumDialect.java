@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A dialect wrapping the query in {@code ROWNUM} filters, for Oracle versions without {@code OFFSET}/{@code FETCH}.
+ * When rows are skipped, the results carry an extra {@code ROWNUM_} column.
+ *
+ * @since 3.5.15
+ */
+public class RowNumDialect implements Dialect {
+
+  @Override
+  public String getPagedSql(String sql, int offset, int limit, List<Object> parameters) {
+    String query = DialectSupport.trimQuery(sql);
+    DialectSupport.checkPageable(query, false);
+    StringBuilder paged = new StringBuilder(query.length() + 100);
+    if (offset == 0) {
+      parameters.add(limit);
+      return paged.append("SELECT * FROM (").append(query).append(") WHERE ROWNUM <= ?").toString();
+    }
+    paged.append("SELECT * FROM (SELECT ROW_.*, ROWNUM ROWNUM_ FROM (").append(query).append(") ROW_");
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      paged.append(" WHERE ROWNUM <= ?");
+      // offset + limit may not fit in an int
+      parameters.add((long) offset + limit);
+    }
+    parameters.add(offset);
+    return paged.append(") WHERE ROWNUM_ > ?").toString();
+  }
+
+  @Override
+  public boolean isPageable(String sql) {
+    return DialectSupport.isPageable(sql, false);
+  }
+
+}
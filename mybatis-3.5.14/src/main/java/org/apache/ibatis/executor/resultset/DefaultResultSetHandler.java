@@ -26,11 +26,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.annotations.Param;
@@ -41,8 +46,11 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
@@ -56,16 +64,25 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleMethodInvoker;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 import org.apache.ibatis.util.MapUtil;
 
 /**
@@ -98,6 +115,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // batched nested selects
+  private final Map<ResultMapping, BatchResultLoader.Batch> lazyLoadBatches = new IdentityHashMap<>();
+  private final Map<ResultMapping, List<PendingNestedQuery>> pendingNestedQueries = new LinkedHashMap<>();
+  private boolean batchEagerNestedQueries;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
   private final Map<String, List<String>> constructorAutoMappingColumns = new HashMap<>();
@@ -105,16 +127,38 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
+  // number of top level result objects, recorded in the statement metrics
+  private int mappedRows;
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingNestedQuery {
+    private final MetaObject metaObject;
+    private final MappedStatement nestedQuery;
+    private final Object parameterObject;
+    private final CacheKey cacheKey;
+    private final BoundSql boundSql;
+
+    PendingNestedQuery(MetaObject metaObject, MappedStatement nestedQuery, Object parameterObject, CacheKey cacheKey,
+        BoundSql boundSql) {
+      this.metaObject = metaObject;
+      this.nestedQuery = nestedQuery;
+      this.parameterObject = parameterObject;
+      this.cacheKey = cacheKey;
+      this.boundSql = boundSql;
+    }
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
+    private Class<?> targetType;
+    private PrimitiveColumnSetter primitiveSetter;
 
     public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
@@ -124,6 +168,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private interface PrimitiveColumnSetter {
+    /**
+     * Reads a column by index, or by name when the index is 0, and sets a non-null value on the target.
+     *
+     * @return {@code true} if the column was not null
+     */
+    boolean apply(ResultSet rs, int index, String column, Object target) throws SQLException;
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler,
       ResultHandler<?> resultHandler, BoundSql boundSql, RowBounds rowBounds) {
     this.executor = executor;
@@ -190,10 +243,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   public List<Object> handleResultSets(Statement stmt) throws SQLException {
     // 错误上下文日志记录
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
+    StatementMetricsRegistry metrics = configuration.getStatementMetrics();
+    long start = metrics == null ? 0L : System.nanoTime();
     // 创建一个 List 来存储多个结果集
     final List<Object> multipleResults = new ArrayList<>();
 
     int resultSetCount = 0;
+    // 结果由内部收集时，非延迟的批量嵌套查询可以等所有行处理完后再按批执行
+    batchEagerNestedQueries = resultHandler == null;
     // 获取第一个结果集的包装器，其中具有 ResultSet 结果集和列相关的信息
     ResultSetWrapper rsw = getFirstResultSet(stmt);
     // 获取到配置里的所有 ResultMap
@@ -228,6 +285,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    // 执行收集到的批量嵌套查询，并将结果回填到各父对象
+    loadPendingNestedQueries();
+    batchEagerNestedQueries = false;
+
+    if (metrics != null) {
+      // 结果映射耗时包含了非延迟嵌套查询的执行时间
+      metrics.get(mappedStatement.getId()).recordResultMapping(System.nanoTime() - start, mappedRows);
+    }
     return collapseSingleResultList(multipleResults);
   }
 
@@ -424,6 +489,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object> */)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext,
       Object rowValue) {
+    mappedRows++;
     resultContext.nextResultObject(rowValue);
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
@@ -529,7 +595,6 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject,
       ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
     for (ResultMapping propertyMapping : propertyMappings) {
@@ -539,10 +604,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         column = null;
       }
       if (propertyMapping.isCompositeResult()
-          || column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))
-          || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader,
-            columnPrefix);
+          // 映射列都在 resultMap 的 mappedColumns 中，只需判断结果集中是否存在该列
+          || column != null && rsw.hasColumn(column) || propertyMapping.getResultSet() != null) {
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -565,8 +629,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping,
-      ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject,
+      ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     }
@@ -576,7 +641,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rsw, typeHandler, column);
     }
   }
 
@@ -610,8 +675,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping
-                .add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            UnMappedColumnAutoMapping mapping = new UnMappedColumnAutoMapping(columnName, property, typeHandler,
+                propertyType.isPrimitive());
+            if (mapping.primitive) {
+              compilePrimitiveSetter(mapping, metaObject);
+            }
+            autoMapping.add(mapping);
           } else {
             configuration.getAutoMappingUnknownColumnBehavior().doAction(mappedStatement, columnName, property,
                 propertyType);
@@ -632,7 +701,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        if (mapping.primitiveSetter != null && mapping.targetType == metaObject.getOriginalObject().getClass()) {
+          // 基本类型属性直接读取并赋值，不经过装箱
+          foundValues = applyPrimitiveMapping(rsw, mapping, metaObject.getOriginalObject()) || foundValues;
+          continue;
+        }
+        final Object value = getColumnValue(rsw, mapping.typeHandler, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -645,6 +719,87 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  private void compilePrimitiveSetter(UnMappedColumnAutoMapping mapping, MetaObject metaObject) {
+    TypeHandler<?> typeHandler = mapping.typeHandler;
+    if (!PrimitiveTypeHandler.isUsable(typeHandler) || mapping.property.indexOf('.') != -1
+        || !(metaObject.getObjectWrapper() instanceof BeanWrapper)) {
+      return;
+    }
+    Class<?> targetType = metaObject.getOriginalObject().getClass();
+    Reflector reflector = reflectorFactory.findForClass(targetType);
+    if (!reflector.hasSetter(mapping.property)) {
+      return;
+    }
+    Invoker invoker = reflector.getSetInvoker(mapping.property);
+    if (!(invoker instanceof MethodHandleMethodInvoker)) {
+      return;
+    }
+    MethodHandleMethodInvoker setter = (MethodHandleMethodInvoker) invoker;
+    PrimitiveColumnSetter primitiveSetter = null;
+    if (typeHandler instanceof PrimitiveTypeHandler.OfInt && setter.getIntSetter() != null) {
+      PrimitiveTypeHandler.OfInt handler = (PrimitiveTypeHandler.OfInt) typeHandler;
+      ObjIntConsumer<Object> consumer = setter.getIntSetter();
+      primitiveSetter = (rs, index, column, target) -> {
+        int value = index > 0 ? handler.getInt(rs, index) : handler.getInt(rs, column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        consumer.accept(target, value);
+        return true;
+      };
+    } else if (typeHandler instanceof PrimitiveTypeHandler.OfLong && setter.getLongSetter() != null) {
+      PrimitiveTypeHandler.OfLong handler = (PrimitiveTypeHandler.OfLong) typeHandler;
+      ObjLongConsumer<Object> consumer = setter.getLongSetter();
+      primitiveSetter = (rs, index, column, target) -> {
+        long value = index > 0 ? handler.getLong(rs, index) : handler.getLong(rs, column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        consumer.accept(target, value);
+        return true;
+      };
+    } else if (typeHandler instanceof PrimitiveTypeHandler.OfDouble && setter.getDoubleSetter() != null) {
+      PrimitiveTypeHandler.OfDouble handler = (PrimitiveTypeHandler.OfDouble) typeHandler;
+      ObjDoubleConsumer<Object> consumer = setter.getDoubleSetter();
+      primitiveSetter = (rs, index, column, target) -> {
+        double value = index > 0 ? handler.getDouble(rs, index) : handler.getDouble(rs, column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        consumer.accept(target, value);
+        return true;
+      };
+    } else if (typeHandler instanceof PrimitiveTypeHandler.OfBoolean && setter.getBooleanSetter() != null) {
+      PrimitiveTypeHandler.OfBoolean handler = (PrimitiveTypeHandler.OfBoolean) typeHandler;
+      MethodHandleMethodInvoker.ObjBooleanConsumer<Object> consumer = setter.getBooleanSetter();
+      primitiveSetter = (rs, index, column, target) -> {
+        boolean value = index > 0 ? handler.getBoolean(rs, index) : handler.getBoolean(rs, column);
+        if (!value && rs.wasNull()) {
+          return false;
+        }
+        consumer.accept(target, value);
+        return true;
+      };
+    }
+    // 按首行对象的类型编译，之后类型不同的行仍走装箱路径
+    mapping.targetType = targetType;
+    mapping.primitiveSetter = primitiveSetter;
+  }
+
+  private boolean applyPrimitiveMapping(ResultSetWrapper rsw, UnMappedColumnAutoMapping mapping, Object target) {
+    final int index = getReadIndex(rsw, mapping.column);
+    try {
+      return mapping.primitiveSetter.apply(rsw.getResultSet(), index, mapping.column, target);
+    } catch (SQLException e) {
+      // 与 BaseTypeHandler 读取列失败时的异常保持一致
+      throw new ResultMapException("Error attempting to get column " + (index > 0 ? "#" + index : "'" + mapping.column
+          + "'") + " from result set.  Cause: " + e, e);
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + mapping.property + "' of '" + target.getClass()
+          + "' Cause: " + t.toString(), t);
+    }
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
@@ -705,23 +860,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.useConstructorMappings = false; // reset previous mapping result
     final List<Class<?>> constructorArgTypes = new ArrayList<>();
     final List<Object> constructorArgs = new ArrayList<>();
+    if (canCreateProxyDirectly(rsw, resultMap)) {
+      // 默认对象工厂不会修改新建对象，可以直接创建代理对象，省去先创建对象再复制属性的开销
+      return configuration.getProxyFactory().createProxyInstance(resultMap.getType(), lazyLoader, configuration,
+          objectFactory, constructorArgTypes, constructorArgs);
+    }
     // 通过反射的方式，将 ResultSet 里的参数根据 ResultMap 的规则将实例对象创建出来
     Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
-    if (resultObject != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-      for (ResultMapping propertyMapping : propertyMappings) {
-        // issue gcode #109 && issue #149
-        if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
-          resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration,
-              objectFactory, constructorArgTypes, constructorArgs);
-          break;
-        }
-      }
+    if (resultObject != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())
+        && hasLazyNestedQuery(resultMap)) {
+      // issue gcode #109 && issue #149
+      resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration,
+          objectFactory, constructorArgTypes, constructorArgs);
     }
     this.useConstructorMappings = resultObject != null && !constructorArgTypes.isEmpty(); // set current mapping result
     return resultObject;
   }
 
+  private boolean canCreateProxyDirectly(ResultSetWrapper rsw, ResultMap resultMap) {
+    final Class<?> resultType = resultMap.getType();
+    return objectFactory.getClass() == DefaultObjectFactory.class && resultMap.getConstructorResultMappings().isEmpty()
+        && !resultType.isInterface() && hasLazyNestedQuery(resultMap) && !hasTypeHandlerForResultObject(rsw, resultType)
+        && MetaClass.forClass(resultType, reflectorFactory).hasDefaultConstructor();
+  }
+
+  private boolean hasLazyNestedQuery(ResultMap resultMap) {
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, List<Class<?>> constructorArgTypes,
       List<Object> constructorArgs, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
@@ -760,7 +931,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           value = getRowValue(rsw, resultMap, constructorColumnPrefix);
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -836,7 +1007,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = getColumnValue(rsw, typeHandler, columnName);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -857,7 +1028,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (columnMatchesParam(columnName, paramName, columnPrefix)) {
           Class<?> paramType = param.getType();
           TypeHandler<?> typeHandler = rsw.getTypeHandler(paramType, columnName);
-          Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+          Object value = getColumnValue(rsw, typeHandler, columnName);
           constructorArgTypes.add(paramType);
           constructorArgs.add(value);
           final String mapKey = resultMap.getId() + ":" + columnPrefix;
@@ -907,7 +1078,29 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw, typeHandler, columnName);
+  }
+
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String columnName)
+      throws SQLException {
+    if (typeHandler.getClass() == UnknownTypeHandler.class) {
+      // UnknownTypeHandler 每读一个值都要查一遍结果集元数据，这里改用按相同规则解析并按列缓存的处理器
+      typeHandler = rsw.getColumnTypeHandler(columnName);
+    }
+    final int index = getReadIndex(rsw, columnName);
+    return index > 0 ? typeHandler.getResult(rsw.getResultSet(), index)
+        : typeHandler.getResult(rsw.getResultSet(), columnName);
+  }
+
+  private String getColumnString(ResultSetWrapper rsw, String columnName) throws SQLException {
+    final int index = getReadIndex(rsw, columnName);
+    return index > 0 ? rsw.getResultSet().getString(index) : rsw.getResultSet().getString(columnName);
+  }
+
+  private int getReadIndex(ResultSetWrapper rsw, String columnName) {
+    // 按序号读取省去驱动逐个值查找列标签；列名取自 getColumnName 时与驱动按标签查找的规则不一定一致，
+    // 此时以及找不到列时仍按名称读取，由驱动抛出原有的异常
+    return configuration.isUseColumnLabel() ? rsw.getColumnIndex(columnName) : 0;
   }
 
   //
@@ -952,12 +1145,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery,
-            nestedQueryParameterObject, targetType, key, nestedBoundSql);
         if (propertyMapping.isLazy()) {
+          final ResultLoader resultLoader;
+          if (isBatchNestedQuery(propertyMapping)) {
+            // 同一结果集中同一嵌套查询的延迟加载器归为一批，触发其中一个时一次性加载整批
+            resultLoader = new BatchResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject,
+                targetType, key, nestedBoundSql, getLazyLoadBatch(propertyMapping));
+          } else {
+            resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject,
+                targetType, key, nestedBoundSql);
+          }
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
+        } else if (batchEagerNestedQueries && isBatchNestedQuery(propertyMapping)) {
+          pendingNestedQueries.computeIfAbsent(propertyMapping, k -> new ArrayList<>()).add(new PendingNestedQuery(
+              metaResultObject, nestedQuery, nestedQueryParameterObject, key, nestedBoundSql));
+          value = DEFERRED;
         } else {
+          final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery,
+              nestedQueryParameterObject, targetType, key, nestedBoundSql);
           value = resultLoader.loadResult();
         }
       }
@@ -965,6 +1171,89 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private boolean isBatchNestedQuery(ResultMapping propertyMapping) {
+    return propertyMapping.getNestedBatchQueryId() != null && !propertyMapping.isCompositeResult();
+  }
+
+  private BatchResultLoader.Batch getLazyLoadBatch(ResultMapping propertyMapping) {
+    return lazyLoadBatches.computeIfAbsent(propertyMapping,
+        mapping -> new BatchResultLoader.Batch(configuration.getMappedStatement(mapping.getNestedBatchQueryId()),
+            mapping.getBatchKeyProperty(), configuration.getBatchSelectSize()));
+  }
+
+  private void loadPendingNestedQueries() throws SQLException {
+    if (pendingNestedQueries.isEmpty()) {
+      return;
+    }
+    final ResultExtractor resultExtractor = new ResultExtractor(configuration, objectFactory);
+    final int batchSize = Math.max(configuration.getBatchSelectSize(), 1);
+    for (Map.Entry<ResultMapping, List<PendingNestedQuery>> entry : pendingNestedQueries.entrySet()) {
+      final ResultMapping propertyMapping = entry.getKey();
+      final MappedStatement batchQuery = configuration.getMappedStatement(propertyMapping.getNestedBatchQueryId());
+      // 相同参数的父对象共享同一次查询结果
+      final Map<Object, List<PendingNestedQuery>> pendingByKey = new LinkedHashMap<>();
+      for (PendingNestedQuery pending : entry.getValue()) {
+        pendingByKey.computeIfAbsent(BatchResultLoader.normalizeKey(pending.parameterObject), k -> new ArrayList<>())
+            .add(pending);
+      }
+      final List<List<PendingNestedQuery>> groups = new ArrayList<>(pendingByKey.values());
+      for (int from = 0; from < groups.size(); from += batchSize) {
+        loadNestedQueryBatch(propertyMapping, batchQuery,
+            groups.subList(from, Math.min(from + batchSize, groups.size())), resultExtractor);
+      }
+    }
+    pendingNestedQueries.clear();
+  }
+
+  private void loadNestedQueryBatch(ResultMapping propertyMapping, MappedStatement batchQuery,
+      List<List<PendingNestedQuery>> groups, ResultExtractor resultExtractor) throws SQLException {
+    final String property = propertyMapping.getProperty();
+    final Class<?> targetType = propertyMapping.getJavaType();
+    final List<Object> keys = new ArrayList<>(groups.size());
+    for (List<PendingNestedQuery> group : groups) {
+      keys.add(group.get(0).parameterObject);
+    }
+    final Object batchParameterObject = ParamNameResolver.wrapToMapIfCollection(keys, null);
+    final BoundSql batchBoundSql = batchQuery.getBoundSql(batchParameterObject);
+    final CacheKey batchKey = executor.createCacheKey(batchQuery, batchParameterObject, RowBounds.DEFAULT,
+        batchBoundSql);
+    if (executor.isExecuting(batchQuery, batchKey)) {
+      // 批量查询正在执行中（循环引用），退回到逐行查询；已执行完的批量查询由下面的 query 从本地缓存返回
+      for (List<PendingNestedQuery> group : groups) {
+        for (PendingNestedQuery pending : group) {
+          if (executor.isCached(pending.nestedQuery, pending.cacheKey)) {
+            executor.deferLoad(pending.nestedQuery, pending.metaObject, property, pending.cacheKey, targetType);
+          } else {
+            final ResultLoader resultLoader = new ResultLoader(configuration, executor, pending.nestedQuery,
+                pending.parameterObject, targetType, pending.cacheKey, pending.boundSql);
+            setNestedQueryValue(pending.metaObject, property, resultLoader.loadResult());
+          }
+        }
+      }
+      return;
+    }
+    final List<Object> results = executor.query(batchQuery, batchParameterObject, RowBounds.DEFAULT,
+        Executor.NO_RESULT_HANDLER, batchKey, batchBoundSql);
+    final Map<Object, List<Object>> resultsByKey = BatchResultLoader.groupByKey(configuration, results,
+        propertyMapping.getBatchKeyProperty());
+    for (List<PendingNestedQuery> group : groups) {
+      final List<Object> list = resultsByKey.get(BatchResultLoader.normalizeKey(group.get(0).parameterObject));
+      for (PendingNestedQuery pending : group) {
+        // 每个父对象各自持有一份结果，避免集合属性共享同一个 List 实例
+        final Object value = resultExtractor
+            .extractObjectFromList(list == null ? new ArrayList<>() : new ArrayList<>(list), targetType);
+        setNestedQueryValue(pending.metaObject, property, value);
+      }
+    }
+  }
+
+  private void setNestedQueryValue(MetaObject metaObject, String property, Object value) {
+    if (value != null
+        || configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive()) {
+      metaObject.setValue(property, value);
+    }
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType,
       String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
@@ -1224,10 +1513,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (resultMapping.isSimple()) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
         final TypeHandler<?> th = resultMapping.getTypeHandler();
-        List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
-        if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+        if (column != null && rsw.hasColumn(column)) {
+          final Object value = getColumnValue(rsw, th, column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
             cacheKey.update(value);
@@ -1251,7 +1539,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         property = column.substring(columnPrefix.length());
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
+        String value = getColumnString(rsw, column);
         if (value != null) {
           cacheKey.update(column);
           cacheKey.update(value);
@@ -1263,7 +1551,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
     for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
+      final String value = getColumnString(rsw, columnName);
       if (value != null) {
         cacheKey.update(columnName);
         cacheKey.update(value);
@@ -46,7 +46,11 @@ public class ResultSetWrapper {
   private final List<String> columnNames = new ArrayList<>();
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
+  // 列名到列序号（从 1 开始）的映射，键为大写列名，以及查询过的原样列名，不存在的列记为 0
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
+  // 按列缓存根据结果集元数据解析出的类型处理器，替代 UnknownTypeHandler 逐个值的元数据扫描
+  private final Map<String, TypeHandler<?>> columnTypeHandlers = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
 
@@ -62,6 +66,8 @@ public class ResultSetWrapper {
       columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
+      // 与 JDBC 按标签查找的规则一致：忽略大小写，重名时取第一列
+      columnIndexes.putIfAbsent(columnNames.get(i - 1).toUpperCase(Locale.ENGLISH), i);
     }
   }
 
@@ -82,12 +88,41 @@ public class ResultSetWrapper {
   }
 
   public JdbcType getJdbcType(String columnName) {
-    for (int i = 0; i < columnNames.size(); i++) {
-      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
-        return jdbcTypes.get(i);
-      }
+    int index = getColumnIndex(columnName);
+    return index == 0 ? null : jdbcTypes.get(index - 1);
+  }
+
+  /**
+   * Gets the index of a column, ignoring case. If several columns have the same name, the first one is returned.
+   *
+   * @param columnName
+   *          the column name
+   *
+   * @return the 1-based column index, or 0 if the result set has no such column
+   *
+   * @since 3.5.15
+   */
+  public int getColumnIndex(String columnName) {
+    Integer index = columnIndexes.get(columnName);
+    if (index == null) {
+      index = columnIndexes.getOrDefault(columnName.toUpperCase(Locale.ENGLISH), 0);
+      columnIndexes.put(columnName, index);
     }
-    return null;
+    return index;
+  }
+
+  /**
+   * Returns whether the result set has a column, ignoring case.
+   *
+   * @param columnName
+   *          the column name
+   *
+   * @return {@code true} if the result set has the column
+   *
+   * @since 3.5.15
+   */
+  public boolean hasColumn(String columnName) {
+    return getColumnIndex(columnName) > 0;
   }
 
   /**
@@ -116,15 +151,9 @@ public class ResultSetWrapper {
       // Replicate logic of UnknownTypeHandler#resolveTypeHandler
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
+        // 按列名精确匹配第一列来确定 Java 类型，与原有规则保持一致
         final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
-        if (javaType != null && jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
-        } else if (javaType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType);
-        } else if (jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
-        }
+        handler = resolveTypeHandler(index < 0 ? null : resolveClass(classNames.get(index)), jdbcType);
       }
       if (handler == null || handler instanceof UnknownTypeHandler) {
         handler = new ObjectTypeHandler();
@@ -134,6 +163,47 @@ public class ResultSetWrapper {
     return handler;
   }
 
+  /**
+   * Gets the type handler {@link UnknownTypeHandler} would resolve to read a column by name: the one for the Java class
+   * and JDBC type the driver reports for the last column whose name equals the given name (case-sensitive). The
+   * handler is resolved once per column name of this result set.
+   *
+   * @param columnName
+   *          the column name
+   *
+   * @return the type handler, {@link ObjectTypeHandler} if no column has that name or no handler matches
+   *
+   * @since 3.5.15
+   */
+  public TypeHandler<?> getColumnTypeHandler(String columnName) {
+    TypeHandler<?> handler = columnTypeHandlers.get(columnName);
+    if (handler == null) {
+      final int index = columnNames.lastIndexOf(columnName);
+      if (index >= 0) {
+        handler = resolveTypeHandler(resolveClass(classNames.get(index)), jdbcTypes.get(index));
+      }
+      if (handler == null || handler instanceof UnknownTypeHandler) {
+        handler = new ObjectTypeHandler();
+      }
+      columnTypeHandlers.put(columnName, handler);
+    }
+    return handler;
+  }
+
+  // 与 UnknownTypeHandler#resolveTypeHandler 的解析顺序一致
+  private TypeHandler<?> resolveTypeHandler(Class<?> javaType, JdbcType jdbcType) {
+    if (javaType != null && jdbcType != null) {
+      return typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+    }
+    if (javaType != null) {
+      return typeHandlerRegistry.getTypeHandler(javaType);
+    }
+    if (jdbcType != null) {
+      return typeHandlerRegistry.getTypeHandler(jdbcType);
+    }
+    return null;
+  }
+
   private Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
@@ -18,15 +18,24 @@ package org.apache.ibatis.executor.statement;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -38,6 +47,9 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public abstract class BaseStatementHandler implements StatementHandler {
 
+  private static final String KEYSET_PARAMETER_PREFIX = "__keyset_";
+  private static final String PAGING_PARAMETER_PREFIX = "__paging_";
+
   protected final Configuration configuration;
   protected final ObjectFactory objectFactory;
   protected final TypeHandlerRegistry typeHandlerRegistry;
@@ -50,12 +62,18 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected BoundSql boundSql;
 
+  /** 语句执行指标，未开启时为 null */
+  protected final StatementMetrics metrics;
+  private long prepareNanos;
+
   protected BaseStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject,
       RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
     this.rowBounds = rowBounds;
+    StatementMetricsRegistry metricsRegistry = configuration.getStatementMetrics();
+    this.metrics = metricsRegistry == null ? null : metricsRegistry.get(mappedStatement.getId());
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
@@ -65,11 +83,75 @@ public abstract class BaseStatementHandler implements StatementHandler {
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    RowBounds resultRowBounds = rowBounds;
+    Dialect dialect = configuration.getPagingDialect();
+    if (rowBounds instanceof KeysetRowBounds) {
+      // 键集分页：包装查询，从上一页最后一行的排序键之后开始读取，有方言时由数据库截取一页
+      KeysetRowBounds keyset = (KeysetRowBounds) rowBounds;
+      boolean limitInDatabase = dialect != null && !mappedStatement.hasNestedResultMaps();
+      boundSql = seekBoundSql(limitInDatabase ? dialect : null, boundSql, keyset);
+      resultRowBounds = new RowBounds(RowBounds.NO_ROW_OFFSET,
+          limitInDatabase ? RowBounds.NO_ROW_LIMIT : keyset.getLimit(), keyset.getFetchSize());
+    } else if (configuration.isPhysicalPagingEnabled() && dialect != null
+        && isPhysicallyPageable(mappedStatement, rowBounds) && dialect.isPageable(boundSql.getSql())) {
+      // 方言无法改写的语句（已有分页子句、FOR UPDATE 等）保持原来的内存分页
+      // 物理分页：由方言把 RowBounds 改写成 SQL 中的分页参数，结果集处理时不再跳过和截断行，只保留 fetchSize
+      boundSql = pageBoundSql(dialect, boundSql, rowBounds);
+      resultRowBounds = new RowBounds(RowBounds.NO_ROW_OFFSET, RowBounds.NO_ROW_LIMIT, rowBounds.getFetchSize());
+    }
+
     this.boundSql = boundSql;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
-    this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler,
-        resultHandler, boundSql);
+    this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, resultRowBounds,
+        parameterHandler, resultHandler, boundSql);
+  }
+
+  private static boolean isPhysicallyPageable(MappedStatement ms, RowBounds rowBounds) {
+    // 嵌套结果映射按结果对象计数而不是按行，多结果集和存储过程无法改写，这些情况仍在内存中分页
+    return rowBounds != null
+        && (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT)
+        && isRewritable(ms) && !ms.hasNestedResultMaps();
+  }
+
+  private static boolean isRewritable(MappedStatement ms) {
+    return ms.getSqlCommandType() == SqlCommandType.SELECT && ms.getStatementType() != StatementType.CALLABLE
+        && ms.getResultSets() == null;
+  }
+
+  private BoundSql pageBoundSql(Dialect dialect, BoundSql boundSql, RowBounds rowBounds) {
+    List<Object> pagingParameters = new ArrayList<>();
+    String pagedSql = dialect.getPagedSql(boundSql.getSql(), rowBounds.getOffset(), rowBounds.getLimit(),
+        pagingParameters);
+    return rewriteBoundSql(boundSql, pagedSql, PAGING_PARAMETER_PREFIX, pagingParameters);
+  }
+
+  private BoundSql seekBoundSql(Dialect dialect, BoundSql boundSql, KeysetRowBounds keyset) {
+    if (!isRewritable(mappedStatement)) {
+      throw new ExecutorException("Keyset paging is not supported by statement '" + mappedStatement.getId()
+          + "', only selects without multiple result sets can be paged by keyset.");
+    }
+    String seekSql = keyset.getSeekSql(boundSql.getSql());
+    // 排序键的值绑定在原有参数之后，方言添加的 limit 参数再绑定在排序键之后
+    List<Object> seekParameters = keyset.getSeekParameters();
+    if (dialect != null) {
+      seekSql = dialect.getPagedSql(seekSql, RowBounds.NO_ROW_OFFSET, keyset.getLimit(), seekParameters);
+    }
+    return rewriteBoundSql(boundSql, seekSql, KEYSET_PARAMETER_PREFIX, seekParameters);
+  }
+
+  private BoundSql rewriteBoundSql(BoundSql boundSql, String sql, String parameterPrefix, List<Object> values) {
+    // 新增的占位符作为附加参数绑定在原有参数之后
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    for (int i = 0; i < values.size(); i++) {
+      parameterMappings.add(new ParameterMapping.Builder(configuration, parameterPrefix + i, Object.class).build());
+    }
+    BoundSql rewritten = new BoundSql(configuration, sql, parameterMappings, boundSql.getParameterObject());
+    rewritten.getAdditionalParameters().putAll(boundSql.getAdditionalParameters());
+    for (int i = 0; i < values.size(); i++) {
+      rewritten.setAdditionalParameter(parameterPrefix + i, values.get(i));
+    }
+    return rewritten;
   }
 
   @Override
@@ -87,6 +169,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
     // 错误上下文中记录当前执行的 SQL 语句，方便在发生异常时提供便于阅读的异常信息
     ErrorContext.instance().sql(boundSql.getSql());
     Statement statement = null;
+    long start = startTimer();
     try {
       // 实例化 Statement 语句对象
       statement = instantiateStatement(connection);
@@ -94,6 +177,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
       setStatementTimeout(statement, transactionTimeout);
       // 设置 Statement 语句对象的抓取记录大小
       setFetchSize(statement);
+      recordPrepare(start);
       return statement;
     } catch (SQLException e) {
       // 发生 SQLException 异常则关闭 Statement 并抛出异常
@@ -108,6 +192,58 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
+  /**
+   * Starts timing a phase of the execution.
+   *
+   * @return the start time, or 0 if statement metrics are disabled
+   *
+   * @since 3.5.15
+   */
+  protected long startTimer() {
+    return metrics == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Adds the time spent since the start time to the prepare phase, which covers creating the statement and binding its
+   * parameters.
+   *
+   * @param start
+   *          the start time
+   *
+   * @since 3.5.15
+   */
+  protected void recordPrepare(long start) {
+    if (metrics != null) {
+      prepareNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Records the prepare phase of a statement added to a batch. Batches are timed when they are executed.
+   *
+   * @since 3.5.15
+   */
+  protected void recordBatched() {
+    if (metrics != null) {
+      metrics.recordPrepare(prepareNanos);
+    }
+  }
+
+  /**
+   * Records the prepare phase and the time spent executing the statement since the start time.
+   *
+   * @param start
+   *          the start time
+   *
+   * @since 3.5.15
+   */
+  protected void recordExecute(long start) {
+    if (metrics != null) {
+      metrics.recordPrepare(prepareNanos);
+      metrics.recordExecute(System.nanoTime() - start);
+    }
+  }
+
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
     Integer queryTimeout = null;
     if (mappedStatement.getTimeout() != null) {
@@ -122,7 +258,11 @@ public abstract class BaseStatementHandler implements StatementHandler {
   }
 
   protected void setFetchSize(Statement stmt) throws SQLException {
-    Integer fetchSize = mappedStatement.getFetchSize();
+    // 单次调用通过 RowBounds 传入的 fetchSize 优先级最高
+    Integer fetchSize = rowBounds == null ? null : rowBounds.getFetchSize();
+    if (fetchSize == null) {
+      fetchSize = mappedStatement.getFetchSize();
+    }
     if (fetchSize != null) {
       stmt.setFetchSize(fetchSize);
       return;
@@ -45,7 +45,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTimer();
     ps.execute();
+    recordExecute(start);
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -57,13 +59,16 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   public void batch(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     ps.addBatch();
+    recordBatched();
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTimer();
     // 把从数据库里面查询到的结果放到 PrepareStatement  对象里面的 results 成员变量里面
     ps.execute();
+    recordExecute(start);
     // 处理 JDBC 返回的数据，并返回最终 List 列表
     return resultSetHandler.handleResultSets(ps);
   }
@@ -71,7 +76,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTimer();
     ps.execute();
+    recordExecute(start);
     return resultSetHandler.handleCursorResultSets(ps);
   }
 
@@ -102,8 +109,10 @@ public class PreparedStatementHandler extends BaseStatementHandler {
 
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    long start = startTimer();
     // 通过参数处理器来完成参数的设置
     parameterHandler.setParameters((PreparedStatement) statement);
+    recordPrepare(start);
   }
 
 }
@@ -48,6 +48,7 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
+    long start = startTimer();
     if (keyGenerator instanceof Jdbc3KeyGenerator) {
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
       rows = statement.getUpdateCount();
@@ -60,6 +61,7 @@ public class SimpleStatementHandler extends BaseStatementHandler {
       statement.execute(sql);
       rows = statement.getUpdateCount();
     }
+    recordExecute(start);
     return rows;
   }
 
@@ -67,19 +69,24 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   public void batch(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
     statement.addBatch(sql);
+    recordBatched();
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
+    long start = startTimer();
     statement.execute(sql);
+    recordExecute(start);
     return resultSetHandler.handleResultSets(statement);
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
+    long start = startTimer();
     statement.execute(sql);
+    recordExecute(start);
     return resultSetHandler.handleCursorResultSets(statement);
   }
 
@@ -15,11 +15,16 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
@@ -31,6 +36,7 @@ import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 
@@ -89,6 +95,98 @@ public class CacheBuilder {
     return this;
   }
 
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Writes the settings of this builder for a configuration snapshot, so that {@link #readFrom(DataInput, IntFunction)}
+   * can create the same cache without parsing the mapper again. Strings are passed through the string table of the
+   * caller, which maps each string (or {@code null}) to an index.
+   *
+   * @param out
+   *          the output
+   * @param strings
+   *          maps a string to its index in the string table of the caller
+   *
+   * @throws IOException
+   *           if the output cannot be written
+   *
+   * @since 3.5.15
+   */
+  public void writeTo(DataOutput out, ToIntFunction<String> strings) throws IOException {
+    out.writeInt(strings.applyAsInt(id));
+    out.writeInt(strings.applyAsInt(implementation == null ? null : implementation.getName()));
+    out.writeInt(decorators.size());
+    for (Class<? extends Cache> decorator : decorators) {
+      out.writeInt(strings.applyAsInt(decorator.getName()));
+    }
+    out.writeBoolean(size != null);
+    if (size != null) {
+      out.writeInt(size);
+    }
+    out.writeBoolean(clearInterval != null);
+    if (clearInterval != null) {
+      out.writeLong(clearInterval);
+    }
+    out.writeBoolean(readWrite);
+    out.writeBoolean(blocking);
+    out.writeInt(properties == null ? -1 : properties.size());
+    if (properties != null) {
+      for (String name : properties.stringPropertyNames()) {
+        out.writeInt(strings.applyAsInt(name));
+        out.writeInt(strings.applyAsInt(properties.getProperty(name)));
+      }
+    }
+  }
+
+  /**
+   * Reads the settings written by {@link #writeTo(DataOutput, ToIntFunction)}.
+   *
+   * @param in
+   *          the input
+   * @param strings
+   *          maps an index of the string table of the caller to its string
+   *
+   * @return a builder with the same settings
+   *
+   * @throws IOException
+   *           if the input cannot be read
+   *
+   * @since 3.5.15
+   */
+  public static CacheBuilder readFrom(DataInput in, IntFunction<String> strings) throws IOException {
+    CacheBuilder builder = new CacheBuilder(strings.apply(in.readInt()));
+    builder.implementation(cacheClass(strings.apply(in.readInt())));
+    for (int i = in.readInt(); i > 0; i--) {
+      builder.addDecorator(cacheClass(strings.apply(in.readInt())));
+    }
+    builder.size(in.readBoolean() ? in.readInt() : null);
+    builder.clearInterval(in.readBoolean() ? in.readLong() : null);
+    builder.readWrite(in.readBoolean());
+    builder.blocking(in.readBoolean());
+    int propertyCount = in.readInt();
+    if (propertyCount >= 0) {
+      Properties properties = new Properties();
+      for (int i = 0; i < propertyCount; i++) {
+        properties.setProperty(strings.apply(in.readInt()), strings.apply(in.readInt()));
+      }
+      builder.properties(properties);
+    }
+    return builder;
+  }
+
+  private static Class<? extends Cache> cacheClass(String name) {
+    if (name == null) {
+      return null;
+    }
+    try {
+      return Resources.classForName(name).asSubclass(Cache.class);
+    } catch (ClassNotFoundException e) {
+      throw new CacheException("Cache class " + name + " was not found. Cause: " + e, e);
+    }
+  }
+
   public Cache build() {
     setDefaultImplementations();
     Cache cache = newBaseCacheInstance(implementation, id);
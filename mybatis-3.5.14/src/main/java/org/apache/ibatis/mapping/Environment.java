@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import javax.sql.DataSource;
 
+import org.apache.ibatis.datasource.replica.ReplicaDataSources;
 import org.apache.ibatis.transaction.TransactionFactory;
 
 /**
@@ -26,8 +27,28 @@ public final class Environment {
   private final String id;
   private final TransactionFactory transactionFactory;
   private final DataSource dataSource;
+  private final ReplicaDataSources replicas;
 
   public Environment(String id, TransactionFactory transactionFactory, DataSource dataSource) {
+    this(id, transactionFactory, dataSource, null);
+  }
+
+  /**
+   * Instantiates a new environment with read replicas.
+   *
+   * @param id
+   *          the id
+   * @param transactionFactory
+   *          the transaction factory
+   * @param dataSource
+   *          the primary data source
+   * @param replicas
+   *          the read replicas of the primary data source, or {@code null}
+   *
+   * @since 3.5.15
+   */
+  public Environment(String id, TransactionFactory transactionFactory, DataSource dataSource,
+      ReplicaDataSources replicas) {
     if (id == null) {
       throw new IllegalArgumentException("Parameter 'id' must not be null");
     }
@@ -40,12 +61,14 @@ public final class Environment {
     }
     this.transactionFactory = transactionFactory;
     this.dataSource = dataSource;
+    this.replicas = replicas;
   }
 
   public static class Builder {
     private final String id;
     private TransactionFactory transactionFactory;
     private DataSource dataSource;
+    private ReplicaDataSources replicas;
 
     public Builder(String id) {
       this.id = id;
@@ -61,12 +84,27 @@ public final class Environment {
       return this;
     }
 
+    /**
+     * Sets the read replicas of the data source.
+     *
+     * @param replicas
+     *          the replicas
+     *
+     * @return this builder
+     *
+     * @since 3.5.15
+     */
+    public Builder replicas(ReplicaDataSources replicas) {
+      this.replicas = replicas;
+      return this;
+    }
+
     public String id() {
       return this.id;
     }
 
     public Environment build() {
-      return new Environment(this.id, this.transactionFactory, this.dataSource);
+      return new Environment(this.id, this.transactionFactory, this.dataSource, this.replicas);
     }
 
   }
@@ -83,4 +121,16 @@ public final class Environment {
     return this.dataSource;
   }
 
+  /**
+   * Gets the read replicas of the data source. Auto-commit sessions opened from a data source send their reads to the
+   * replicas until they write, see {@link org.apache.ibatis.transaction.ReadWriteSplittingTransaction}.
+   *
+   * @return the replicas, or {@code null} if all statements use the data source
+   *
+   * @since 3.5.15
+   */
+  public ReplicaDataSources getReplicas() {
+    return this.replicas;
+  }
+
 }
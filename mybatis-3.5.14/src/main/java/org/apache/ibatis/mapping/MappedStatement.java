@@ -18,6 +18,9 @@ package org.apache.ibatis.mapping;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -26,7 +29,10 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.sharding.ShardingStrategy;
+import org.apache.ibatis.util.MapUtil;
 
 /**
  * @author Clinton Begin
@@ -57,6 +63,9 @@ public final class MappedStatement {
   private LanguageDriver lang;
   private String[] resultSets;
   private boolean dirtySelect;
+  private ShardingStrategy shardingStrategy;
+  // 按参数类型缓存预先编译的参数绑定器
+  private final Map<Class<?>, ParameterBinder> parameterBinders = new ConcurrentHashMap<>();
 
   MappedStatement() {
     // constructor disabled
@@ -182,6 +191,21 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * Sets the strategy choosing the shard the statement runs on.
+     *
+     * @param shardingStrategy
+     *          the sharding strategy, or {@code null} to use the default one of the configuration
+     *
+     * @return the builder
+     *
+     * @since 3.5.15
+     */
+    public Builder shardingStrategy(ShardingStrategy shardingStrategy) {
+      mappedStatement.shardingStrategy = shardingStrategy;
+      return this;
+    }
+
     /**
      * Resul sets.
      *
@@ -304,6 +328,17 @@ public final class MappedStatement {
     return dirtySelect;
   }
 
+  /**
+   * Gets the strategy choosing the shard the statement runs on.
+   *
+   * @return the sharding strategy, or {@code null} if the statement uses the default one of the configuration
+   *
+   * @since 3.5.15
+   */
+  public ShardingStrategy getShardingStrategy() {
+    return shardingStrategy;
+  }
+
   /**
    * Gets the resul sets.
    *
@@ -316,6 +351,30 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Gets the parameter binder compiled for a parameter type, compiling it on first use and again after the property
+   * access mode of the configuration changed.
+   *
+   * @param parameterType
+   *          the type of the parameter object
+   * @param compiler
+   *          compiles the binder when none is cached
+   *
+   * @return the parameter binder
+   *
+   * @since 3.5.15
+   */
+  public ParameterBinder getParameterBinder(Class<?> parameterType,
+      Function<Class<?>, ParameterBinder> compiler) {
+    ParameterBinder binder = MapUtil.computeIfAbsent(parameterBinders, parameterType, compiler);
+    if (!binder.isCurrent()) {
+      // 切换 useMethodHandles 后，按旧的属性访问方式编译的绑定器需要重新编译
+      binder = compiler.apply(parameterType);
+      parameterBinders.put(parameterType, binder);
+    }
+    return binder;
+  }
+
   public BoundSql getBoundSql(Object parameterObject) {
     // 将 sqlSource 里的部分信息包装成一个 BoundSql 对象
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
@@ -38,6 +38,8 @@ public class ResultMapping {
   private TypeHandler<?> typeHandler;
   private String nestedResultMapId;
   private String nestedQueryId;
+  private String nestedBatchQueryId;
+  private String batchKeyProperty;
   private Set<String> notNullColumns;
   private String columnPrefix;
   private List<ResultFlag> flags;
@@ -92,6 +94,16 @@ public class ResultMapping {
       return this;
     }
 
+    public Builder nestedBatchQueryId(String nestedBatchQueryId) {
+      resultMapping.nestedBatchQueryId = nestedBatchQueryId;
+      return this;
+    }
+
+    public Builder batchKeyProperty(String batchKeyProperty) {
+      resultMapping.batchKeyProperty = batchKeyProperty;
+      return this;
+    }
+
     public Builder resultSet(String resultSet) {
       resultMapping.resultSet = resultSet;
       return this;
@@ -157,6 +169,17 @@ public class ResultMapping {
           && resultMapping.composites.isEmpty()) {
         throw new IllegalStateException("Mapping is missing column attribute for property " + resultMapping.property);
       }
+      if (resultMapping.nestedBatchQueryId != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException(
+              "Cannot define a batch select without a select in property " + resultMapping.property);
+        }
+        if (resultMapping.batchKeyProperty == null) {
+          throw new IllegalStateException(
+              "Mapping is missing batchKeyProperty attribute for the batch select of property "
+                  + resultMapping.property);
+        }
+      }
       if (resultMapping.getResultSet() != null) {
         int numColumns = 0;
         if (resultMapping.column != null) {
@@ -215,6 +238,30 @@ public class ResultMapping {
     return nestedQueryId;
   }
 
+  /**
+   * Gets the id of the statement loading the nested select results of several parent rows in one query. It receives
+   * the keys as a collection parameter and its results are matched back to the parents through
+   * {@link #getBatchKeyProperty()}.
+   *
+   * @return the nested batch query id, or {@code null} when the nested select runs once per parent
+   *
+   * @since 3.5.15
+   */
+  public String getNestedBatchQueryId() {
+    return nestedBatchQueryId;
+  }
+
+  /**
+   * Gets the property of the nested objects holding the key the parent was joined on.
+   *
+   * @return the batch key property
+   *
+   * @since 3.5.15
+   */
+  public String getBatchKeyProperty() {
+    return batchKeyProperty;
+  }
+
   public Set<String> getNotNullColumns() {
     return notNullColumns;
   }
@@ -296,6 +343,8 @@ public class ResultMapping {
     // sb.append(", typeHandler=").append(typeHandler); // typeHandler also doesn't have a useful .toString()
     sb.append(", nestedResultMapId='").append(nestedResultMapId).append('\'');
     sb.append(", nestedQueryId='").append(nestedQueryId).append('\'');
+    sb.append(", nestedBatchQueryId='").append(nestedBatchQueryId).append('\'');
+    sb.append(", batchKeyProperty='").append(batchKeyProperty).append('\'');
     sb.append(", notNullColumns=").append(notNullColumns);
     sb.append(", columnPrefix='").append(columnPrefix).append('\'');
     sb.append(", flags=").append(flags);
@@ -199,6 +199,13 @@ public class XPathParser {
 
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<>();
+    List<Node> elements = selectElements(root, expression);
+    if (elements != null) {
+      for (Node element : elements) {
+        xnodes.add(new XNode(this, element, variables));
+      }
+      return xnodes;
+    }
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       xnodes.add(new XNode(this, nodes.item(i), variables));
@@ -211,14 +218,96 @@ public class XPathParser {
   }
 
   public XNode evalNode(Object root, String expression) {
-    Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    List<Node> elements = selectElements(root, expression);
+    Node node;
+    if (elements != null) {
+      node = elements.isEmpty() ? null : elements.get(0);
+    } else {
+      node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    }
     if (node == null) {
       return null;
     }
     return new XNode(this, node, variables);
   }
 
+  /**
+   * Selects the elements of a plain child path such as {@code "/mapper/sql"}, {@code "cache-ref"} or
+   * {@code "select|insert|update|delete"} by walking the DOM. These are the expressions the builders evaluate for every
+   * mapper, and walking the children is much cheaper than an XPath evaluation. The elements are returned in document
+   * order, as XPath would.
+   *
+   * @return the selected elements, or {@code null} if the expression is not a plain child path
+   */
+  private static List<Node> selectElements(Object root, String expression) {
+    if (!(root instanceof Node) || expression.isEmpty()) {
+      return null;
+    }
+    Node context = (Node) root;
+    List<Node> result = new ArrayList<>();
+    if (expression.indexOf('|') >= 0) {
+      String[] names = expression.split("\\|", -1);
+      for (String name : names) {
+        if (!isName(name)) {
+          return null;
+        }
+      }
+      for (Node child = context.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child.getNodeType() == Node.ELEMENT_NODE) {
+          for (String name : names) {
+            if (name.equals(child.getNodeName())) {
+              result.add(child);
+              break;
+            }
+          }
+        }
+      }
+      return result;
+    }
+    String path = expression;
+    if (path.charAt(0) == '/') {
+      context = context.getNodeType() == Node.DOCUMENT_NODE ? context : context.getOwnerDocument();
+      path = path.substring(1);
+    }
+    String[] steps = path.split("/", -1);
+    for (String step : steps) {
+      if (!isName(step)) {
+        return null;
+      }
+    }
+    collectElements(context, steps, 0, result);
+    return result;
+  }
+
+  private static void collectElements(Node context, String[] steps, int step, List<Node> result) {
+    for (Node child = context.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() == Node.ELEMENT_NODE && steps[step].equals(child.getNodeName())) {
+        if (step == steps.length - 1) {
+          result.add(child);
+        } else {
+          collectElements(child, steps, step + 1, result);
+        }
+      }
+    }
+  }
+
+  private static boolean isName(String name) {
+    if (name.isEmpty() || !Character.isLetter(name.charAt(0)) && name.charAt(0) != '_') {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private Object evaluate(String expression, Object root, QName returnType) {
+    if (xpath == null) {
+      xpath = XPathFactory.newInstance().newXPath();
+    }
     try {
       return xpath.evaluate(expression, root, returnType);
     } catch (Exception e) {
@@ -267,8 +356,6 @@ public class XPathParser {
     this.validation = validation;
     this.entityResolver = entityResolver;
     this.variables = variables;
-    XPathFactory factory = XPathFactory.newInstance();
-    this.xpath = factory.newXPath();
   }
 
 }
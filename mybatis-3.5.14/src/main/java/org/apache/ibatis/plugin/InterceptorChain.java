@@ -18,6 +18,10 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.util.MapUtil;
 
 /**
  * @author Clinton Begin
@@ -25,10 +29,12 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
+  // 按被代理对象的类型缓存实际需要调用的拦截器，不会拦截该类型的拦截器直接跳过
+  private final Map<Class<?>, Interceptor[]> chainCache = new ConcurrentHashMap<>();
 
   public Object pluginAll(Object target) {
     // 遍历 XML 里面配置的所有的 <plugin> 插件，并基础插件生成对应的代理对象
-    for (Interceptor interceptor : interceptors) {
+    for (Interceptor interceptor : MapUtil.computeIfAbsent(chainCache, target.getClass(), this::resolveChain)) {
       target = interceptor.plugin(target);
     }
     return target;
@@ -37,6 +43,30 @@ public class InterceptorChain {
   public void addInterceptor(Interceptor interceptor) {
     // 将拦截器添加到 interceptors 列表中
     interceptors.add(interceptor);
+    chainCache.clear();
+  }
+
+  private Interceptor[] resolveChain(Class<?> type) {
+    List<Interceptor> chain = new ArrayList<>();
+    // 自定义了 plugin 方法的拦截器可能返回任意对象，其后的拦截器无法再根据原始类型预先判断
+    boolean predictable = true;
+    for (Interceptor interceptor : interceptors) {
+      if (!usesDefaultPlugin(interceptor)) {
+        predictable = false;
+        chain.add(interceptor);
+      } else if (!predictable || Plugin.intercepts(type, interceptor)) {
+        chain.add(interceptor);
+      }
+    }
+    return chain.toArray(new Interceptor[0]);
+  }
+
+  private static boolean usesDefaultPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() == Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
   }
 
   public List<Interceptor> getInterceptors() {
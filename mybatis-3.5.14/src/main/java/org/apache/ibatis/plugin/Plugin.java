@@ -31,6 +31,15 @@ import org.apache.ibatis.util.MapUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  // 按拦截器类型缓存解析好的签名，以及每种被代理类型需要实现的接口，避免每次创建代理时重复反射解析
+  // 使用 ClassValue 将缓存挂在类对象上，不会阻止拦截器或被代理类所在的类加载器被卸载
+  private static final ClassValue<InterceptorSignature> signatureCache = new ClassValue<InterceptorSignature>() {
+    @Override
+    protected InterceptorSignature computeValue(Class<?> interceptorType) {
+      return new InterceptorSignature(getSignatureMap(interceptorType));
+    }
+  };
+
   private final Object target;
   private final Interceptor interceptor;
   private final Map<Class<?>, Set<Method>> signatureMap;
@@ -47,20 +56,41 @@ public class Plugin implements InvocationHandler {
     //  @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})
     //})
     // 那么拿到的接口 class 就是 StatementHandler，方法就是 StatementHandler.prepare(Connection, Integer)
-    Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
+    InterceptorSignature signature = getInterceptorSignature(interceptor);
     // 获取到被代理对象的 class 对象
     Class<?> type = target.getClass();
     // 获取被代理对象中被拦截器拦截了的接口
     // 如上案例里的拦截接口是 StatementHandler.class，如果被代理对象是 CachingExecutor，那么就匹配不上
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);
+    Class<?>[] interfaces = signature.getInterfaces(type);
     // 如果存在被拦截了的接口，那么就需要通过 JDK 动态代理基于被代理对象生成一个代理对象
     if (interfaces.length > 0) {
       // 创建代理对象，InvocationHandler 回调对象为当前 Plugin，也就是会回调到下面的 invoke 方法中
-      return Proxy.newProxyInstance(type.getClassLoader(), interfaces, new Plugin(target, interceptor, signatureMap));
+      return Proxy.newProxyInstance(type.getClassLoader(), interfaces,
+          new Plugin(target, interceptor, signature.signatureMap));
     }
     return target;
   }
 
+  /**
+   * Returns whether {@link #wrap(Object, Interceptor)} would create a proxy for instances of the given type.
+   *
+   * @param type
+   *          the target type
+   * @param interceptor
+   *          the interceptor
+   *
+   * @return {@code true} if the type implements at least one of the interfaces intercepted by the interceptor
+   *
+   * @since 3.5.15
+   */
+  public static boolean intercepts(Class<?> type, Interceptor interceptor) {
+    return getInterceptorSignature(interceptor).getInterfaces(type).length > 0;
+  }
+
+  private static InterceptorSignature getInterceptorSignature(Interceptor interceptor) {
+    return signatureCache.get(interceptor.getClass());
+  }
+
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
     try {
@@ -78,12 +108,29 @@ public class Plugin implements InvocationHandler {
     }
   }
 
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
-    Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
+  private static final class InterceptorSignature {
+    private final Map<Class<?>, Set<Method>> signatureMap;
+    private final ClassValue<Class<?>[]> interfacesCache = new ClassValue<Class<?>[]>() {
+      @Override
+      protected Class<?>[] computeValue(Class<?> type) {
+        return getAllInterfaces(type, signatureMap);
+      }
+    };
+
+    private InterceptorSignature(Map<Class<?>, Set<Method>> signatureMap) {
+      this.signatureMap = signatureMap;
+    }
+
+    private Class<?>[] getInterfaces(Class<?> type) {
+      return interfacesCache.get(type);
+    }
+  }
+
+  private static Map<Class<?>, Set<Method>> getSignatureMap(Class<?> interceptorType) {
+    Intercepts interceptsAnnotation = interceptorType.getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
-      throw new PluginException(
-          "No @Intercepts annotation was found in interceptor " + interceptor.getClass().getName());
+      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptorType.getName());
     }
     Signature[] sigs = interceptsAnnotation.value();
     Map<Class<?>, Set<Method>> signatureMap = new HashMap<>();
@@ -22,6 +22,7 @@ import org.apache.ibatis.util.MapUtil;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
+  private boolean useMethodHandles;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
 
   public DefaultReflectorFactory() {
@@ -37,13 +38,24 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     this.classCacheEnabled = classCacheEnabled;
   }
 
+  @Override
+  public boolean isUseMethodHandles() {
+    return useMethodHandles;
+  }
+
+  @Override
+  public void setUseMethodHandles(boolean useMethodHandles) {
+    this.useMethodHandles = useMethodHandles;
+    reflectorMap.clear();
+  }
+
   @Override
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
-      return MapUtil.computeIfAbsent(reflectorMap, type, Reflector::new);
+      return MapUtil.computeIfAbsent(reflectorMap, type, k -> new Reflector(k, useMethodHandles));
     }
-    return new Reflector(type);
+    return new Reflector(type, useMethodHandles);
   }
 
 }
@@ -20,7 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.factory.ObjectFactory;
-import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.reflection.wrapper.CollectionWrapper;
 import org.apache.ibatis.reflection.wrapper.MapWrapper;
@@ -111,34 +111,80 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
-    if (!prop.hasNext()) {
-      return objectWrapper.get(prop);
+    return getValue(PropertyPath.of(name));
+  }
+
+  /**
+   * Gets the value of a compiled property path. Nested plain beans are read through a {@link BeanWrapper} without
+   * creating a meta object per segment.
+   *
+   * @param path
+   *          the property path
+   *
+   * @return the value, or {@code null} when an intermediate value is {@code null}
+   *
+   * @since 3.5.15
+   */
+  public Object getValue(PropertyPath path) {
+    if (!path.hasNext()) {
+      return objectWrapper.get(path.getTokenizer());
     }
-    MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
-    if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
-      return null;
+    Object value = objectWrapper.get(path.getSegment());
+    for (PropertyPath children = path.getChildren();; children = children.getChildren()) {
+      if (value == null) {
+        return null;
+      }
+      if (children.getSegment().getIndex() != null || !isPlainBean(value)) {
+        return forObject(value, objectFactory, objectWrapperFactory, reflectorFactory).getValue(children);
+      }
+      value = new BeanWrapper(this, value).get(children.getSegment());
+      if (!children.hasNext()) {
+        return value;
+      }
     }
-    return metaValue.getValue(prop.getChildren());
   }
 
   public void setValue(String name, Object value) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
-    if (prop.hasNext()) {
-      MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
-      if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
-        if (value == null) {
-          // don't instantiate child path if value is null
-          return;
-        }
-        metaValue = objectWrapper.instantiatePropertyValue(name, prop, objectFactory);
+    setValue(PropertyPath.of(name), value);
+  }
+
+  /**
+   * Sets the value of a compiled property path, instantiating missing intermediate values.
+   *
+   * @param path
+   *          the property path
+   * @param value
+   *          the value
+   *
+   * @since 3.5.15
+   */
+  public void setValue(PropertyPath path, Object value) {
+    if (!path.hasNext()) {
+      objectWrapper.set(path.getTokenizer(), value);
+      return;
+    }
+    Object child = objectWrapper.get(path.getSegment());
+    PropertyPath children = path.getChildren();
+    if (child == null) {
+      if (value == null) {
+        // don't instantiate child path if value is null
+        return;
       }
-      metaValue.setValue(prop.getChildren(), value);
+      objectWrapper.instantiatePropertyValue(path.getFullName(), path.getTokenizer(), objectFactory)
+          .setValue(children, value);
+    } else if (!children.hasNext() && children.getSegment().getIndex() == null && isPlainBean(child)) {
+      new BeanWrapper(this, child).set(children.getSegment(), value);
     } else {
-      objectWrapper.set(prop, value);
+      forObject(child, objectFactory, objectWrapperFactory, reflectorFactory).setValue(children, value);
     }
   }
 
+  // mirrors the wrapper selection of the constructor: such objects are always wrapped by a BeanWrapper
+  private boolean isPlainBean(Object object) {
+    return !(object instanceof ObjectWrapper) && !objectWrapperFactory.hasWrapperFor(object)
+        && !(object instanceof Map) && !(object instanceof Collection);
+  }
+
   public MetaObject metaObjectForProperty(String name) {
     Object value = getValue(name);
     return MetaObject.forObject(value, objectFactory, objectWrapperFactory, reflectorFactory);
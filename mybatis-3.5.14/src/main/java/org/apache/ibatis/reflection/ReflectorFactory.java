@@ -22,4 +22,28 @@ public interface ReflectorFactory {
   void setClassCacheEnabled(boolean classCacheEnabled);
 
   Reflector findForClass(Class<?> type);
+
+  /**
+   * Returns whether the reflectors created by this factory access properties through method handles.
+   *
+   * @return {@code true} if method handle invokers are used
+   *
+   * @since 3.5.15
+   */
+  default boolean isUseMethodHandles() {
+    return false;
+  }
+
+  /**
+   * Sets whether the reflectors created by this factory access properties through method handles. Factories that do
+   * not support it ignore the setting.
+   *
+   * @param useMethodHandles
+   *          whether to use method handle invokers
+   *
+   * @since 3.5.15
+   */
+  default void setUseMethodHandles(boolean useMethodHandles) {
+    // NOP
+  }
 }
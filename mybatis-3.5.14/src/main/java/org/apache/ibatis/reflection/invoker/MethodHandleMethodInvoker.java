@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link MethodInvoker} that calls a getter or setter through a pre-bound {@link MethodHandle}, avoiding the argument
+ * checks and boxing of {@link Method#invoke(Object, Object...)}. Public accessors of classes visible from the MyBatis
+ * class loader are called through a class generated by {@link java.lang.invoke.LambdaMetafactory} instead.
+ *
+ * @since 3.5.15
+ */
+public class MethodHandleMethodInvoker extends MethodInvoker {
+
+  private final MethodHandle handle;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+  private final Class<?> declaringClass;
+  private final boolean isStatic;
+  private final int parameterCount;
+  private final Class<?> parameterType;
+  private final boolean primitiveParameter;
+  private final Object primitiveAccessor;
+
+  private MethodHandleMethodInvoker(Method method, MethodHandle handle) {
+    super(method);
+    this.handle = handle;
+    this.declaringClass = method.getDeclaringClass();
+    this.isStatic = Modifier.isStatic(method.getModifiers());
+    this.parameterCount = method.getParameterCount();
+    this.getter = parameterCount == 0 ? MethodHandleSupport.getterFunction(method) : null;
+    this.setter = parameterCount == 1 ? MethodHandleSupport.setterConsumer(method) : null;
+    Class<?> type = parameterCount == 1 ? method.getParameterTypes()[0] : null;
+    this.parameterType = type == null ? null : MethodHandleSupport.wrap(type);
+    this.primitiveParameter = type != null && type.isPrimitive();
+    this.primitiveAccessor = MethodHandleSupport.primitiveAccessor(method);
+  }
+
+  /**
+   * Creates an invoker for a getter (no parameter) or setter (one parameter) method.
+   *
+   * @param method
+   *          the method
+   *
+   * @return a method handle invoker, or a reflective {@link MethodInvoker} when the method cannot be unreflected
+   */
+  public static MethodInvoker of(Method method) {
+    int parameterCount = method.getParameterCount();
+    if (parameterCount > 1) {
+      return new MethodInvoker(method);
+    }
+    MethodHandle handle = MethodHandleSupport.unreflect(method, lookup -> lookup.unreflect(method));
+    if (handle == null) {
+      return new MethodInvoker(method);
+    }
+    return new MethodHandleMethodInvoker(method, MethodHandleSupport.adapt(handle,
+        Modifier.isStatic(method.getModifiers()),
+        parameterCount == 0 ? MethodHandleSupport.GETTER_TYPE : MethodHandleSupport.SETTER_TYPE));
+  }
+
+  /**
+   * Returns an accessor of an {@code int} getter. Like the accessors below, it calls the method without boxing the
+   * value and without checking the target, so the caller must pass an instance of the declaring class.
+   *
+   * @return the accessor, or {@code null} when the method is not a linkable {@code int} getter
+   */
+  @SuppressWarnings("unchecked")
+  public ToIntFunction<Object> getIntGetter() {
+    return primitiveAccessor instanceof ToIntFunction ? (ToIntFunction<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ToLongFunction<Object> getLongGetter() {
+    return primitiveAccessor instanceof ToLongFunction ? (ToLongFunction<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ToDoubleFunction<Object> getDoubleGetter() {
+    return primitiveAccessor instanceof ToDoubleFunction ? (ToDoubleFunction<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public Predicate<Object> getBooleanGetter() {
+    return primitiveAccessor instanceof Predicate ? (Predicate<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ObjIntConsumer<Object> getIntSetter() {
+    return primitiveAccessor instanceof ObjIntConsumer ? (ObjIntConsumer<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ObjLongConsumer<Object> getLongSetter() {
+    return primitiveAccessor instanceof ObjLongConsumer ? (ObjLongConsumer<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ObjDoubleConsumer<Object> getDoubleSetter() {
+    return primitiveAccessor instanceof ObjDoubleConsumer ? (ObjDoubleConsumer<Object>) primitiveAccessor : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public ObjBooleanConsumer<Object> getBooleanSetter() {
+    return primitiveAccessor instanceof ObjBooleanConsumer ? (ObjBooleanConsumer<Object>) primitiveAccessor : null;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    int argCount = args == null ? 0 : args.length;
+    if (argCount != parameterCount || !isStatic && !declaringClass.isInstance(target)
+        || parameterCount == 1 && !MethodHandleSupport.accepts(parameterType, primitiveParameter, args[0])) {
+      return super.invoke(target, args);
+    }
+    try {
+      if (getter != null) {
+        return getter.apply(target);
+      }
+      if (setter != null) {
+        setter.accept(target, args[0]);
+        return null;
+      }
+      if (parameterCount == 0) {
+        return handle.invokeExact(target);
+      }
+      return handle.invokeExact(target, args[0]);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  /**
+   * An operation taking an object and a {@code boolean}, the counterpart of {@link ObjIntConsumer} that the JDK lacks.
+   *
+   * @param <T>
+   *          the type of the object
+   */
+  @FunctionalInterface
+  public interface ObjBooleanConsumer<T> {
+    void accept(T t, boolean value);
+  }
+}
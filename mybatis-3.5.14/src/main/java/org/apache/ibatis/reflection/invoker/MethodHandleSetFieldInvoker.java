@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A {@link SetFieldInvoker} that writes the field through a pre-bound {@link MethodHandle}.
+ *
+ * @since 3.5.15
+ */
+public class MethodHandleSetFieldInvoker extends SetFieldInvoker {
+
+  private final MethodHandle handle;
+  private final Class<?> declaringClass;
+  private final boolean isStatic;
+  private final Class<?> fieldType;
+  private final boolean primitive;
+
+  private MethodHandleSetFieldInvoker(Field field, MethodHandle handle) {
+    super(field);
+    this.handle = handle;
+    this.declaringClass = field.getDeclaringClass();
+    this.isStatic = Modifier.isStatic(field.getModifiers());
+    this.fieldType = MethodHandleSupport.wrap(field.getType());
+    this.primitive = field.getType().isPrimitive();
+  }
+
+  /**
+   * Creates an invoker writing the field.
+   *
+   * @param field
+   *          the field
+   *
+   * @return a method handle invoker, or a reflective {@link SetFieldInvoker} when the field cannot be unreflected
+   */
+  public static SetFieldInvoker of(Field field) {
+    MethodHandle handle = MethodHandleSupport.unreflect(field, lookup -> lookup.unreflectSetter(field));
+    if (handle == null) {
+      return new SetFieldInvoker(field);
+    }
+    return new MethodHandleSetFieldInvoker(field, MethodHandleSupport.adapt(handle,
+        Modifier.isStatic(field.getModifiers()), MethodHandleSupport.SETTER_TYPE));
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+    if (!isStatic && !declaringClass.isInstance(target) || args == null || args.length != 1
+        || !MethodHandleSupport.accepts(fieldType, primitive, args[0])) {
+      return super.invoke(target, args);
+    }
+    try {
+      Object ignored = handle.invokeExact(target, args[0]);
+      return null;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+}
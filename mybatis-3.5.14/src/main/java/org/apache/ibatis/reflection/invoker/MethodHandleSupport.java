@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * Shared helpers of the method handle based invokers.
+ */
+final class MethodHandleSupport {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  static final MethodType SETTER_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+  interface Unreflector {
+    MethodHandle unreflect(MethodHandles.Lookup lookup) throws IllegalAccessException;
+  }
+
+  /**
+   * Unreflects a member, suppressing access checks when the lookup is not allowed to access it.
+   *
+   * @return the method handle, or {@code null} when the member cannot be accessed through a method handle
+   */
+  static MethodHandle unreflect(AccessibleObject member, Unreflector unreflector) {
+    try {
+      return unreflector.unreflect(LOOKUP);
+    } catch (IllegalAccessException e) {
+      if (!Reflector.canControlMemberAccessible()) {
+        return null;
+      }
+      try {
+        member.setAccessible(true);
+        return unreflector.unreflect(LOOKUP);
+      } catch (IllegalAccessException | RuntimeException ex) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Adapts a handle to take the target as first argument, ignoring it for static members.
+   */
+  static MethodHandle adapt(MethodHandle handle, boolean isStatic, MethodType type) {
+    if (isStatic) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    return handle.asType(type);
+  }
+
+  /**
+   * Spins a {@link Function} calling a getter. Unlike a method handle held in a field, the generated class calls the
+   * getter with a plain invokevirtual that the JIT compiler can inline.
+   *
+   * @return the accessor, or {@code null} when the getter cannot be linked from this class loader
+   */
+  @SuppressWarnings("unchecked")
+  static Function<Object, Object> getterFunction(Method method) {
+    if (method.getReturnType() == void.class || !isLinkable(method)) {
+      return null;
+    }
+    try {
+      MethodHandle handle = LOOKUP.unreflect(method);
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+          GETTER_TYPE, handle, MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+      return (Function<Object, Object>) site.getTarget().invokeExact();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  /**
+   * Spins a {@link BiConsumer} calling a setter, see {@link #getterFunction(Method)}. Setters returning a value keep
+   * using the method handle so that the value is still returned.
+   *
+   * @return the accessor, or {@code null} when the setter cannot be linked from this class loader
+   */
+  @SuppressWarnings("unchecked")
+  static BiConsumer<Object, Object> setterConsumer(Method method) {
+    if (method.getReturnType() != void.class || !isLinkable(method)) {
+      return null;
+    }
+    try {
+      MethodHandle handle = LOOKUP.unreflect(method);
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+          MethodType.methodType(void.class, Object.class, Object.class), handle,
+          MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+      return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  /**
+   * Spins a primitive accessor of an {@code int}, {@code long}, {@code double} or {@code boolean} property: a
+   * {@link ToIntFunction}, {@link ToLongFunction}, {@link ToDoubleFunction} or {@link Predicate} for a getter, and an
+   * {@link ObjIntConsumer}, {@link ObjLongConsumer}, {@link ObjDoubleConsumer} or
+   * {@link MethodHandleMethodInvoker.ObjBooleanConsumer} for a setter. The accessor does not check the target type.
+   *
+   * @return the accessor, or {@code null} when the property has another type or the method cannot be linked
+   */
+  static Object primitiveAccessor(Method method) {
+    boolean getter = method.getParameterCount() == 0;
+    Class<?> type = getter ? method.getReturnType() : method.getParameterTypes()[0];
+    boolean accessor = getter ? type != void.class : method.getReturnType() == void.class;
+    if (!accessor || !isLinkable(method)) {
+      return null;
+    }
+    Class<?> accessorType;
+    String name;
+    if (type == int.class) {
+      accessorType = getter ? ToIntFunction.class : ObjIntConsumer.class;
+      name = getter ? "applyAsInt" : "accept";
+    } else if (type == long.class) {
+      accessorType = getter ? ToLongFunction.class : ObjLongConsumer.class;
+      name = getter ? "applyAsLong" : "accept";
+    } else if (type == double.class) {
+      accessorType = getter ? ToDoubleFunction.class : ObjDoubleConsumer.class;
+      name = getter ? "applyAsDouble" : "accept";
+    } else if (type == boolean.class) {
+      accessorType = getter ? Predicate.class : MethodHandleMethodInvoker.ObjBooleanConsumer.class;
+      name = getter ? "test" : "accept";
+    } else {
+      return null;
+    }
+    try {
+      MethodHandle handle = LOOKUP.unreflect(method);
+      MethodType samType = getter ? MethodType.methodType(type, Object.class)
+          : MethodType.methodType(void.class, Object.class, type);
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(accessorType), samType, handle,
+          samType.changeParameterType(0, method.getDeclaringClass()));
+      return site.getTarget().invoke();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  /**
+   * The generated class is defined in the class loader of MyBatis and refers to the declaring class and the property
+   * type by name, so they must be public and visible from that loader (e.g. not only from a web application loader).
+   */
+  private static boolean isLinkable(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    Class<?> propertyType = method.getParameterCount() == 0 ? method.getReturnType() : method.getParameterTypes()[0];
+    return isVisible(method.getDeclaringClass()) && isVisible(wrap(propertyType));
+  }
+
+  private static boolean isVisible(Class<?> type) {
+    if (!Modifier.isPublic(type.getModifiers())) {
+      return false;
+    }
+    ClassLoader loader = MethodHandleSupport.class.getClassLoader();
+    if (type.getClassLoader() == null || type.getClassLoader() == loader) {
+      return true;
+    }
+    try {
+      return Class.forName(type.getName(), false, loader) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  static Class<?> wrap(Class<?> type) {
+    return MethodType.methodType(type).wrap().returnType();
+  }
+
+  /**
+   * Checks that a value can be passed to the handle without conversion. Other values, including widening of
+   * primitives, are left to the reflective invoker so that it reports mismatches as it always did.
+   */
+  static boolean accepts(Class<?> wrappedType, boolean primitive, Object value) {
+    return value == null ? !primitive : wrappedType.isInstance(value);
+  }
+
+  private MethodHandleSupport() {
+    // Prevent Instantiation
+  }
+}
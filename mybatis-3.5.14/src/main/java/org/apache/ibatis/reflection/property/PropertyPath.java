@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A property expression such as {@code order.items[0].id} parsed once into its segments. Compiled paths are immutable
+ * and shared, so evaluating the same expression repeatedly does not tokenize it again.
+ *
+ * @since 3.5.15
+ */
+public final class PropertyPath {
+
+  private static final int MAX_CACHED_PATHS = 4096;
+  // prefix of the parameter names generated by <foreach>, which are unbounded and rarely evaluated twice
+  private static final String FOREACH_ITEM_PREFIX = "__frch_";
+  // lookups run on every MetaObject access, so the cache takes no lock; it is cleared instead of evicting entries
+  private static final Map<String, PropertyPath> cache = new ConcurrentHashMap<>(256);
+
+  private final String fullName;
+  private final PropertyTokenizer tokenizer;
+  private final PropertyTokenizer segment;
+  private final PropertyPath children;
+
+  private PropertyPath(String fullName) {
+    this.fullName = fullName;
+    this.tokenizer = new PropertyTokenizer(fullName);
+    if (tokenizer.hasNext()) {
+      this.segment = new PropertyTokenizer(tokenizer.getIndexedName());
+      this.children = of(tokenizer.getChildren());
+    } else {
+      this.segment = tokenizer;
+      this.children = null;
+    }
+  }
+
+  /**
+   * Returns the compiled form of a property expression. Expressions are cached, except for the names generated by
+   * {@code <foreach>}; the cache is cleared when it grows beyond a few thousand expressions.
+   *
+   * @param fullName
+   *          the property expression
+   *
+   * @return the compiled path
+   */
+  public static PropertyPath of(String fullName) {
+    if (fullName.startsWith(FOREACH_ITEM_PREFIX)) {
+      return new PropertyPath(fullName);
+    }
+    PropertyPath path = cache.get(fullName);
+    if (path == null) {
+      // not computeIfAbsent: compiling a path compiles its children, which would update the map recursively
+      path = new PropertyPath(fullName);
+      if (cache.size() >= MAX_CACHED_PATHS) {
+        cache.clear();
+      }
+      cache.put(fullName, path);
+    }
+    return path;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  /**
+   * Gets the tokenizer of the whole expression.
+   *
+   * @return the tokenizer
+   */
+  public PropertyTokenizer getTokenizer() {
+    return tokenizer;
+  }
+
+  /**
+   * Gets the tokenizer of the first segment alone, without children.
+   *
+   * @return the segment tokenizer
+   */
+  public PropertyTokenizer getSegment() {
+    return segment;
+  }
+
+  public boolean hasNext() {
+    return children != null;
+  }
+
+  /**
+   * Gets the path following the first segment.
+   *
+   * @return the children path, or {@code null} for the last segment
+   */
+  public PropertyPath getChildren() {
+    return children;
+  }
+
+  @Override
+  public String toString() {
+    return fullName;
+  }
+}
@@ -64,6 +64,11 @@ public class DefaultParameterHandler implements ParameterHandler {
     // 获取参数映射信息，这些信息描述了参数在 SQL 语句中的类型等信息
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
+      ParameterBinder binder = getParameterBinder(parameterMappings);
+      if (binder != null) {
+        binder.bind(ps, parameterObject);
+        return;
+      }
       MetaObject metaObject = null;
       for (int i = 0; i < parameterMappings.size(); i++) {
         ParameterMapping parameterMapping = parameterMappings.get(i);
@@ -97,4 +102,15 @@ public class DefaultParameterHandler implements ParameterHandler {
     }
   }
 
+  private ParameterBinder getParameterBinder(List<ParameterMapping> parameterMappings) {
+    // 只有参数映射固定不变（静态 SQL）且没有附加参数时，才能复用按参数类型预先编译好的绑定器
+    if (parameterObject == null || !boundSql.getAdditionalParameters().isEmpty()
+        || configuration.getObjectWrapperFactory().hasWrapperFor(parameterObject)) {
+      return null;
+    }
+    ParameterBinder binder = mappedStatement.getParameterBinder(parameterObject.getClass(),
+        type -> ParameterBinder.compile(configuration, type, parameterMappings));
+    return binder.matches(parameterMappings) ? binder : null;
+  }
+
 }
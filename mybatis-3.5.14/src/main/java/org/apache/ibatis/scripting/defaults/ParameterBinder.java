@@ -0,0 +1,239 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleMethodInvoker;
+import org.apache.ibatis.reflection.property.PropertyPath;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Binds the parameters of a statement whose parameter mappings do not change between executions. The way each value
+ * is read from the parameter object is resolved once for a parameter type: the parameter object itself, a map entry, a
+ * getter of a bean, or a compiled property path for nested properties. When method handles are enabled, an
+ * {@code int}, {@code long}, {@code double} or {@code boolean} getter whose type handler is a usable
+ * {@link PrimitiveTypeHandler} is bound without boxing the value.
+ *
+ * @since 3.5.15
+ */
+public final class ParameterBinder {
+
+  private static final Object[] NO_ARGUMENTS = {};
+
+  private final Configuration configuration;
+  private final List<ParameterMapping> parameterMappings;
+  private final ValueExtractor[] extractors;
+  private final PrimitiveBinder[] primitiveBinders;
+  private final boolean useMethodHandles;
+
+  private ParameterBinder(Configuration configuration, Class<?> parameterType,
+      List<ParameterMapping> parameterMappings) {
+    this.configuration = configuration;
+    this.parameterMappings = parameterMappings;
+    this.useMethodHandles = configuration.isUseMethodHandles();
+    this.extractors = new ValueExtractor[parameterMappings.size()];
+    this.primitiveBinders = new PrimitiveBinder[extractors.length];
+    boolean hasTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+    for (int i = 0; i < extractors.length; i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() != ParameterMode.OUT) {
+        primitiveBinders[i] = hasTypeHandler ? null : compilePrimitiveBinder(parameterType, parameterMapping);
+        extractors[i] = hasTypeHandler ? parameterObject -> parameterObject
+            : compileExtractor(parameterType, parameterMapping.getProperty());
+      }
+    }
+  }
+
+  /**
+   * Compiles a binder for a parameter type and the parameter mappings of a statement.
+   *
+   * @param configuration
+   *          the configuration
+   * @param parameterType
+   *          the type of the parameter object
+   * @param parameterMappings
+   *          the parameter mappings
+   *
+   * @return the binder
+   */
+  public static ParameterBinder compile(Configuration configuration, Class<?> parameterType,
+      List<ParameterMapping> parameterMappings) {
+    return new ParameterBinder(configuration, parameterType, parameterMappings);
+  }
+
+  /**
+   * Returns whether this binder was compiled for the given parameter mappings.
+   *
+   * @param parameterMappings
+   *          the parameter mappings of the bound sql
+   *
+   * @return {@code true} if the same mappings were compiled
+   */
+  public boolean matches(List<ParameterMapping> parameterMappings) {
+    return this.parameterMappings == parameterMappings;
+  }
+
+  /**
+   * Returns whether the getters compiled into this binder still use the property access mode of the configuration.
+   * A binder compiled before {@link Configuration#setUseMethodHandles(boolean)} changed the mode must be recompiled.
+   *
+   * @return {@code true} if the binder can be reused
+   */
+  public boolean isCurrent() {
+    return useMethodHandles == configuration.isUseMethodHandles();
+  }
+
+  public void bind(PreparedStatement ps, Object parameterObject) {
+    for (int i = 0; i < extractors.length; i++) {
+      PrimitiveBinder primitiveBinder = primitiveBinders[i];
+      if (primitiveBinder != null) {
+        bindPrimitive(primitiveBinder, ps, i + 1, parameterObject, parameterMappings.get(i));
+        continue;
+      }
+      ValueExtractor extractor = extractors[i];
+      if (extractor != null) {
+        ParameterMapping parameterMapping = parameterMappings.get(i);
+        Object value = extractor.extract(parameterObject);
+        // the type handler of a mapping was resolved for the type of the property, so it accepts the extracted value
+        @SuppressWarnings("unchecked")
+        TypeHandler<Object> typeHandler = (TypeHandler<Object>) parameterMapping.getTypeHandler();
+        JdbcType jdbcType = parameterMapping.getJdbcType();
+        if (value == null && jdbcType == null) {
+          jdbcType = configuration.getJdbcTypeForNull();
+        }
+        try {
+          typeHandler.setParameter(ps, i + 1, value, jdbcType);
+        } catch (TypeException | SQLException e) {
+          throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+        }
+      }
+    }
+  }
+
+  private static void bindPrimitive(PrimitiveBinder binder, PreparedStatement ps, int index, Object parameterObject,
+      ParameterMapping parameterMapping) {
+    try {
+      binder.bind(ps, index, parameterObject);
+    } catch (SQLException e) {
+      throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      // the accessor calls the getter directly, so a checked exception of the getter arrives here unwrapped
+      throw new ReflectionException("Could not get property '" + parameterMapping.getProperty() + "' from "
+          + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+  private PrimitiveBinder compilePrimitiveBinder(Class<?> parameterType, ParameterMapping parameterMapping) {
+    String property = parameterMapping.getProperty();
+    TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
+    if (!PrimitiveTypeHandler.isUsable(typeHandler) || property.indexOf('.') != -1 || property.indexOf('[') != -1
+        || Map.class.isAssignableFrom(parameterType) || Collection.class.isAssignableFrom(parameterType)
+        || ObjectWrapper.class.isAssignableFrom(parameterType)) {
+      return null;
+    }
+    Reflector reflector = configuration.getReflectorFactory().findForClass(parameterType);
+    if (!reflector.hasGetter(property) || !(reflector.getGetInvoker(property) instanceof MethodHandleMethodInvoker)) {
+      return null;
+    }
+    // the binder is compiled for the exact class of the parameter object, so the accessor always gets an instance
+    MethodHandleMethodInvoker invoker = (MethodHandleMethodInvoker) reflector.getGetInvoker(property);
+    if (typeHandler instanceof PrimitiveTypeHandler.OfInt && invoker.getIntGetter() != null) {
+      PrimitiveTypeHandler.OfInt handler = (PrimitiveTypeHandler.OfInt) typeHandler;
+      ToIntFunction<Object> getter = invoker.getIntGetter();
+      return (ps, i, parameterObject) -> handler.setInt(ps, i, getter.applyAsInt(parameterObject));
+    }
+    if (typeHandler instanceof PrimitiveTypeHandler.OfLong && invoker.getLongGetter() != null) {
+      PrimitiveTypeHandler.OfLong handler = (PrimitiveTypeHandler.OfLong) typeHandler;
+      ToLongFunction<Object> getter = invoker.getLongGetter();
+      return (ps, i, parameterObject) -> handler.setLong(ps, i, getter.applyAsLong(parameterObject));
+    }
+    if (typeHandler instanceof PrimitiveTypeHandler.OfDouble && invoker.getDoubleGetter() != null) {
+      PrimitiveTypeHandler.OfDouble handler = (PrimitiveTypeHandler.OfDouble) typeHandler;
+      ToDoubleFunction<Object> getter = invoker.getDoubleGetter();
+      return (ps, i, parameterObject) -> handler.setDouble(ps, i, getter.applyAsDouble(parameterObject));
+    }
+    if (typeHandler instanceof PrimitiveTypeHandler.OfBoolean && invoker.getBooleanGetter() != null) {
+      PrimitiveTypeHandler.OfBoolean handler = (PrimitiveTypeHandler.OfBoolean) typeHandler;
+      Predicate<Object> getter = invoker.getBooleanGetter();
+      return (ps, i, parameterObject) -> handler.setBoolean(ps, i, getter.test(parameterObject));
+    }
+    return null;
+  }
+
+  private ValueExtractor compileExtractor(Class<?> parameterType, String property) {
+    if (property.indexOf('.') == -1 && property.indexOf('[') == -1
+        && !ObjectWrapper.class.isAssignableFrom(parameterType)) {
+      if (Map.class.isAssignableFrom(parameterType)) {
+        return parameterObject -> ((Map<?, ?>) parameterObject).get(property);
+      }
+      if (!Collection.class.isAssignableFrom(parameterType)) {
+        Reflector reflector = configuration.getReflectorFactory().findForClass(parameterType);
+        if (reflector.hasGetter(property)) {
+          Invoker invoker = reflector.getGetInvoker(property);
+          return parameterObject -> getBeanProperty(invoker, parameterObject, property);
+        }
+      }
+    }
+    // nested and indexed properties, and properties without a getter, keep the MetaObject lookup and its errors
+    PropertyPath path = PropertyPath.of(property);
+    return parameterObject -> configuration.newMetaObject(parameterObject).getValue(path);
+  }
+
+  private static Object getBeanProperty(Invoker invoker, Object object, String property) {
+    try {
+      try {
+        return invoker.invoke(object, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException(
+          "Could not get property '" + property + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+  private interface ValueExtractor {
+    Object extract(Object parameterObject);
+  }
+
+  private interface PrimitiveBinder {
+    void bind(PreparedStatement ps, int i, Object parameterObject) throws SQLException;
+  }
+}
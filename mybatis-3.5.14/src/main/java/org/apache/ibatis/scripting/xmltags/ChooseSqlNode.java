@@ -16,6 +16,7 @@
 package org.apache.ibatis.scripting.xmltags;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Clinton Begin
@@ -29,6 +30,14 @@ public class ChooseSqlNode implements SqlNode {
     this.defaultSqlNode = defaultSqlNode;
   }
 
+  List<SqlNode> getIfSqlNodes() {
+    return ifSqlNodes;
+  }
+
+  SqlNode getDefaultSqlNode() {
+    return defaultSqlNode;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     for (SqlNode sqlNode : ifSqlNodes) {
@@ -42,4 +51,12 @@ public class ChooseSqlNode implements SqlNode {
     }
     return false;
   }
+
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    ifSqlNodes.forEach(node -> node.collectExpressions(consumer));
+    if (defaultSqlNode != null) {
+      defaultSqlNode.collectExpressions(consumer);
+    }
+  }
 }
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.function.Consumer;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
@@ -33,6 +35,10 @@ public class DynamicSqlSource implements SqlSource {
     this.rootSqlNode = rootSqlNode;
   }
 
+  SqlNode getRootSqlNode() {
+    return rootSqlNode;
+  }
+
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
     // 创建一个包装了 Configuration 和 id=1 参数的动态上下文对象
@@ -55,4 +61,16 @@ public class DynamicSqlSource implements SqlSource {
     return boundSql;
   }
 
+  /**
+   * Passes the OGNL expressions of the dynamic elements to the given consumer.
+   *
+   * @param consumer
+   *          the expression consumer
+   *
+   * @since 3.5.15
+   */
+  public void collectExpressions(Consumer<String> consumer) {
+    rootSqlNode.collectExpressions(consumer);
+  }
+
 }
@@ -17,6 +17,7 @@ package org.apache.ibatis.scripting.xmltags;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
@@ -65,6 +66,38 @@ public class ForEachSqlNode implements SqlNode {
     this.configuration = configuration;
   }
 
+  String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  Boolean getNullable() {
+    return nullable;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getOpen() {
+    return open;
+  }
+
+  String getClose() {
+    return close;
+  }
+
+  String getSeparator() {
+    return separator;
+  }
+
+  String getItem() {
+    return item;
+  }
+
+  String getIndex() {
+    return index;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
@@ -121,6 +154,12 @@ public class ForEachSqlNode implements SqlNode {
     }
   }
 
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    consumer.accept(collectionExpression);
+    contents.collectExpressions(consumer);
+  }
+
   private void applyOpen(DynamicContext context) {
     if (open != null) {
       context.appendSql(open);
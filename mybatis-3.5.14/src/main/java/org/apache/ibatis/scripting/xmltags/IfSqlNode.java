@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.function.Consumer;
+
 /**
  * @author Clinton Begin
  */
@@ -29,6 +31,14 @@ public class IfSqlNode implements SqlNode {
     this.evaluator = new ExpressionEvaluator();
   }
 
+  String getTest() {
+    return test;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // <if test="id != null">id = #{id}</if> 标签中 test 条件判断，如果符合条件则返回 true
@@ -39,4 +49,10 @@ public class IfSqlNode implements SqlNode {
     return false;
   }
 
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    consumer.accept(test);
+    contents.collectExpressions(consumer);
+  }
+
 }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.scripting.xmltags;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Clinton Begin
@@ -27,6 +28,10 @@ public class MixedSqlNode implements SqlNode {
     this.contents = contents;
   }
 
+  List<SqlNode> getContents() {
+    return contents;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // 遍历处理 MixedSqlNode 节点中的 contents
@@ -35,4 +40,9 @@ public class MixedSqlNode implements SqlNode {
     contents.forEach(node -> node.apply(context));
     return true;
   }
+
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    contents.forEach(node -> node.collectExpressions(consumer));
+  }
 }
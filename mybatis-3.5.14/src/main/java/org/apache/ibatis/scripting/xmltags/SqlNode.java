@@ -15,9 +15,24 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.function.Consumer;
+
 /**
  * @author Clinton Begin
  */
 public interface SqlNode {
   boolean apply(DynamicContext context);
+
+  /**
+   * Passes the OGNL expressions evaluated by this node and its children to the given consumer, so that they can be
+   * parsed ahead of the first execution.
+   *
+   * @param consumer
+   *          the expression consumer
+   *
+   * @since 3.5.15
+   */
+  default void collectExpressions(Consumer<String> consumer) {
+    // NOP
+  }
 }
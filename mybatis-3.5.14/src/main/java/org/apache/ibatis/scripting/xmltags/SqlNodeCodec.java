@@ -0,0 +1,255 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Writes and reads the sql node trees built by {@link XMLScriptBuilder}, so that a configuration snapshot can restore
+ * a {@link DynamicSqlSource} without parsing its mapper again. Strings are passed through the string table of the
+ * caller: the writer maps each string (or {@code null}) to an index, the reader maps the index back.
+ *
+ * @since 3.5.15
+ */
+public final class SqlNodeCodec {
+
+  private enum NodeType {
+    MIXED, STATIC_TEXT, TEXT, IF, CHOOSE, WHERE, SET, TRIM, FOREACH, VAR_DECL
+  }
+
+  private SqlNodeCodec() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Writes the sql node tree of a dynamic sql source.
+   *
+   * @param sqlSource
+   *          the sql source
+   * @param out
+   *          the output
+   * @param strings
+   *          maps a string to its index in the string table of the caller
+   *
+   * @throws IOException
+   *           if the output cannot be written
+   * @throws UnsupportedOperationException
+   *           if the tree contains a node that was not built by {@link XMLScriptBuilder}; the message is the name of
+   *           its class
+   */
+  public static void write(DynamicSqlSource sqlSource, DataOutput out, ToIntFunction<String> strings)
+      throws IOException {
+    write(sqlSource.getRootSqlNode(), out, strings);
+  }
+
+  /**
+   * Reads a dynamic sql source written by {@link #write(DynamicSqlSource, DataOutput, ToIntFunction)}.
+   *
+   * @param configuration
+   *          the configuration
+   * @param in
+   *          the input
+   * @param strings
+   *          maps an index of the string table of the caller to its string
+   *
+   * @return the sql source
+   *
+   * @throws IOException
+   *           if the input cannot be read
+   */
+  public static DynamicSqlSource read(Configuration configuration, DataInput in, IntFunction<String> strings)
+      throws IOException {
+    return new DynamicSqlSource(configuration, read(configuration, in, new Strings(in, strings)));
+  }
+
+  private static void write(SqlNode node, DataOutput out, ToIntFunction<String> strings) throws IOException {
+    Class<?> type = node == null ? null : node.getClass();
+    if (type == MixedSqlNode.class) {
+      writeType(out, NodeType.MIXED);
+      writeNodes(((MixedSqlNode) node).getContents(), out, strings);
+    } else if (type == StaticTextSqlNode.class) {
+      writeType(out, NodeType.STATIC_TEXT);
+      out.writeInt(strings.applyAsInt(((StaticTextSqlNode) node).getText()));
+    } else if (type == TextSqlNode.class) {
+      TextSqlNode text = (TextSqlNode) node;
+      Pattern injectionFilter = text.getInjectionFilter();
+      writeType(out, NodeType.TEXT);
+      out.writeInt(strings.applyAsInt(text.getText()));
+      out.writeInt(strings.applyAsInt(injectionFilter == null ? null : injectionFilter.pattern()));
+      out.writeInt(injectionFilter == null ? 0 : injectionFilter.flags());
+    } else if (type == IfSqlNode.class) {
+      IfSqlNode ifNode = (IfSqlNode) node;
+      writeType(out, NodeType.IF);
+      out.writeInt(strings.applyAsInt(ifNode.getTest()));
+      write(ifNode.getContents(), out, strings);
+    } else if (type == ChooseSqlNode.class) {
+      ChooseSqlNode choose = (ChooseSqlNode) node;
+      writeType(out, NodeType.CHOOSE);
+      writeNodes(choose.getIfSqlNodes(), out, strings);
+      out.writeBoolean(choose.getDefaultSqlNode() != null);
+      if (choose.getDefaultSqlNode() != null) {
+        write(choose.getDefaultSqlNode(), out, strings);
+      }
+    } else if (type == WhereSqlNode.class || type == SetSqlNode.class) {
+      writeType(out, type == WhereSqlNode.class ? NodeType.WHERE : NodeType.SET);
+      write(((TrimSqlNode) node).getContents(), out, strings);
+    } else if (type == TrimSqlNode.class) {
+      TrimSqlNode trim = (TrimSqlNode) node;
+      writeType(out, NodeType.TRIM);
+      write(trim.getContents(), out, strings);
+      out.writeInt(strings.applyAsInt(trim.getPrefix()));
+      writeStrings(trim.getPrefixesToOverride(), out, strings);
+      out.writeInt(strings.applyAsInt(trim.getSuffix()));
+      writeStrings(trim.getSuffixesToOverride(), out, strings);
+    } else if (type == ForEachSqlNode.class) {
+      ForEachSqlNode forEach = (ForEachSqlNode) node;
+      Boolean nullable = forEach.getNullable();
+      writeType(out, NodeType.FOREACH);
+      write(forEach.getContents(), out, strings);
+      out.writeInt(strings.applyAsInt(forEach.getCollectionExpression()));
+      out.writeByte(nullable == null ? -1 : nullable ? 1 : 0);
+      out.writeInt(strings.applyAsInt(forEach.getIndex()));
+      out.writeInt(strings.applyAsInt(forEach.getItem()));
+      out.writeInt(strings.applyAsInt(forEach.getOpen()));
+      out.writeInt(strings.applyAsInt(forEach.getClose()));
+      out.writeInt(strings.applyAsInt(forEach.getSeparator()));
+    } else if (type == VarDeclSqlNode.class) {
+      VarDeclSqlNode varDecl = (VarDeclSqlNode) node;
+      writeType(out, NodeType.VAR_DECL);
+      out.writeInt(strings.applyAsInt(varDecl.getName()));
+      out.writeInt(strings.applyAsInt(varDecl.getExpression()));
+    } else {
+      throw new UnsupportedOperationException(type == null ? null : type.getName());
+    }
+  }
+
+  private static void writeType(DataOutput out, NodeType type) throws IOException {
+    out.writeByte(type.ordinal());
+  }
+
+  private static void writeNodes(List<SqlNode> nodes, DataOutput out, ToIntFunction<String> strings)
+      throws IOException {
+    out.writeInt(nodes.size());
+    for (SqlNode node : nodes) {
+      write(node, out, strings);
+    }
+  }
+
+  private static void writeStrings(List<String> values, DataOutput out, ToIntFunction<String> strings)
+      throws IOException {
+    out.writeInt(values.size());
+    for (String value : values) {
+      out.writeInt(strings.applyAsInt(value));
+    }
+  }
+
+  private static SqlNode read(Configuration configuration, DataInput in, Strings strings) throws IOException {
+    int ordinal = in.readByte();
+    if (ordinal < 0 || ordinal >= NodeType.values().length) {
+      throw new BuilderException("Unknown sql node in mapping snapshot.");
+    }
+    switch (NodeType.values()[ordinal]) {
+      case MIXED:
+        return new MixedSqlNode(readNodes(configuration, in, strings));
+      case STATIC_TEXT:
+        return new StaticTextSqlNode(strings.read());
+      case TEXT: {
+        String text = strings.read();
+        String injectionFilter = strings.read();
+        int flags = in.readInt();
+        return new TextSqlNode(text, injectionFilter == null ? null : Pattern.compile(injectionFilter, flags));
+      }
+      case IF: {
+        String test = strings.read();
+        return new IfSqlNode(read(configuration, in, strings), test);
+      }
+      case CHOOSE: {
+        List<SqlNode> ifSqlNodes = readNodes(configuration, in, strings);
+        return new ChooseSqlNode(ifSqlNodes, in.readBoolean() ? read(configuration, in, strings) : null);
+      }
+      case WHERE:
+        return new WhereSqlNode(configuration, read(configuration, in, strings));
+      case SET:
+        return new SetSqlNode(configuration, read(configuration, in, strings));
+      case TRIM: {
+        SqlNode contents = read(configuration, in, strings);
+        String prefix = strings.read();
+        List<String> prefixesToOverride = strings.readList();
+        String suffix = strings.read();
+        return new TrimSqlNode(configuration, contents, prefix, prefixesToOverride, suffix, strings.readList());
+      }
+      case FOREACH: {
+        SqlNode contents = read(configuration, in, strings);
+        String collectionExpression = strings.read();
+        byte nullable = in.readByte();
+        String index = strings.read();
+        String item = strings.read();
+        String open = strings.read();
+        String close = strings.read();
+        return new ForEachSqlNode(configuration, contents, collectionExpression, nullable < 0 ? null : nullable == 1,
+            index, item, open, close, strings.read());
+      }
+      default: {
+        String name = strings.read();
+        return new VarDeclSqlNode(name, strings.read());
+      }
+    }
+  }
+
+  private static List<SqlNode> readNodes(Configuration configuration, DataInput in, Strings strings)
+      throws IOException {
+    int count = in.readInt();
+    List<SqlNode> nodes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      nodes.add(read(configuration, in, strings));
+    }
+    return nodes;
+  }
+
+  private static final class Strings {
+    private final DataInput in;
+    private final IntFunction<String> table;
+
+    private Strings(DataInput in, IntFunction<String> table) {
+      this.in = in;
+      this.table = table;
+    }
+
+    String read() throws IOException {
+      return table.apply(in.readInt());
+    }
+
+    List<String> readList() throws IOException {
+      int count = in.readInt();
+      List<String> values = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        values.add(read());
+      }
+      return values;
+    }
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
@@ -47,6 +48,14 @@ public class TextSqlNode implements SqlNode {
     return checker.isDynamic();
   }
 
+  String getText() {
+    return text;
+  }
+
+  Pattern getInjectionFilter() {
+    return injectionFilter;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
@@ -54,6 +63,14 @@ public class TextSqlNode implements SqlNode {
     return true;
   }
 
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    createParser(content -> {
+      consumer.accept(content);
+      return content;
+    }).parse(text);
+  }
+
   private GenericTokenParser createParser(TokenHandler handler) {
     return new GenericTokenParser("${", "}", handler);
   }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.function.Consumer;
 
 import org.apache.ibatis.session.Configuration;
 
@@ -52,6 +53,26 @@ public class TrimSqlNode implements SqlNode {
     this.configuration = configuration;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getPrefix() {
+    return prefix;
+  }
+
+  String getSuffix() {
+    return suffix;
+  }
+
+  List<String> getPrefixesToOverride() {
+    return prefixesToOverride;
+  }
+
+  List<String> getSuffixesToOverride() {
+    return suffixesToOverride;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // 创建一个已过滤的 DynamicContext 对象
@@ -63,6 +84,11 @@ public class TrimSqlNode implements SqlNode {
     return result;
   }
 
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    contents.collectExpressions(consumer);
+  }
+
   private static List<String> parseOverrides(String overrides) {
     if (overrides != null) {
       final StringTokenizer parser = new StringTokenizer(overrides, "|", false);
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.function.Consumer;
+
 /**
  * @author Frank D. Martinez [mnesarco]
  */
@@ -28,6 +30,14 @@ public class VarDeclSqlNode implements SqlNode {
     this.expression = exp;
   }
 
+  String getName() {
+    return name;
+  }
+
+  String getExpression() {
+    return expression;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     final Object value = OgnlCache.getValue(expression, context.getBindings());
@@ -35,4 +45,9 @@ public class VarDeclSqlNode implements SqlNode {
     return true;
   }
 
+  @Override
+  public void collectExpressions(Consumer<String> consumer) {
+    consumer.accept(expression);
+  }
+
 }
@@ -15,8 +15,10 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -26,6 +28,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
@@ -52,6 +57,13 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.executor.pagination.CountSqlSource;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.executor.pagination.DialectRegistry;
+import org.apache.ibatis.executor.pagination.LimitOffsetDialect;
+import org.apache.ibatis.executor.pagination.OffsetFetchDialect;
+import org.apache.ibatis.executor.pagination.RowNumDialect;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
@@ -68,11 +80,14 @@ import org.apache.ibatis.logging.nologging.NoLoggingImpl;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.logging.stdout.StdOutImpl;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
@@ -88,6 +103,7 @@ import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.sharding.ShardingStrategy;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
@@ -170,6 +186,33 @@ public class Configuration {
    * 某些驱动需要指定列的 JDBC 类型，多数情况直接用一般类型即可，比如 NULL、VARCHAR 或 OTHER。 */
   protected JdbcType jdbcTypeForNull = JdbcType.OTHER;
 
+  /** 配置了 batchSelect 的嵌套查询一次批量加载的最大键数量 */
+  protected int batchSelectSize = 100;
+
+  /** 是否并行读取并解析 mapper XML 文档，解析结果仍按声明顺序依次注册 */
+  protected boolean parallelMapperParsing;
+
+  /** 映射快照文件的路径，快照未过期时直接从中加载映射信息，否则解析 mapper 后重新生成 */
+  protected String mapperSnapshot;
+
+  /** 语句执行指标，未开启 statementMetricsEnabled 时为 null，执行路径上只需一次判空 */
+  protected StatementMetricsRegistry statementMetrics;
+
+  /** 是否将 RowBounds 改写为数据库的分页语法，而不是在内存中跳过和截断结果行 */
+  protected boolean physicalPagingEnabled;
+
+  /** 物理分页使用的方言，未指定时按 databaseId 从 dialectRegistry 中查找 */
+  protected Dialect pagingDialect;
+  protected final DialectRegistry dialectRegistry = new DialectRegistry();
+
+  /** 计数查询结果在二级缓存中的存活毫秒数，为 null 时与其他查询结果一样由缓存自身决定 */
+  protected Long countCacheTtl;
+  /** 由查询语句派生的计数语句，按原语句 id 在首次使用时创建 */
+  protected final Map<String, MappedStatement> countStatements = new ConcurrentHashMap<>();
+
+  /** 未在语句上指定分片策略时使用的默认策略，仅对分片会话生效 */
+  protected ShardingStrategy defaultShardingStrategy;
+
   /** 指定对象的哪个方法触发一次延迟加载。 */
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(
       Arrays.asList("equals", "clone", "hashCode", "toString"));
@@ -179,6 +222,9 @@ public class Configuration {
   protected Integer defaultFetchSize;
   protected ResultSetType defaultResultSetType;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+
+  /** 执行返回 CompletableFuture 的 Mapper 方法所使用的线程池，未指定时按需创建 */
+  protected volatile ExecutorService asyncExecutor;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
 
@@ -227,6 +273,8 @@ public class Configuration {
    * the value is the namespace which the actual cache is bound to.
    */
   protected final Map<String, String> cacheRefMap = new HashMap<>();
+  /** 由 MyBatis 构建的二级缓存的构建参数，用于从映射快照重建缓存 */
+  protected final Map<String, CacheBuilder> cacheBuilders = new HashMap<>();
 
   public Configuration(Environment environment) {
     this();
@@ -253,6 +301,11 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
+    // 物理分页方言相关的别名
+    typeAliasRegistry.registerAlias("LIMIT_OFFSET", LimitOffsetDialect.class);
+    typeAliasRegistry.registerAlias("OFFSET_FETCH", OffsetFetchDialect.class);
+    typeAliasRegistry.registerAlias("ROWNUM", RowNumDialect.class);
+
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
 
@@ -441,6 +494,17 @@ public class Configuration {
     return loadedResources.contains(resource);
   }
 
+  /**
+   * Gets the mapper resources, namespaces and mapper interfaces loaded so far.
+   *
+   * @return the loaded resources
+   *
+   * @since 3.5.15
+   */
+  public Set<String> getLoadedResources() {
+    return Collections.unmodifiableSet(loadedResources);
+  }
+
   public Environment getEnvironment() {
     return environment;
   }
@@ -578,6 +642,70 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * Gets the maximum number of keys passed to a batch select of a nested query in one execution.
+   *
+   * @return the batch select size
+   *
+   * @since 3.5.15
+   */
+  public int getBatchSelectSize() {
+    return batchSelectSize;
+  }
+
+  /**
+   * Sets the maximum number of keys passed to a batch select of a nested query in one execution. Defaults to 100.
+   *
+   * @param batchSelectSize
+   *          the batch select size
+   *
+   * @since 3.5.15
+   */
+  public void setBatchSelectSize(int batchSelectSize) {
+    this.batchSelectSize = batchSelectSize;
+  }
+
+  /**
+   * Gets the executor service that runs mapper methods returning {@link java.util.concurrent.CompletableFuture}. When
+   * none has been set, a cached pool of daemon threads is created on first use. Each select runs on a session returned
+   * by {@link SqlSession#openAsyncSession()}, outside the transaction of the calling session.
+   *
+   * @return the async executor
+   *
+   * @since 3.5.15
+   */
+  public ExecutorService getAsyncExecutor() {
+    ExecutorService executor = asyncExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = asyncExecutor;
+        if (executor == null) {
+          AtomicInteger threadNumber = new AtomicInteger();
+          executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+          asyncExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Sets the executor service that runs mapper methods returning {@link java.util.concurrent.CompletableFuture}, e.g.
+   * a virtual-thread-per-task executor. The caller remains responsible for shutting it down.
+   *
+   * @param asyncExecutor
+   *          the async executor
+   *
+   * @since 3.5.15
+   */
+  public void setAsyncExecutor(ExecutorService asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
   /**
    * Gets the default result set type.
    *
@@ -675,6 +803,235 @@ public class Configuration {
     this.reflectorFactory = reflectorFactory;
   }
 
+  /**
+   * Returns whether the reflector factory accesses properties through method handles.
+   *
+   * @return {@code true} if method handle invokers are used
+   *
+   * @since 3.5.15
+   */
+  public boolean isUseMethodHandles() {
+    return reflectorFactory.isUseMethodHandles();
+  }
+
+  /**
+   * Sets whether the reflector factory accesses properties through pre-bound method handles instead of core
+   * reflection. Custom reflector factories that do not support it ignore the setting.
+   *
+   * @param useMethodHandles
+   *          whether to use method handle invokers
+   *
+   * @since 3.5.15
+   */
+  public void setUseMethodHandles(boolean useMethodHandles) {
+    reflectorFactory.setUseMethodHandles(useMethodHandles);
+  }
+
+  /**
+   * Returns whether the mapper XML documents listed in the configuration are read and parsed concurrently.
+   *
+   * @return {@code true} if mapper documents are parsed in parallel
+   *
+   * @since 3.5.15
+   */
+  public boolean isParallelMapperParsing() {
+    return parallelMapperParsing;
+  }
+
+  /**
+   * Sets whether the mapper XML documents listed in the configuration are read and parsed concurrently. The parsed
+   * documents are still registered one by one in declaration order, so the resulting configuration is the same as with
+   * sequential parsing. Defaults to {@code false}.
+   *
+   * @param parallelMapperParsing
+   *          whether to parse mapper documents in parallel
+   *
+   * @since 3.5.15
+   */
+  public void setParallelMapperParsing(boolean parallelMapperParsing) {
+    this.parallelMapperParsing = parallelMapperParsing;
+  }
+
+  /**
+   * Gets the path of the mapping snapshot file.
+   *
+   * @return the mapping snapshot path, or {@code null} when mappers are always parsed
+   *
+   * @since 3.5.15
+   */
+  public String getMapperSnapshot() {
+    return mapperSnapshot;
+  }
+
+  /**
+   * Sets the path of a file caching the mapping metadata built from the mappers of the configuration file. When the
+   * file holds an up-to-date snapshot the mappers are not parsed at all, otherwise they are parsed and the file is
+   * (re)written.
+   *
+   * @param mapperSnapshot
+   *          the mapping snapshot path
+   *
+   * @since 3.5.15
+   *
+   * @see org.apache.ibatis.builder.snapshot.ConfigurationSnapshot
+   */
+  public void setMapperSnapshot(String mapperSnapshot) {
+    this.mapperSnapshot = mapperSnapshot;
+  }
+
+  /**
+   * Returns whether per statement execution metrics are recorded.
+   *
+   * @return {@code true} if statement metrics are enabled
+   *
+   * @since 3.5.15
+   */
+  public boolean isStatementMetricsEnabled() {
+    return statementMetrics != null;
+  }
+
+  /**
+   * Enables or disables the recording of per statement execution metrics. Disabling them discards the metrics recorded
+   * so far.
+   *
+   * @param statementMetricsEnabled
+   *          whether statement metrics are recorded
+   *
+   * @since 3.5.15
+   */
+  public void setStatementMetricsEnabled(boolean statementMetricsEnabled) {
+    if (!statementMetricsEnabled) {
+      statementMetrics = null;
+    } else if (statementMetrics == null) {
+      statementMetrics = new StatementMetricsRegistry();
+    }
+  }
+
+  /**
+   * Gets the per statement execution metrics.
+   *
+   * @return the metrics registry, or {@code null} if statement metrics are disabled
+   *
+   * @since 3.5.15
+   */
+  public StatementMetricsRegistry getStatementMetrics() {
+    return statementMetrics;
+  }
+
+  /**
+   * Returns whether {@link RowBounds} are applied by the database rather than by skipping and discarding rows.
+   *
+   * @return {@code true} if physical paging is enabled
+   *
+   * @since 3.5.15
+   */
+  public boolean isPhysicalPagingEnabled() {
+    return physicalPagingEnabled;
+  }
+
+  /**
+   * Enables or disables physical paging. When enabled, the SQL of a select paged with {@link RowBounds} is rewritten
+   * by the {@link #getPagingDialect() paging dialect}. Statements with nested result maps, multiple result sets or
+   * callable statements keep paging in memory, as do queries the dialect cannot rewrite (see
+   * {@link Dialect#isPageable(String)}) and any statement when no dialect is found.
+   *
+   * @param physicalPagingEnabled
+   *          whether physical paging is enabled
+   *
+   * @since 3.5.15
+   */
+  public void setPhysicalPagingEnabled(boolean physicalPagingEnabled) {
+    this.physicalPagingEnabled = physicalPagingEnabled;
+  }
+
+  /**
+   * Gets the dialect used to page queries in the database. It is the dialect set with
+   * {@link #setPagingDialect(Dialect)}, or else the one registered for the {@link #getDatabaseId() database id}. The
+   * dialect is used for {@link RowBounds} when {@link #isPhysicalPagingEnabled() physical paging} is enabled, and to
+   * limit the pages of {@link org.apache.ibatis.executor.pagination.KeysetRowBounds keyset paging}.
+   *
+   * @return the dialect, or {@code null} if no dialect is found
+   *
+   * @since 3.5.15
+   */
+  public Dialect getPagingDialect() {
+    return pagingDialect != null ? pagingDialect : dialectRegistry.getDialect(databaseId);
+  }
+
+  /**
+   * Sets the dialect used for physical paging, instead of looking it up by database id.
+   *
+   * @param pagingDialect
+   *          the dialect, or {@code null} to look it up by database id
+   *
+   * @since 3.5.15
+   */
+  public void setPagingDialect(Dialect pagingDialect) {
+    this.pagingDialect = pagingDialect;
+  }
+
+  /**
+   * Gets the dialects used for physical paging by database id.
+   *
+   * @return the dialect registry
+   *
+   * @since 3.5.15
+   */
+  public DialectRegistry getDialectRegistry() {
+    return dialectRegistry;
+  }
+
+  /**
+   * Gets how long the results of {@link #getCountStatement(String) count statements} stay in the second level cache.
+   *
+   * @return the time to live in milliseconds, or {@code null} if counts are evicted like any other result
+   *
+   * @since 3.5.15
+   */
+  public Long getCountCacheTtl() {
+    return countCacheTtl;
+  }
+
+  /**
+   * Sets how long the results of {@link #getCountStatement(String) count statements} stay in the second level cache of
+   * their namespace. Counts are cached like the results of the select they are derived from, and are also evicted when
+   * the cache is flushed.
+   *
+   * @param countCacheTtl
+   *          the time to live in milliseconds, or {@code null} to evict counts like any other result
+   *
+   * @since 3.5.15
+   */
+  public void setCountCacheTtl(Long countCacheTtl) {
+    this.countCacheTtl = countCacheTtl;
+  }
+
+  /**
+   * Gets the strategy choosing the shard of statements that do not declare their own.
+   *
+   * @return the default sharding strategy, or {@code null} if these statements run on every shard when selecting
+   *
+   * @see org.apache.ibatis.session.sharding.ShardedSqlSessionFactory
+   *
+   * @since 3.5.15
+   */
+  public ShardingStrategy getDefaultShardingStrategy() {
+    return defaultShardingStrategy;
+  }
+
+  /**
+   * Sets the strategy choosing the shard of statements that do not declare their own. It is only used by sessions
+   * opened from a {@link org.apache.ibatis.session.sharding.ShardedSqlSessionFactory}.
+   *
+   * @param defaultShardingStrategy
+   *          the default sharding strategy
+   *
+   * @since 3.5.15
+   */
+  public void setDefaultShardingStrategy(ShardingStrategy defaultShardingStrategy) {
+    this.defaultShardingStrategy = defaultShardingStrategy;
+  }
+
   public ObjectFactory getObjectFactory() {
     return objectFactory;
   }
@@ -832,6 +1189,32 @@ public class Configuration {
     caches.put(cache.getId(), cache);
   }
 
+  /**
+   * Records how a cache was built, so that it can be built again from a mapping snapshot.
+   *
+   * @param cacheBuilder
+   *          the builder of a cache added through {@link #addCache(Cache)}
+   *
+   * @since 3.5.15
+   */
+  public void addCacheBuilder(CacheBuilder cacheBuilder) {
+    cacheBuilders.put(cacheBuilder.getId(), cacheBuilder);
+  }
+
+  /**
+   * Gets the builder a cache was built with.
+   *
+   * @param id
+   *          the cache id
+   *
+   * @return the cache builder, or {@code null} when the cache was not built by MyBatis
+   *
+   * @since 3.5.15
+   */
+  public CacheBuilder getCacheBuilder(String id) {
+    return cacheBuilders.get(id);
+  }
+
   public Collection<String> getCacheNames() {
     return caches.keySet();
   }
@@ -904,6 +1287,32 @@ public class Configuration {
     return mappedStatements.values();
   }
 
+  /**
+   * Builds the mapper method invokers, reflectors, OGNL expressions and parameter binders of all statements ahead of
+   * their first use.
+   *
+   * @return the warm-up report
+   *
+   * @since 3.5.15
+   */
+  public ConfigurationWarmUp.Report warmUp() {
+    return new ConfigurationWarmUp(this).run();
+  }
+
+  /**
+   * Same as {@link #warmUp()}, spreading the work over the given executor service.
+   *
+   * @param executorService
+   *          the executor service
+   *
+   * @return the warm-up report
+   *
+   * @since 3.5.15
+   */
+  public ConfigurationWarmUp.Report warmUp(ExecutorService executorService) {
+    return new ConfigurationWarmUp(this).run(executorService);
+  }
+
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
     return incompleteStatements;
   }
@@ -944,9 +1353,54 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
+    if (id != null && id.endsWith(CountSqlSource.COUNT_SUFFIX) && !mappedStatements.containsKey(id)) {
+      // 计数语句在第一次使用时由原查询语句派生
+      return getCountStatement(id.substring(0, id.length() - CountSqlSource.COUNT_SUFFIX.length()));
+    }
     return mappedStatements.get(id);
   }
 
+  /**
+   * Gets the statement counting the rows returned by a select. The count statement is derived from the select with a
+   * {@link CountSqlSource}, binds the same parameters and shares the cache of the select. Its id is the id of the
+   * select followed by {@link CountSqlSource#COUNT_SUFFIX}, and {@link #getMappedStatement(String)} resolves that id to
+   * the count statement, so it can be run like any other select.
+   *
+   * @param id
+   *          the id of the select
+   *
+   * @return the count statement
+   *
+   * @throws IllegalArgumentException
+   *           if there is no such statement, or if it is not a select returning a single result set
+   *
+   * @since 3.5.15
+   */
+  public MappedStatement getCountStatement(String id) {
+    MappedStatement countStatement = countStatements.get(id);
+    if (countStatement == null) {
+      countStatement = countStatements.computeIfAbsent(id, k -> createCountStatement(getMappedStatement(k)));
+    }
+    return countStatement;
+  }
+
+  private MappedStatement createCountStatement(MappedStatement ms) {
+    if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getStatementType() == StatementType.CALLABLE
+        || ms.getResultSets() != null) {
+      throw new IllegalArgumentException(
+          "Cannot derive a count statement from " + ms.getId() + ", it is not a select returning a single result set.");
+    }
+    String id = ms.getId() + CountSqlSource.COUNT_SUFFIX;
+    ResultMap resultMap = new ResultMap.Builder(this, id + "-Inline", Long.class, new ArrayList<>()).build();
+    // 计数语句与原语句共用二级缓存，因此原命名空间的更新语句同样会清空缓存的计数
+    return new MappedStatement.Builder(this, id, new CountSqlSource(this, ms.getSqlSource()), SqlCommandType.SELECT)
+        .resource(ms.getResource()).parameterMap(ms.getParameterMap())
+        .resultMaps(Collections.singletonList(resultMap)).statementType(ms.getStatementType())
+        .timeout(ms.getTimeout()).databaseId(ms.getDatabaseId()).lang(ms.getLang()).cache(ms.getCache())
+        .useCache(ms.isUseCache()).flushCacheRequired(false).dirtySelect(ms.isDirtySelect())
+        .shardingStrategy(ms.getShardingStrategy()).build();
+  }
+
   public Map<String, XNode> getSqlFragments() {
     return sqlFragments;
   }
@@ -991,6 +1445,17 @@ public class Configuration {
     cacheRefMap.put(namespace, referencedNamespace);
   }
 
+  /**
+   * Gets the cache references declared so far, keyed by the namespace declaring them.
+   *
+   * @return the referenced namespace of each namespace using a cache-ref
+   *
+   * @since 3.5.15
+   */
+  public Map<String, String> getCacheRefs() {
+    return Collections.unmodifiableMap(cacheRefMap);
+  }
+
   /*
    * Parses all the unprocessed statement nodes in the cache. It is recommended to call this method once all the mappers
    * are added as it provides fail-fast statement validation.
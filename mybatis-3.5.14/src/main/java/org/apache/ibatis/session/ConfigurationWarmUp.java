@@ -0,0 +1,231 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.binding.MapperProxyFactory;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.OgnlCache;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Builds the metadata MyBatis otherwise creates lazily on the first call of each statement: mapper method invokers,
+ * reflectors of the parameter and result types, parsed OGNL expressions of dynamic SQL and parameter binders of static
+ * SQL. Running it once after the configuration is complete moves that work out of the first requests.
+ * <p>
+ * Failures are counted and logged but do not stop the warm-up, the affected statements are built again when used.
+ *
+ * @since 3.5.15
+ *
+ * @see Configuration#warmUp()
+ */
+public class ConfigurationWarmUp {
+
+  private static final Log log = LogFactory.getLog(ConfigurationWarmUp.class);
+
+  private final Configuration configuration;
+  private final AtomicInteger mapperMethods = new AtomicInteger();
+  private final AtomicInteger statements = new AtomicInteger();
+  private final AtomicInteger resultMaps = new AtomicInteger();
+  private final AtomicInteger expressions = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+
+  public ConfigurationWarmUp(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Runs the warm-up in the calling thread.
+   *
+   * @return the report
+   */
+  public Report run() {
+    return run(null);
+  }
+
+  /**
+   * Runs the warm-up, spreading mappers and statements over the given executor service.
+   *
+   * @param executorService
+   *          the executor service, the calling thread is used when {@code null}
+   *
+   * @return the report
+   */
+  public Report run(ExecutorService executorService) {
+    long start = System.nanoTime();
+    // getMappedStatements() 会先完成所有未解析的语句，必须在并行任务之前调用
+    // 短名称冲突时 StrictMap 中存放的是 Ambiguity 占位对象，需要按类型过滤
+    Set<MappedStatement> uniqueStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object item : configuration.getMappedStatements()) {
+      if (item instanceof MappedStatement) {
+        uniqueStatements.add((MappedStatement) item);
+      }
+    }
+    Set<ResultMap> uniqueResultMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object item : configuration.getResultMaps()) {
+      if (item instanceof ResultMap) {
+        uniqueResultMaps.add((ResultMap) item);
+      }
+    }
+
+    List<Runnable> tasks = new ArrayList<>();
+    for (MapperProxyFactory<?> factory : configuration.getMapperRegistry().getMapperProxyFactories()) {
+      tasks.add(() -> mapperMethods.addAndGet(factory.warmUp(configuration)));
+    }
+    for (MappedStatement ms : uniqueStatements) {
+      tasks.add(() -> warmUp(ms));
+    }
+    for (ResultMap resultMap : uniqueResultMaps) {
+      tasks.add(() -> warmUp(resultMap));
+    }
+    if (executorService == null) {
+      tasks.forEach(this::runSafely);
+    } else {
+      CompletableFuture<?>[] futures = tasks.stream()
+          .map(task -> CompletableFuture.runAsync(() -> runSafely(task), executorService))
+          .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).join();
+    }
+
+    Report report = new Report(mapperMethods.get(), statements.get(), resultMaps.get(), expressions.get(),
+        failures.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    if (log.isDebugEnabled()) {
+      log.debug("Warmed up configuration: " + report);
+    }
+    return report;
+  }
+
+  private void runSafely(Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      failures.incrementAndGet();
+      if (log.isDebugEnabled()) {
+        log.debug("Warm-up task failed. Cause: " + e);
+      }
+    }
+  }
+
+  private void warmUp(MappedStatement ms) {
+    Class<?> parameterType = ms.getParameterMap().getType();
+    if (isBean(parameterType)) {
+      configuration.getReflectorFactory().findForClass(parameterType);
+    }
+    SqlSource sqlSource = ms.getSqlSource();
+    if (sqlSource instanceof DynamicSqlSource) {
+      ((DynamicSqlSource) sqlSource).collectExpressions(expression -> {
+        OgnlCache.parse(expression);
+        expressions.incrementAndGet();
+      });
+    } else if ((sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource)
+        && isConcreteBean(parameterType)) {
+      // 静态 SQL 的参数映射固定，可以按声明的参数类型提前编译参数绑定器
+      BoundSql boundSql = ms.getBoundSql(null);
+      ms.getParameterBinder(parameterType,
+          type -> ParameterBinder.compile(configuration, type, boundSql.getParameterMappings()));
+    }
+    statements.incrementAndGet();
+  }
+
+  private void warmUp(ResultMap resultMap) {
+    Class<?> type = resultMap.getType();
+    if (isBean(type)) {
+      configuration.getReflectorFactory().findForClass(type);
+    }
+    resultMaps.incrementAndGet();
+  }
+
+  private boolean isBean(Class<?> type) {
+    TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    return type != null && type != Object.class && !type.isInterface() && !type.isArray()
+        && !typeHandlerRegistry.hasTypeHandler(type);
+  }
+
+  private boolean isConcreteBean(Class<?> type) {
+    return isBean(type) && !Modifier.isAbstract(type.getModifiers());
+  }
+
+  /**
+   * What a warm-up has built.
+   */
+  public static class Report {
+
+    private final int mapperMethods;
+    private final int statements;
+    private final int resultMaps;
+    private final int expressions;
+    private final int failures;
+    private final long elapsedMillis;
+
+    Report(int mapperMethods, int statements, int resultMaps, int expressions, int failures, long elapsedMillis) {
+      this.mapperMethods = mapperMethods;
+      this.statements = statements;
+      this.resultMaps = resultMaps;
+      this.expressions = expressions;
+      this.failures = failures;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getMapperMethods() {
+      return mapperMethods;
+    }
+
+    public int getStatements() {
+      return statements;
+    }
+
+    public int getResultMaps() {
+      return resultMaps;
+    }
+
+    public int getExpressions() {
+      return expressions;
+    }
+
+    public int getFailures() {
+      return failures;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "mapperMethods=" + mapperMethods + ", statements=" + statements + ", resultMaps=" + resultMaps
+          + ", expressions=" + expressions + ", failures=" + failures + ", elapsed=" + elapsedMillis + "ms";
+    }
+  }
+}
@@ -26,15 +26,47 @@ public class RowBounds {
 
   private final int offset;
   private final int limit;
+  private final Integer fetchSize;
 
   public RowBounds() {
-    this.offset = NO_ROW_OFFSET;
-    this.limit = NO_ROW_LIMIT;
+    this(NO_ROW_OFFSET, NO_ROW_LIMIT);
   }
 
   public RowBounds(int offset, int limit) {
+    this(offset, limit, null);
+  }
+
+  /**
+   * Instantiates a new row bounds carrying a per-call fetch size hint.
+   *
+   * @param offset
+   *          the offset
+   * @param limit
+   *          the limit
+   * @param fetchSize
+   *          the fetch size hint passed to the driver, overrides the statement and default fetch size when not
+   *          {@code null}
+   *
+   * @since 3.5.15
+   */
+  public RowBounds(int offset, int limit, Integer fetchSize) {
     this.offset = offset;
     this.limit = limit;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Creates a row bounds without offset and limit that only carries a fetch size hint.
+   *
+   * @param fetchSize
+   *          the fetch size hint
+   *
+   * @return the row bounds
+   *
+   * @since 3.5.15
+   */
+  public static RowBounds withFetchSize(int fetchSize) {
+    return new RowBounds(NO_ROW_OFFSET, NO_ROW_LIMIT, fetchSize);
   }
 
   public int getOffset() {
@@ -45,4 +77,15 @@ public class RowBounds {
     return limit;
   }
 
+  /**
+   * Gets the fetch size hint.
+   *
+   * @return the fetch size hint, or {@code null} when the statement or default fetch size should be used
+   *
+   * @since 3.5.15
+   */
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
 }
@@ -19,9 +19,15 @@ import java.io.Closeable;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.pagination.CountSqlSource;
 
 /**
  * The primary Java interface for working with MyBatis. Through this interface you can execute commands, get mappers and
@@ -199,6 +205,143 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * A Stream offers the same results as a Cursor, exposed as a lazily evaluated {@link Stream}. Closing the stream
+   * closes the underlying cursor and statement, which are otherwise closed when the stream is fully consumed or the
+   * session is closed.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   *
+   * @return Stream of mapped objects
+   *
+   * @since 3.5.15
+   */
+  default <T> Stream<T> selectStream(String statement) {
+    return selectStream(statement, null);
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, exposed as a lazily evaluated {@link Stream}.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return Stream of mapped objects
+   *
+   * @since 3.5.15
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter) {
+    return selectStream(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, exposed as a lazily evaluated {@link Stream}. A fetch size hint can
+   * be given per call through {@link RowBounds#getFetchSize()}.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit object retrieval
+   *
+   * @return Stream of mapped objects
+   *
+   * @since 3.5.15
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter, RowBounds rowBounds) {
+    Cursor<T> cursor = selectCursor(statement, parameter, rowBounds);
+    return cursor.stream();
+  }
+
+  /**
+   * A CursorPublisher offers the same results as a Cursor, fetched only as its subscriber requests them. The statement
+   * is executed on the given executor when the first items are requested, and is closed on completion or cancellation.
+   * This session must not be used until the publisher has terminated.
+   *
+   * @param <T>
+   *          the published element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param executor
+   *          The executor running the blocking database calls
+   *
+   * @return Publisher of mapped objects
+   *
+   * @since 3.5.15
+   */
+  default <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, Executor executor) {
+    return selectPublisher(statement, parameter, RowBounds.DEFAULT, executor);
+  }
+
+  /**
+   * A CursorPublisher offers the same results as a Cursor, fetched only as its subscriber requests them.
+   *
+   * @param <T>
+   *          the published element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit object retrieval
+   * @param executor
+   *          The executor running the blocking database calls
+   *
+   * @return Publisher of mapped objects
+   *
+   * @since 3.5.15
+   */
+  default <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds,
+      Executor executor) {
+    // the cursor is opened on the executor thread when the subscriber first requests items
+    return new DefaultCursorPublisher<>(() -> selectCursor(statement, parameter, rowBounds), executor);
+  }
+
+  /**
+   * Counts the rows a select would return, with a count query derived from the select. See
+   * {@link Configuration#getCountStatement(String)}.
+   *
+   * @param statement
+   *          Unique identifier matching the select to count the rows of.
+   *
+   * @return the number of rows
+   *
+   * @since 3.5.15
+   */
+  default long selectCount(String statement) {
+    return selectCount(statement, null);
+  }
+
+  /**
+   * Counts the rows a select would return with the given parameter, with a count query derived from the select. See
+   * {@link Configuration#getCountStatement(String)}.
+   *
+   * @param statement
+   *          Unique identifier matching the select to count the rows of.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return the number of rows
+   *
+   * @since 3.5.15
+   */
+  default long selectCount(String statement, Object parameter) {
+    Long count = selectOne(statement + CountSqlSource.COUNT_SUFFIX, parameter);
+    return count == null ? 0L : count;
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter using a {@code ResultHandler}.
    *
@@ -372,6 +515,24 @@ public interface SqlSession extends Closeable {
    */
   <T> T getMapper(Class<T> type);
 
+  /**
+   * Opens a session running a select concurrently with this one, for mapper methods returning a
+   * {@link java.util.concurrent.CompletableFuture}. The session is opened by the factory that opened this session, with
+   * the same executor type and transaction settings, but on a connection and in an auto-commit transaction of its own:
+   * it does not see the uncommitted changes of this session, and would wait for the locks they hold. Implementations
+   * should therefore refuse to open it while this session has uncommitted changes.
+   *
+   * @return a new auto-commit session, to be closed by the caller
+   *
+   * @throws PersistenceException
+   *           if this session has uncommitted changes, or cannot open sessions running concurrently with it
+   *
+   * @since 3.5.15
+   */
+  default SqlSession openAsyncSession() {
+    throw new PersistenceException(getClass().getName() + " does not support async selects.");
+  }
+
   /**
    * Retrieves inner database connection.
    *
@@ -24,8 +24,11 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -194,6 +197,42 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public <T> Stream<T> selectStream(String statement) {
+    return sqlSessionProxy.selectStream(statement);
+  }
+
+  @Override
+  public <T> Stream<T> selectStream(String statement, Object parameter) {
+    return sqlSessionProxy.selectStream(statement, parameter);
+  }
+
+  @Override
+  public <T> Stream<T> selectStream(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectStream(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, Executor executor) {
+    return sqlSessionProxy.selectPublisher(statement, parameter, executor);
+  }
+
+  @Override
+  public <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds,
+      Executor executor) {
+    return sqlSessionProxy.selectPublisher(statement, parameter, rowBounds, executor);
+  }
+
+  @Override
+  public long selectCount(String statement) {
+    return sqlSessionProxy.selectCount(statement);
+  }
+
+  @Override
+  public long selectCount(String statement, Object parameter) {
+    return sqlSessionProxy.selectCount(statement, parameter);
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
@@ -259,6 +298,16 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return getConfiguration().getMapper(type, this);
   }
 
+  @Override
+  public SqlSession openAsyncSession() {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      // each call outside a managed session already runs on a session of its own
+      return sqlSessionFactory.openSession(true);
+    }
+    return sqlSession.openAsyncSession();
+  }
+
   @Override
   public Connection getConnection() {
     final SqlSession sqlSession = localSqlSession.get();
@@ -22,10 +22,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.ErrorContext;
@@ -52,12 +54,35 @@ public class DefaultSqlSession implements SqlSession {
   private final boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
+  // 打开异步查询会话的方式，由创建本会话的工厂提供，为 null 时不支持异步查询
+  private final Supplier<SqlSession> asyncSessionSupplier;
 
   public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
+    this(configuration, executor, autoCommit, null);
+  }
+
+  /**
+   * Creates a session able to run async selects on the sessions returned by the given supplier.
+   *
+   * @param configuration
+   *          the configuration
+   * @param executor
+   *          the executor
+   * @param autoCommit
+   *          whether the session is in auto-commit mode
+   * @param asyncSessionSupplier
+   *          opens the auto-commit sessions of {@link #openAsyncSession()}, or {@code null} if async selects are not
+   *          supported
+   *
+   * @since 3.5.15
+   */
+  public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit,
+      Supplier<SqlSession> asyncSessionSupplier) {
     this.configuration = configuration;
     this.executor = executor;
     this.dirty = false;
     this.autoCommit = autoCommit;
+    this.asyncSessionSupplier = asyncSessionSupplier;
   }
 
   public DefaultSqlSession(Configuration configuration, Executor executor) {
@@ -305,6 +330,19 @@ public class DefaultSqlSession implements SqlSession {
     return configuration.getMapper(type, this);
   }
 
+  @Override
+  public SqlSession openAsyncSession() {
+    if (asyncSessionSupplier == null) {
+      throw new PersistenceException("This session cannot run async selects, it was not opened on a data source.");
+    }
+    // 异步查询在独立的连接和事务中执行，看不到本会话未提交的修改，还可能等待这些修改持有的锁
+    if (isCommitOrRollbackRequired(false)) {
+      throw new PersistenceException(
+          "Cannot run an async select while the session has uncommitted changes, commit or roll back first.");
+    }
+    return asyncSessionSupplier.get();
+  }
+
   @Override
   public Connection getConnection() {
     try {
@@ -27,6 +27,7 @@ import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.ReadWriteSplittingTransaction;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
@@ -98,10 +99,15 @@ public class DefaultSqlSessionFactory implements SqlSessionFactory {
       final TransactionFactory transactionFactory = getTransactionFactoryFromEnvironment(environment);
       // 通过事务工厂将事务创建出来
       tx = transactionFactory.newTransaction(environment.getDataSource(), level, autoCommit);
+      // 配置了只读副本时，自动提交会话写入之前的查询都路由到副本；事务内的读取必须与写入一致，始终使用主库
+      if (environment.getReplicas() != null && autoCommit) {
+        tx = new ReadWriteSplittingTransaction(tx, environment.getReplicas());
+      }
       // 根据我们指定的执行器类型将执行器创建出来
       final Executor executor = configuration.newExecutor(tx, execType);
-      // 创建默认的SQL会话
-      return new DefaultSqlSession(configuration, executor, autoCommit);
+      // 创建默认的SQL会话，异步查询会话由本工厂以相同的执行器类型和隔离级别打开
+      return new DefaultSqlSession(configuration, executor, autoCommit,
+          () -> openSessionFromDataSource(execType, level, true));
     } catch (Exception e) {
       // 如果发生异常需要关闭事务
       closeTransaction(tx); // may have fetched a connection so lets call close()
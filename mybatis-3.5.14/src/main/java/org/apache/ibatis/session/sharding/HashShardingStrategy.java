@@ -0,0 +1,130 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Strategy spreading shard keys over the shards by their hash code. The shard key is the parameter itself when it is a
+ * simple value such as a number or a string, or else the {@code shardKey} property of the parameter. Subclasses can
+ * read another property by passing its name to {@link #HashShardingStrategy(String)}.
+ * <p>
+ * Keys are hashed with a function that does not change between JVM runs or versions, so a key always goes to the same
+ * shard: strings by {@link String#hashCode()}, enums by their name, integral numbers as {@code long} values (so that
+ * an {@code Integer} and a {@code Long} key with the same value go to the same shard), {@link BigDecimal} keys by
+ * their plain string without trailing zeros, and characters, booleans and {@link UUID} keys by their value. Other key
+ * types are rejected with a {@link ShardingException}, unless a subclass overrides {@link #hash(Object)}. Adding a
+ * shard moves most keys to another shard.
+ *
+ * @since 3.5.15
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+  public static final String DEFAULT_SHARD_KEY = "shardKey";
+
+  private final String shardKey;
+
+  public HashShardingStrategy() {
+    this(DEFAULT_SHARD_KEY);
+  }
+
+  public HashShardingStrategy(String shardKey) {
+    this.shardKey = shardKey;
+  }
+
+  public String getShardKey() {
+    return shardKey;
+  }
+
+  @Override
+  public String getShard(MappedStatement ms, Object parameter, List<String> shardIds) {
+    Object key = resolveShardKey(ms.getConfiguration(), parameter);
+    if (key == null) {
+      return null;
+    }
+    return shardIds.get(Math.floorMod(hash(key), shardIds.size()));
+  }
+
+  /**
+   * Gets the shard key from the parameter.
+   *
+   * @param configuration
+   *          the configuration
+   * @param parameter
+   *          the parameter passed to the session
+   *
+   * @return the shard key, or {@code null} if the parameter has none
+   */
+  protected Object resolveShardKey(Configuration configuration, Object parameter) {
+    if (parameter == null || parameter instanceof Collection || parameter.getClass().isArray()) {
+      return null;
+    }
+    if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+      return parameter;
+    }
+    MetaObject metaObject = configuration.newMetaObject(parameter);
+    return metaObject.hasGetter(shardKey) ? metaObject.getValue(shardKey) : null;
+  }
+
+  /**
+   * Hashes a shard key. The hash must not depend on the JVM run, so that a key always goes to the same shard.
+   *
+   * @param key
+   *          the shard key, not {@code null}
+   *
+   * @return the hash of the key
+   *
+   * @throws ShardingException
+   *           if the key has a type without a stable hash
+   */
+  protected int hash(Object key) {
+    if (key instanceof String) {
+      return key.hashCode();
+    }
+    if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+      return Long.hashCode(((Number) key).longValue());
+    }
+    if (key instanceof BigInteger) {
+      BigInteger value = (BigInteger) key;
+      return value.bitLength() < Long.SIZE ? Long.hashCode(value.longValue()) : value.toString().hashCode();
+    }
+    if (key instanceof BigDecimal) {
+      // 1.0 and 1.00 are the same key
+      return ((BigDecimal) key).stripTrailingZeros().toPlainString().hashCode();
+    }
+    if (key instanceof Enum) {
+      return ((Enum<?>) key).name().hashCode();
+    }
+    if (key instanceof Character || key instanceof Boolean) {
+      return key.hashCode();
+    }
+    if (key instanceof UUID) {
+      return key.toString().hashCode();
+    }
+    throw new ShardingException("Unsupported shard key type " + key.getClass().getName()
+        + ". Use a string, integral number, BigDecimal, enum, character, boolean or UUID key,"
+        + " or override hash(Object).");
+  }
+
+}
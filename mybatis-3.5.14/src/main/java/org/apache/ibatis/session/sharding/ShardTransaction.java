@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * {@link Transaction} on the data source of one shard. The shard id keeps the results of a shard apart from the
+ * results of the other shards in the second level cache.
+ *
+ * @since 3.5.15
+ */
+public class ShardTransaction implements Transaction {
+
+  private final String shardId;
+  private final Transaction delegate;
+
+  public ShardTransaction(String shardId, Transaction delegate) {
+    this.shardId = shardId;
+    this.delegate = delegate;
+  }
+
+  public String getShardId() {
+    return shardId;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return delegate.getConnection();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    delegate.commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    delegate.rollback();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    delegate.close();
+  }
+
+  @Override
+  public Integer getTimeout() throws SQLException {
+    return delegate.getTimeout();
+  }
+
+}
@@ -0,0 +1,418 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
+import org.apache.ibatis.executor.result.DefaultMapResultHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+
+/**
+ * Session routing each statement to a shard. The shard is chosen by the {@link ShardingStrategy} of the statement, or
+ * else by the {@link Configuration#getDefaultShardingStrategy() default strategy}. A session is opened on a shard the
+ * first time a statement runs on it, and is kept until this session is closed.
+ * <p>
+ * When no shard is found for a select, it runs on every shard in parallel and the results are merged:
+ * <ul>
+ * <li>lists and maps are concatenated in shard order, without sorting them again.</li>
+ * <li>counts are added.</li>
+ * <li>a {@link ResultHandler} receives the results of one shard after the other.</li>
+ * </ul>
+ * Since the merged results are not sorted, a page of them would not be a page of the ordered query, so row bounds
+ * with an offset or a limit are rejected with a {@link ShardingException}; only their fetch size is applied. Cursors,
+ * paging and writes need a shard key. Commit, rollback and close apply to the session of every shard used, one after
+ * the other. Like {@link org.apache.ibatis.session.defaults.DefaultSqlSession}, this class is not thread-safe.
+ *
+ * @since 3.5.15
+ */
+public class ShardedSqlSession implements SqlSession {
+
+  private final ShardedSqlSessionFactory factory;
+  private final Configuration configuration;
+  private final ExecutorType execType;
+  private final TransactionIsolationLevel level;
+  private final boolean autoCommit;
+  private final Map<String, SqlSession> sessions = new LinkedHashMap<>();
+  private boolean dirty;
+
+  ShardedSqlSession(ShardedSqlSessionFactory factory, ExecutorType execType, TransactionIsolationLevel level,
+      boolean autoCommit) {
+    this.factory = factory;
+    this.configuration = factory.getConfiguration();
+    this.execType = execType;
+    this.level = level;
+    this.autoCommit = autoCommit;
+  }
+
+  /**
+   * Gets the session on a shard, opening it if needed.
+   *
+   * @param shardId
+   *          the shard id
+   *
+   * @return the session on the shard
+   */
+  public SqlSession getSession(String shardId) {
+    SqlSession session = sessions.get(shardId);
+    if (session == null) {
+      if (!factory.getShardIds().contains(shardId)) {
+        throw new ShardingException("Unknown shard '" + shardId + "', the shards are " + factory.getShardIds() + ".");
+      }
+      session = factory.openShardSession(shardId, execType, level, autoCommit);
+      sessions.put(shardId, session);
+    }
+    return session;
+  }
+
+  /**
+   * Gets the shard a statement runs on.
+   *
+   * @param statement
+   *          the statement id
+   * @param parameter
+   *          the parameter of the statement
+   *
+   * @return the shard id, or {@code null} if no shard is found
+   */
+  public String getShard(String statement, Object parameter) {
+    try {
+      MappedStatement ms = configuration.getMappedStatement(statement);
+      ShardingStrategy strategy = ms.getShardingStrategy() != null ? ms.getShardingStrategy()
+          : configuration.getDefaultShardingStrategy();
+      if (strategy == null) {
+        return null;
+      }
+      String shardId = strategy.getShard(ms, parameter, factory.getShardIds());
+      if (shardId != null && !factory.getShardIds().contains(shardId)) {
+        throw new ShardingException("Statement '" + statement + "' was routed to the unknown shard '" + shardId + "'.");
+      }
+      return shardId;
+    } catch (ShardingException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new ShardingException("Error routing statement '" + statement + "'.  Cause: " + e, e);
+    }
+  }
+
+  private String requireShard(String statement, Object parameter) {
+    String shardId = getShard(statement, parameter);
+    if (shardId == null) {
+      throw new ShardingException("No shard found for statement '" + statement
+          + "'. Only selects returning lists, maps or counts can run on every shard.");
+    }
+    return shardId;
+  }
+
+  @Override
+  public <T> T selectOne(String statement) {
+    return this.selectOne(statement, null);
+  }
+
+  @Override
+  public <T> T selectOne(String statement, Object parameter) {
+    List<T> list = this.selectList(statement, parameter);
+    if (list.size() == 1) {
+      return list.get(0);
+    }
+    if (list.size() > 1) {
+      throw new TooManyResultsException(
+          "Expected one result (or null) to be returned by selectOne(), but found: " + list.size());
+    }
+    return null;
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement) {
+    return this.selectList(statement, null);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter) {
+    return this.selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    String shardId = getShard(statement, parameter);
+    if (shardId != null) {
+      return getSession(shardId).selectList(statement, parameter, rowBounds);
+    }
+    checkScatterable(statement, rowBounds);
+    List<E> merged = new ArrayList<>();
+    for (List<E> results : this.<List<E>> scatter(session -> session.selectList(statement, parameter, rowBounds))) {
+      merged.addAll(results);
+    }
+    return merged;
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, String mapKey) {
+    return this.selectMap(statement, null, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey) {
+    return this.selectMap(statement, parameter, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    final List<? extends V> list = selectList(statement, parameter, rowBounds);
+    final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
+        configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
+    final DefaultResultContext<V> context = new DefaultResultContext<>();
+    for (V o : list) {
+      context.nextResultObject(o);
+      mapResultHandler.handleResult(context);
+    }
+    return mapResultHandler.getMappedResults();
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement) {
+    return selectCursor(statement, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+    return selectCursor(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    return getSession(requireShard(statement, parameter)).selectCursor(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public long selectCount(String statement) {
+    return selectCount(statement, null);
+  }
+
+  @Override
+  public long selectCount(String statement, Object parameter) {
+    String shardId = getShard(statement, parameter);
+    if (shardId != null) {
+      return getSession(shardId).selectCount(statement, parameter);
+    }
+    long count = 0;
+    for (Long shardCount : scatter(session -> session.selectCount(statement, parameter))) {
+      count += shardCount;
+    }
+    return count;
+  }
+
+  @Override
+  public void select(String statement, Object parameter, ResultHandler handler) {
+    select(statement, parameter, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(String statement, ResultHandler handler) {
+    select(statement, null, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    String shardId = getShard(statement, parameter);
+    if (shardId != null) {
+      getSession(shardId).select(statement, parameter, rowBounds, handler);
+      return;
+    }
+    checkScatterable(statement, rowBounds);
+    // the handler is not expected to be thread-safe, so the shards are queried one after the other
+    for (String id : factory.getShardIds()) {
+      getSession(id).select(statement, parameter, rowBounds, handler);
+    }
+  }
+
+  @Override
+  public int insert(String statement) {
+    return insert(statement, null);
+  }
+
+  @Override
+  public int insert(String statement, Object parameter) {
+    SqlSession session = getSession(requireShard(statement, parameter));
+    dirty = true;
+    return session.insert(statement, parameter);
+  }
+
+  @Override
+  public int update(String statement) {
+    return update(statement, null);
+  }
+
+  @Override
+  public int update(String statement, Object parameter) {
+    SqlSession session = getSession(requireShard(statement, parameter));
+    dirty = true;
+    return session.update(statement, parameter);
+  }
+
+  @Override
+  public int delete(String statement) {
+    return delete(statement, null);
+  }
+
+  @Override
+  public int delete(String statement, Object parameter) {
+    SqlSession session = getSession(requireShard(statement, parameter));
+    dirty = true;
+    return session.delete(statement, parameter);
+  }
+
+  @Override
+  public void commit() {
+    sessions.values().forEach(SqlSession::commit);
+    dirty = false;
+  }
+
+  @Override
+  public void commit(boolean force) {
+    sessions.values().forEach(session -> session.commit(force));
+    dirty = false;
+  }
+
+  @Override
+  public void rollback() {
+    sessions.values().forEach(SqlSession::rollback);
+    dirty = false;
+  }
+
+  @Override
+  public void rollback(boolean force) {
+    sessions.values().forEach(session -> session.rollback(force));
+    dirty = false;
+  }
+
+  @Override
+  public List<BatchResult> flushStatements() {
+    List<BatchResult> results = new ArrayList<>();
+    for (SqlSession session : sessions.values()) {
+      results.addAll(session.flushStatements());
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    RuntimeException failure = null;
+    for (SqlSession session : sessions.values()) {
+      try {
+        session.close();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    sessions.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    sessions.values().forEach(SqlSession::clearCache);
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  @Override
+  public <T> T getMapper(Class<T> type) {
+    return configuration.getMapper(type, this);
+  }
+
+  /**
+   * Opens a sharded session on the same factory, with the same executor type and isolation level, in auto-commit mode.
+   */
+  @Override
+  public ShardedSqlSession openAsyncSession() {
+    if (dirty && !autoCommit) {
+      throw new ShardingException(
+          "Cannot run an async select while the session has uncommitted changes, commit or roll back first.");
+    }
+    return new ShardedSqlSession(factory, execType, level, true);
+  }
+
+  /**
+   * Not supported, use the connection of the session on a shard returned by {@link #getSession(String)}.
+   */
+  @Override
+  public Connection getConnection() {
+    throw new ShardingException("A sharded session has no single connection, use getSession(shardId) instead.");
+  }
+
+  private static void checkScatterable(String statement, RowBounds rowBounds) {
+    if (rowBounds instanceof KeysetRowBounds) {
+      throw new ShardingException("No shard found for statement '" + statement
+          + "'. Keyset paging cannot be merged across shards.");
+    }
+    if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      throw new ShardingException("No shard found for statement '" + statement
+          + "'. Row bounds cannot be applied to results merged from several shards.");
+    }
+  }
+
+  private <T> List<T> scatter(Function<SqlSession, T> query) {
+    // sessions are opened in the calling thread, each one is then used by a single thread at a time
+    List<CompletableFuture<T>> futures = new ArrayList<>();
+    for (String shardId : factory.getShardIds()) {
+      SqlSession session = getSession(shardId);
+      futures.add(CompletableFuture.supplyAsync(() -> query.apply(session), factory.getScatterExecutor()));
+    }
+    // wait for every shard before failing, so that no session is still in use once this method returns
+    List<T> results = new ArrayList<>(futures.size());
+    RuntimeException failure = null;
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+              : new ShardingException("Error querying shards.  Cause: " + e.getCause(), e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+
+/**
+ * Factory of sessions on a cluster of databases sharing the same schema. Each statement is routed to one shard by its
+ * {@link ShardingStrategy}. Selects without a shard key run on every shard in parallel and their results are merged.
+ * <p>
+ * The shards use the transaction factory of the environment of the configuration, whose own data source is not used.
+ * A session commits or rolls back each shard on its own, there is no transaction spanning several shards.
+ *
+ * @see ShardedSqlSession
+ *
+ * @since 3.5.15
+ */
+public class ShardedSqlSessionFactory implements SqlSessionFactory {
+
+  private final Configuration configuration;
+  private final Map<String, DataSource> shards;
+  private final List<String> shardIds;
+  private final Executor scatterExecutor;
+
+  /**
+   * Creates a factory of sessions on the given shards.
+   *
+   * @param configuration
+   *          the configuration
+   * @param shards
+   *          the data source of each shard by shard id. The iteration order of the map is the order in which results
+   *          of the shards are merged.
+   * @param scatterExecutor
+   *          the executor running the queries sent to every shard
+   */
+  public ShardedSqlSessionFactory(Configuration configuration, Map<String, DataSource> shards,
+      Executor scatterExecutor) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    if (scatterExecutor == null) {
+      throw new IllegalArgumentException("An executor for the queries sent to every shard is required.");
+    }
+    this.configuration = configuration;
+    this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+    this.shardIds = Collections.unmodifiableList(new ArrayList<>(shards.keySet()));
+    this.scatterExecutor = scatterExecutor;
+  }
+
+  @Override
+  public ShardedSqlSession openSession() {
+    return openSession(configuration.getDefaultExecutorType(), null, false);
+  }
+
+  @Override
+  public ShardedSqlSession openSession(boolean autoCommit) {
+    return openSession(configuration.getDefaultExecutorType(), null, autoCommit);
+  }
+
+  @Override
+  public ShardedSqlSession openSession(ExecutorType execType) {
+    return openSession(execType, null, false);
+  }
+
+  @Override
+  public ShardedSqlSession openSession(TransactionIsolationLevel level) {
+    return openSession(configuration.getDefaultExecutorType(), level, false);
+  }
+
+  @Override
+  public ShardedSqlSession openSession(ExecutorType execType, TransactionIsolationLevel level) {
+    return openSession(execType, level, false);
+  }
+
+  @Override
+  public ShardedSqlSession openSession(ExecutorType execType, boolean autoCommit) {
+    return openSession(execType, null, autoCommit);
+  }
+
+  /**
+   * Not supported, the connections of a sharded session are opened on the data sources of the shards.
+   */
+  @Override
+  public SqlSession openSession(Connection connection) {
+    throw new ShardingException("A sharded session cannot be opened on a connection.");
+  }
+
+  /**
+   * Not supported, the connections of a sharded session are opened on the data sources of the shards.
+   */
+  @Override
+  public SqlSession openSession(ExecutorType execType, Connection connection) {
+    throw new ShardingException("A sharded session cannot be opened on a connection.");
+  }
+
+  private ShardedSqlSession openSession(ExecutorType execType, TransactionIsolationLevel level, boolean autoCommit) {
+    return new ShardedSqlSession(this, execType, level, autoCommit);
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Gets the ids of the shards.
+   *
+   * @return the shard ids, in the order results are merged
+   */
+  public List<String> getShardIds() {
+    return shardIds;
+  }
+
+  Executor getScatterExecutor() {
+    return scatterExecutor;
+  }
+
+  SqlSession openShardSession(String shardId, ExecutorType execType, TransactionIsolationLevel level,
+      boolean autoCommit) {
+    Transaction tx = null;
+    try {
+      final Environment environment = configuration.getEnvironment();
+      final TransactionFactory transactionFactory = getTransactionFactoryFromEnvironment(environment);
+      tx = new ShardTransaction(shardId, transactionFactory.newTransaction(shards.get(shardId), level, autoCommit));
+      return new DefaultSqlSession(configuration, configuration.newExecutor(tx, execType), autoCommit);
+    } catch (Exception e) {
+      closeTransaction(tx);
+      throw ExceptionFactory.wrapException("Error opening session on shard '" + shardId + "'.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
+  private TransactionFactory getTransactionFactoryFromEnvironment(Environment environment) {
+    if (environment == null || environment.getTransactionFactory() == null) {
+      return new ManagedTransactionFactory();
+    }
+    return environment.getTransactionFactory();
+  }
+
+  private void closeTransaction(Transaction tx) {
+    if (tx != null) {
+      try {
+        tx.close();
+      } catch (SQLException ignore) {
+        // Intentionally ignore. Prefer previous error.
+      }
+    }
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+
+/**
+ * Thrown when a statement cannot be routed to a shard.
+ *
+ * @since 3.5.15
+ */
+public class ShardingException extends PersistenceException {
+
+  private static final long serialVersionUID = 4379542101235376915L;
+
+  public ShardingException() {
+  }
+
+  public ShardingException(String message) {
+    super(message);
+  }
+
+  public ShardingException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public ShardingException(Throwable cause) {
+    super(cause);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Chooses the shard a statement runs on from its parameter. A strategy is set on a statement with the
+ * {@code shardingStrategy} attribute of its mapper XML element, or for all statements with the
+ * {@code defaultShardingStrategy} setting. Implementations need a public no-arg constructor to be declared in XML, and
+ * must be thread-safe.
+ *
+ * @see ShardedSqlSessionFactory
+ *
+ * @since 3.5.15
+ */
+public interface ShardingStrategy {
+
+  /**
+   * Gets the shard a statement runs on.
+   *
+   * @param ms
+   *          the statement
+   * @param parameter
+   *          the parameter passed to the session
+   * @param shardIds
+   *          the ids of all shards, in the order they were declared
+   *
+   * @return one of the shard ids, or {@code null} if the parameter has no shard key. Selects without a shard key run
+   *         on every shard, other statements fail.
+   */
+  String getShard(MappedStatement ms, Object parameter, List<String> shardIds);
+
+}
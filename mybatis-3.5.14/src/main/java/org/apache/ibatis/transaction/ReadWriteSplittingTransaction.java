@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.datasource.replica.ReplicaDataSources;
+
+/**
+ * {@link Transaction} sending reads to read replicas until the session writes. Writes, and any other use of
+ * {@link #getConnection()}, go to the wrapped transaction on the primary data source. Once the primary connection has
+ * been requested, reads are sent to the primary too, so that the session reads its own writes.
+ * <p>
+ * Only auto-commit sessions are split: reads in a transaction must see the same data as its writes, so transactional
+ * sessions use the primary for every statement. Selects that flush the cache or lock rows ({@code FOR UPDATE},
+ * {@code FOR SHARE}) are sent to the primary as well.
+ * <p>
+ * The replica connection is opened on the first read, is in auto-commit mode, and is kept until the transaction is
+ * closed. Reads fall back to the primary when no replica is available.
+ *
+ * @since 3.5.15
+ */
+public class ReadWriteSplittingTransaction implements Transaction {
+
+  private final Transaction primary;
+  private final ReplicaDataSources replicas;
+  private Connection replicaConnection;
+  private boolean written;
+
+  public ReadWriteSplittingTransaction(Transaction primary, ReplicaDataSources replicas) {
+    this.primary = primary;
+    this.replicas = replicas;
+  }
+
+  /**
+   * Gets the connection to the primary data source. From then on, reads also use this connection.
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    written = true;
+    return primary.getConnection();
+  }
+
+  /**
+   * Gets the connection to use for a read.
+   *
+   * @return a replica connection, or the primary connection if the session has written or no replica is available
+   *
+   * @throws SQLException
+   *           the SQL exception
+   */
+  public Connection getReadConnection() throws SQLException {
+    if (!written) {
+      if (replicaConnection == null) {
+        replicaConnection = replicas.getConnection();
+      }
+      if (replicaConnection != null) {
+        return replicaConnection;
+      }
+    }
+    return primary.getConnection();
+  }
+
+  /**
+   * Returns whether reads are still sent to the replicas.
+   *
+   * @return {@code false} once the primary connection has been requested
+   */
+  public boolean isReadingFromReplicas() {
+    return !written;
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    primary.commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    primary.rollback();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try {
+      if (replicaConnection != null) {
+        replicaConnection.close();
+        replicaConnection = null;
+      }
+    } finally {
+      primary.close();
+    }
+  }
+
+  @Override
+  public Integer getTimeout() throws SQLException {
+    return primary.getTimeout();
+  }
+
+}
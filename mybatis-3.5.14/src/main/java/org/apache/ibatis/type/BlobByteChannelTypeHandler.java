@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link ReadableByteChannel}. Like {@link BlobInputStreamTypeHandler}, the
+ * content is streamed from the driver as it is read instead of being copied to the heap, so the channel is only
+ * usable while the driver keeps the {@link Blob} valid, usually until the transaction ends.
+ *
+ * @since 3.5.15
+ */
+public class BlobByteChannelTypeHandler extends BaseTypeHandler<ReadableByteChannel> {
+
+  /**
+   * Set a {@link ReadableByteChannel} into {@link PreparedStatement}.
+   *
+   * @see PreparedStatement#setBlob(int, java.io.InputStream)
+   */
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ReadableByteChannel parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setBlob(i, Channels.newInputStream(parameter));
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column name from {@link ResultSet}.
+   *
+   * @see ResultSet#getBlob(String)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    return toChannel(rs.getBlob(columnName));
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column index from {@link ResultSet}.
+   *
+   * @see ResultSet#getBlob(int)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+    return toChannel(rs.getBlob(columnIndex));
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column index from {@link CallableStatement}.
+   *
+   * @see CallableStatement#getBlob(int)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+    return toChannel(cs.getBlob(columnIndex));
+  }
+
+  private ReadableByteChannel toChannel(Blob blob) throws SQLException {
+    if (blob == null) {
+      return null;
+    }
+    return Channels.newChannel(blob.getBinaryStream());
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link ByteBuffer}. Parameters are streamed from the remaining bytes of the buffer with
+ * their length, without copying them to a {@code byte[]} first; the position of the given buffer is not changed.
+ * Results are not streamed: the whole value is read with {@link ResultSet#getBytes(int)} and the returned buffer wraps
+ * that array. Use {@link BlobByteChannelTypeHandler} or {@link BlobInputStreamTypeHandler} to read large values on
+ * demand.
+ *
+ * @since 3.5.15
+ */
+public class ByteBufferTypeHandler extends BaseTypeHandler<ByteBuffer> {
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ByteBuffer parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setBinaryStream(i, toInputStream(parameter), parameter.remaining());
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    return wrap(rs.getBytes(columnName));
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+    return wrap(rs.getBytes(columnIndex));
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+    return wrap(cs.getBytes(columnIndex));
+  }
+
+  private static InputStream toInputStream(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    return new ByteBufferInputStream(buffer.duplicate());
+  }
+
+  private static ByteBuffer wrap(byte[] bytes) {
+    return bytes == null ? null : ByteBuffer.wrap(bytes);
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A type handler that can also move primitive values between JDBC and a property without boxing them. The primitive
+ * methods must behave like the boxed ones for non-null values. As with the JDBC getters, SQL NULL reads as {@code 0}
+ * or {@code false}, so callers check {@link ResultSet#wasNull()} when they need to tell the two apart.
+ *
+ * @param <T>
+ *          the boxed type
+ *
+ * @since 3.5.15
+ */
+public interface PrimitiveTypeHandler<T> extends TypeHandler<T> {
+
+  /**
+   * Returns whether the primitive methods of a handler can be used in place of its boxed methods. A subclass of a
+   * built-in handler inherits its primitive methods, which would bypass an overridden
+   * {@code setNonNullParameter} or {@code getNullableResult}, so such a handler keeps using the boxed methods.
+   *
+   * @param typeHandler
+   *          the type handler
+   *
+   * @return {@code true} if the primitive methods can be used
+   */
+  static boolean isUsable(TypeHandler<?> typeHandler) {
+    if (!(typeHandler instanceof PrimitiveTypeHandler)) {
+      return false;
+    }
+    Class<?> type = typeHandler.getClass();
+    if (type == IntegerTypeHandler.class || type == LongTypeHandler.class || type == DoubleTypeHandler.class
+        || type == BooleanTypeHandler.class) {
+      return true;
+    }
+    return !(typeHandler instanceof IntegerTypeHandler || typeHandler instanceof LongTypeHandler
+        || typeHandler instanceof DoubleTypeHandler || typeHandler instanceof BooleanTypeHandler);
+  }
+
+  /**
+   * A handler of {@code int} values.
+   */
+  interface OfInt extends PrimitiveTypeHandler<Integer> {
+
+    void setInt(PreparedStatement ps, int i, int parameter) throws SQLException;
+
+    int getInt(ResultSet rs, String columnName) throws SQLException;
+
+    int getInt(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+  /**
+   * A handler of {@code long} values.
+   */
+  interface OfLong extends PrimitiveTypeHandler<Long> {
+
+    void setLong(PreparedStatement ps, int i, long parameter) throws SQLException;
+
+    long getLong(ResultSet rs, String columnName) throws SQLException;
+
+    long getLong(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+  /**
+   * A handler of {@code double} values.
+   */
+  interface OfDouble extends PrimitiveTypeHandler<Double> {
+
+    void setDouble(PreparedStatement ps, int i, double parameter) throws SQLException;
+
+    double getDouble(ResultSet rs, String columnName) throws SQLException;
+
+    double getDouble(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+  /**
+   * A handler of {@code boolean} values.
+   */
+  interface OfBoolean extends PrimitiveTypeHandler<Boolean> {
+
+    void setBoolean(PreparedStatement ps, int i, boolean parameter) throws SQLException;
+
+    boolean getBoolean(ResultSet rs, String columnName) throws SQLException;
+
+    boolean getBoolean(ResultSet rs, int columnIndex) throws SQLException;
+  }
+}
@@ -22,6 +22,8 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -60,6 +62,14 @@ public final class TypeHandlerRegistry {
   private final Map<Class<?>, TypeHandler<?>> allTypeHandlersMap = new HashMap<>();
 
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
+  private static final Object NO_TYPE_HANDLER = new Object();
+  private static final int JDBC_TYPE_SLOTS = JdbcType.values().length + 1;
+
+  // Handlers already resolved for a java type, indexed by JDBC type ordinal + 1 (slot 0 for no JDBC type). The map is
+  // replaced rather than modified, so lookups on the query path read it without locking. Registering a handler drops
+  // it and it is rebuilt as types are looked up again.
+  private volatile Map<Type, Object[]> resolvedTypeHandlers = Collections.emptyMap();
+  private volatile int resolvedGeneration;
 
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
@@ -138,6 +148,8 @@ public final class TypeHandlerRegistry {
     register(JdbcType.NUMERIC, new BigDecimalTypeHandler());
 
     register(InputStream.class, new BlobInputStreamTypeHandler());
+    register(ReadableByteChannel.class, new BlobByteChannelTypeHandler());
+    register(ByteBuffer.class, new ByteBufferTypeHandler());
     register(Byte[].class, new ByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.BLOB, new BlobByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.LONGVARBINARY, new BlobByteObjectArrayTypeHandler());
@@ -192,6 +204,7 @@ public final class TypeHandlerRegistry {
    */
   public void setDefaultEnumTypeHandler(Class<? extends TypeHandler> typeHandler) {
     this.defaultEnumTypeHandler = typeHandler;
+    clearResolvedTypeHandlers();
   }
 
   public boolean hasTypeHandler(Class<?> javaType) {
@@ -239,6 +252,19 @@ public final class TypeHandlerRegistry {
     if (ParamMap.class.equals(type)) {
       return null;
     }
+    final int slot = jdbcType == null ? 0 : jdbcType.ordinal() + 1;
+    final Object[] handlers = resolvedTypeHandlers.get(type);
+    Object handler = handlers == null ? null : handlers[slot];
+    if (handler == null) {
+      final int generation = resolvedGeneration;
+      handler = resolveTypeHandler(type, jdbcType);
+      cacheResolvedTypeHandler(generation, type, slot, handler == null ? NO_TYPE_HANDLER : handler);
+    }
+    // type drives generics here
+    return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
     Map<JdbcType, TypeHandler<?>> jdbcHandlerMap = getJdbcHandlerMap(type);
     TypeHandler<?> handler = null;
     if (jdbcHandlerMap != null) {
@@ -251,8 +277,25 @@ public final class TypeHandlerRegistry {
         handler = pickSoleHandler(jdbcHandlerMap);
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handler;
+  }
+
+  private synchronized void cacheResolvedTypeHandler(int generation, Type type, int slot, Object handler) {
+    if (generation != resolvedGeneration) {
+      // a handler was registered while resolving, the result may already be stale
+      return;
+    }
+    Map<Type, Object[]> resolved = new HashMap<>(resolvedTypeHandlers);
+    Object[] handlers = resolved.get(type);
+    handlers = handlers == null ? new Object[JDBC_TYPE_SLOTS] : handlers.clone();
+    handlers[slot] = handler;
+    resolved.put(type, handlers);
+    resolvedTypeHandlers = resolved;
+  }
+
+  private synchronized void clearResolvedTypeHandlers() {
+    resolvedGeneration++;
+    resolvedTypeHandlers = Collections.emptyMap();
   }
 
   private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -273,6 +316,13 @@ public final class TypeHandlerRegistry {
         }
       } else {
         jdbcHandlerMap = getJdbcHandlerMapForSuperclass(clazz);
+        if (jdbcHandlerMap == null && ReadableByteChannel.class.isAssignableFrom(clazz)) {
+          // Handlers registered for an interface only apply to enums (see demoTypeHandlerForSuperInterface), and a
+          // general walk of the interfaces would change how every other parameter type resolves. Channels are the
+          // exception: Channels.newChannel and drivers return private classes that users cannot register or name in
+          // typeHandler=, so without this lookup the built-in BlobByteChannelTypeHandler could never be selected.
+          jdbcHandlerMap = typeHandlerMap.get(ReadableByteChannel.class);
+        }
       }
     }
     typeHandlerMap.put(type, jdbcHandlerMap == null ? NULL_TYPE_HANDLER_MAP : jdbcHandlerMap);
@@ -402,6 +452,7 @@ public final class TypeHandlerRegistry {
       }
       map.put(jdbcType, handler);
       typeHandlerMap.put(javaType, map);
+      clearResolvedTypeHandlers();
     }
     allTypeHandlersMap.put(handler.getClass(), handler);
   }
@@ -20,8 +20,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Supplier;
 
 import org.apache.ibatis.io.Resources;
@@ -107,18 +105,19 @@ public class UnknownTypeHandler extends BaseTypeHandler<Object> {
 
   private TypeHandler<?> resolveTypeHandler(ResultSet rs, String column) {
     try {
-      Map<String, Integer> columnIndexLookup;
-      columnIndexLookup = new HashMap<>();
       ResultSetMetaData rsmd = rs.getMetaData();
       int count = rsmd.getColumnCount();
       boolean useColumnLabel = config.isUseColumnLabel();
-      for (int i = 1; i <= count; i++) {
+      // the last column with that name wins, scanned backwards to stop at the first match
+      int columnIndex = 0;
+      for (int i = count; i >= 1 && columnIndex == 0; i--) {
         String name = useColumnLabel ? rsmd.getColumnLabel(i) : rsmd.getColumnName(i);
-        columnIndexLookup.put(name, i);
+        if (column.equals(name)) {
+          columnIndex = i;
+        }
       }
-      Integer columnIndex = columnIndexLookup.get(column);
       TypeHandler<?> handler = null;
-      if (columnIndex != null) {
+      if (columnIndex != 0) {
         handler = resolveTypeHandler(rsmd, columnIndex);
       }
       if (handler == null || handler instanceof UnknownTypeHandler) {
@@ -48,6 +48,7 @@ import org.apache.ibatis.domain.blog.mappers.NestedBlogMapper;
 import org.apache.ibatis.domain.jpetstore.Cart;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.pagination.OffsetFetchDialect;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
@@ -60,6 +61,7 @@ import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.sharding.HashShardingStrategy;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.EnumOrdinalTypeHandler;
@@ -109,8 +111,17 @@ class XmlConfigBuilderTest {
           .isInstanceOf(EnumTypeHandler.class);
       assertThat(config.isShrinkWhitespacesInSql()).isFalse();
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isFalse();
+      assertThat(config.getMapperSnapshot()).isNull();
       assertThat(config.getDefaultSqlProviderType()).isNull();
       assertThat(config.isNullableOnForEach()).isFalse();
+      assertThat(config.getBatchSelectSize()).isEqualTo(100);
+      assertThat(config.isUseMethodHandles()).isFalse();
+      assertThat(config.isParallelMapperParsing()).isFalse();
+      assertThat(config.isStatementMetricsEnabled()).isFalse();
+      assertThat(config.isPhysicalPagingEnabled()).isFalse();
+      assertThat(config.getPagingDialect()).isNull();
+      assertThat(config.getCountCacheTtl()).isNull();
+      assertThat(config.getDefaultShardingStrategy()).isNull();
     }
   }
 
@@ -217,6 +228,14 @@ class XmlConfigBuilderTest {
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isTrue();
       assertThat(config.getDefaultSqlProviderType().getName()).isEqualTo(MySqlProvider.class.getName());
       assertThat(config.isNullableOnForEach()).isTrue();
+      assertThat(config.getBatchSelectSize()).isEqualTo(50);
+      assertThat(config.isUseMethodHandles()).isTrue();
+      assertThat(config.isParallelMapperParsing()).isTrue();
+      assertThat(config.isStatementMetricsEnabled()).isTrue();
+      assertThat(config.isPhysicalPagingEnabled()).isTrue();
+      assertThat(config.getPagingDialect()).isInstanceOf(OffsetFetchDialect.class);
+      assertThat(config.getCountCacheTtl()).isEqualTo(60000L);
+      assertThat(config.getDefaultShardingStrategy()).isInstanceOf(HashShardingStrategy.class);
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
@@ -301,6 +320,27 @@ class XmlConfigBuilderTest {
         .hasMessageContaining("The setting foo is not known.  Make sure you spelled it correctly (case sensitive).");
   }
 
+  @Test
+  void parallelMapperParsingReportsMissingResource() {
+    // @formatter:off
+    final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"https://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"parallelMapperParsing\" value=\"true\"/>\n"
+            + "  </settings>\n"
+            + "  <mappers>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/MissingMapper.xml\"/>\n"
+            + "  </mappers>\n"
+            + "</configuration>\n";
+    // @formatter:on
+
+    XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(MAPPER_CONFIG));
+    when(builder::parse);
+    then(caughtException()).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("Could not find resource org/apache/ibatis/builder/MissingMapper.xml");
+  }
+
   @Test
   void unknownJavaTypeOnTypeHandler() {
     // @formatter:off
@@ -0,0 +1,216 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationSnapshotTest {
+
+  private Configuration original;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/MapperConfig.xml")) {
+      original = new XMLConfigBuilder(inputStream).parse();
+    }
+  }
+
+  @Test
+  void shouldRestoreMappingMetadata() throws Exception {
+    Configuration restored = newConfiguration();
+    assertTrue(ConfigurationSnapshot.read(restored, "mappers", new ByteArrayInputStream(write("mappers"))));
+
+    assertThat(restored.getMappedStatementNames()).containsExactlyInAnyOrderElementsOf(
+        original.getMappedStatementNames());
+    assertThat(restored.getResultMapNames()).containsExactlyInAnyOrderElementsOf(original.getResultMapNames());
+    assertThat(restored.getParameterMapNames()).containsExactlyInAnyOrderElementsOf(original.getParameterMapNames());
+    assertThat(restored.getCacheNames()).containsExactlyInAnyOrderElementsOf(original.getCacheNames());
+    assertThat(restored.getMapperRegistry().getMappers())
+        .containsExactlyInAnyOrderElementsOf(original.getMapperRegistry().getMappers());
+    assertThat(restored.getLoadedResources()).containsExactlyInAnyOrderElementsOf(original.getLoadedResources());
+
+    for (String id : original.getMappedStatementNames()) {
+      if (id.contains(".")) {
+        assertStatement(original.getMappedStatement(id), restored.getMappedStatement(id));
+      }
+    }
+    for (String id : original.getResultMapNames()) {
+      if (id.contains(".")) {
+        assertResultMap(original.getResultMap(id), restored.getResultMap(id));
+      }
+    }
+  }
+
+  @Test
+  void shouldRenderDynamicSqlLikeTheOriginal() throws Exception {
+    Configuration restored = newConfiguration();
+    assertTrue(ConfigurationSnapshot.read(restored, null, new ByteArrayInputStream(write(null))));
+
+    String id = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.updateAuthorIfNecessary";
+    assertThat(restored.getMappedStatement(id).getSqlSource()).isInstanceOf(DynamicSqlSource.class);
+    Author author = new Author(101, "jim", null, "jim@ibatis.apache.org", null, null);
+    BoundSql expected = original.getMappedStatement(id).getBoundSql(author);
+    BoundSql actual = restored.getMappedStatement(id).getBoundSql(author);
+    assertEquals(expected.getSql(), actual.getSql());
+    assertEquals(properties(expected.getParameterMappings()), properties(actual.getParameterMappings()));
+  }
+
+  @Test
+  void shouldRejectSnapshotOfOtherSources() throws Exception {
+    Configuration restored = newConfiguration();
+    assertFalse(ConfigurationSnapshot.read(restored, "other", new ByteArrayInputStream(write("mappers"))));
+    assertThat(restored.getMappedStatementNames()).isEmpty();
+  }
+
+  @Test
+  void shouldRejectSnapshotWhenVariablesChange() throws Exception {
+    byte[] snapshot = write("mappers");
+    Configuration restored = newConfiguration();
+    restored.getVariables().setProperty("url", "jdbc:other");
+    assertFalse(ConfigurationSnapshot.read(restored, "mappers", new ByteArrayInputStream(snapshot)));
+  }
+
+  @Test
+  void shouldRestoreCacheRefs() throws Exception {
+    original.addCacheRef("org.apache.ibatis.builder.OtherMapper", "org.apache.ibatis.builder.CachedAuthorMapper");
+    Configuration restored = newConfiguration();
+    assertTrue(ConfigurationSnapshot.read(restored, null, new ByteArrayInputStream(write(null))));
+    assertEquals(original.getCacheRefs(), restored.getCacheRefs());
+  }
+
+  @Test
+  void shouldCheckTheClassesTheMetadataRefersTo() throws Exception {
+    SnapshotWriter writer = new SnapshotWriter(original);
+    writer.writeBody();
+    assertThat(writer.getClassNames()).contains(Author.class.getName(), Section.class.getName())
+        .doesNotContain(String.class.getName(), int.class.getName());
+
+    List<String> resources = Collections.emptyList();
+    String checksum = ConfigurationSnapshot.checksum(original, null, resources, Collections.emptyList());
+    assertNotEquals(checksum,
+        ConfigurationSnapshot.checksum(original, null, resources, Collections.singletonList(Author.class.getName())));
+    // a class that no longer exists makes the snapshot stale
+    assertNull(ConfigurationSnapshot.checksum(original, null, resources,
+        Collections.singletonList("org.apache.ibatis.domain.blog.Removed")));
+  }
+
+  @Test
+  void shouldRefuseCustomSqlSource() {
+    Configuration configuration = newConfiguration();
+    SqlSource sqlSource = parameterObject -> new BoundSql(configuration, "select 1", Collections.emptyList(), null);
+    configuration.addMappedStatement(
+        new MappedStatement.Builder(configuration, "custom", sqlSource, SqlCommandType.SELECT).build());
+    BuilderException e = assertThrows(BuilderException.class,
+        () -> ConfigurationSnapshot.write(configuration, null, new ByteArrayOutputStream()));
+    assertThat(e.getMessage()).startsWith("Cannot create a mapping snapshot");
+  }
+
+  private byte[] write(String sourceId) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ConfigurationSnapshot.write(original, sourceId, out);
+    return out.toByteArray();
+  }
+
+  private Configuration newConfiguration() {
+    Configuration configuration = new Configuration();
+    configuration.getVariables().putAll(original.getVariables());
+    return configuration;
+  }
+
+  private static void assertStatement(MappedStatement expected, MappedStatement actual) {
+    assertNotNull(actual);
+    assertEquals(expected.getSqlCommandType(), actual.getSqlCommandType());
+    assertEquals(expected.getStatementType(), actual.getStatementType());
+    assertEquals(expected.getTimeout(), actual.getTimeout());
+    assertEquals(expected.getFetchSize(), actual.getFetchSize());
+    assertEquals(expected.isUseCache(), actual.isUseCache());
+    assertEquals(expected.isFlushCacheRequired(), actual.isFlushCacheRequired());
+    assertEquals(expected.hasNestedResultMaps(), actual.hasNestedResultMaps());
+    assertEquals(expected.getKeyGenerator().getClass(), actual.getKeyGenerator().getClass());
+    assertEquals(expected.getLang().getClass(), actual.getLang().getClass());
+    assertEquals(expected.getCache() == null ? null : expected.getCache().getId(),
+        actual.getCache() == null ? null : actual.getCache().getId());
+    assertEquals(expected.getParameterMap().getId(), actual.getParameterMap().getId());
+    assertEquals(properties(expected.getParameterMap().getParameterMappings()),
+        properties(actual.getParameterMap().getParameterMappings()));
+    assertEquals(expected.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList()),
+        actual.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList()));
+    if (!(expected.getSqlSource() instanceof DynamicSqlSource)) {
+      BoundSql expectedSql = expected.getBoundSql(null);
+      BoundSql actualSql = actual.getBoundSql(null);
+      assertEquals(expectedSql.getSql(), actualSql.getSql());
+      assertEquals(properties(expectedSql.getParameterMappings()), properties(actualSql.getParameterMappings()));
+      if (expected.getSqlCommandType() != SqlCommandType.SELECT) {
+        assertEquals(typeHandlers(expectedSql.getParameterMappings()), typeHandlers(actualSql.getParameterMappings()));
+      }
+    }
+  }
+
+  private static void assertResultMap(ResultMap expected, ResultMap actual) {
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getAutoMapping(), actual.getAutoMapping());
+    assertEquals(expected.hasNestedResultMaps(), actual.hasNestedResultMaps());
+    assertEquals(expected.hasNestedQueries(), actual.hasNestedQueries());
+    assertEquals(expected.getMappedColumns(), actual.getMappedColumns());
+    assertEquals(expected.getMappedProperties(), actual.getMappedProperties());
+    assertEquals(expected.getResultMappings().toString(), actual.getResultMappings().toString());
+    assertEquals(expected.getConstructorResultMappings().toString(), actual.getConstructorResultMappings().toString());
+    assertEquals(expected.getDiscriminator() == null, actual.getDiscriminator() == null);
+    if (expected.getDiscriminator() != null) {
+      assertEquals(expected.getDiscriminator().getDiscriminatorMap(), actual.getDiscriminator().getDiscriminatorMap());
+    }
+  }
+
+  private static List<String> properties(List<ParameterMapping> parameterMappings) {
+    return parameterMappings.stream().map(ParameterMapping::getProperty).collect(Collectors.toList());
+  }
+
+  private static List<Class<?>> typeHandlers(List<ParameterMapping> parameterMappings) {
+    return parameterMappings.stream().map(mapping -> mapping.getTypeHandler().getClass())
+        .collect(Collectors.toList());
+  }
+
+}
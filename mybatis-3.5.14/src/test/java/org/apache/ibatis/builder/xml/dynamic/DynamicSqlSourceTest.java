@@ -361,6 +361,16 @@ class DynamicSqlSourceTest extends BaseDataTest {
     Assertions.assertEquals("id=", sql);
   }
 
+  @Test
+  void shouldCollectConditionsAndTextSubstitutions() {
+    final MixedSqlNode sqlNode = mixedContents(new TextSqlNode("SELECT * FROM ${table}"),
+        new IfSqlNode(mixedContents(new TextSqlNode("WHERE ID = #{id} ORDER BY ${orderBy}")), "id != null"));
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), sqlNode);
+    List<String> expressions = new ArrayList<>();
+    source.collectExpressions(expressions::add);
+    Assertions.assertEquals(Arrays.asList("table", "id != null", "orderBy"), expressions);
+  }
+
   public static class Bean {
     public String id;
 
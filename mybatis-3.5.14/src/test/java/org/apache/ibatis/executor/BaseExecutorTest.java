@@ -20,7 +20,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +41,8 @@ import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.domain.blog.Post;
 import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds.SortKey;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -606,6 +613,26 @@ class BaseExecutorTest extends BaseDataTest {
     assertEquals(expected, cacheKey);
   }
 
+  @Test
+  void testCreateCacheKeyWithKeysetRowBoundsIsSerializable() throws Exception {
+    MappedStatement mappedStatement = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).build();
+    BoundSql boundSql = new BoundSql(config, "some select statement", new ArrayList<>(), null);
+    KeysetRowBounds rowBounds = new KeysetRowBounds(10, null, Collections.singletonList(SortKey.desc("id")),
+        Collections.singletonList(5));
+
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    CacheKey cacheKey = executor.createCacheKey(mappedStatement, null, rowBounds, boundSql);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(cacheKey);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertEquals(cacheKey, in.readObject());
+    }
+  }
+
   protected Executor createExecutor(Transaction transaction) {
     return new SimpleExecutor(config, transaction);
   }
@@ -16,7 +16,10 @@
 package org.apache.ibatis.executor.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.Serializable;
@@ -77,4 +80,33 @@ class JavassistProxyTest extends SerializableProxyTest {
     assertNotEquals(author.getClass(), author2.getClass());
   }
 
+  @Test
+  void shouldReuseTheProxyClassOfAType() {
+    Configuration configuration = new Configuration();
+    Object proxy1 = proxyFactory.createProxy(author, new ResultLoaderMap(), configuration, new DefaultObjectFactory(),
+        new ArrayList<>(), new ArrayList<>());
+    Object proxy2 = proxyFactory.createProxyInstance(Author.class, new ResultLoaderMap(), configuration,
+        new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    assertSame(proxy1.getClass(), proxy2.getClass());
+    assertEquals(author, proxy1);
+    // created directly, without copying the properties of an existing object
+    assertNull(((Author) proxy2).getUsername());
+  }
+
+  @Test
+  void shouldTrackWhetherAllPropertiesAreLoaded() {
+    ResultLoaderMap loader = new ResultLoaderMap();
+    assertTrue(loader.isEmpty());
+    loader.addLoader("id", null, null);
+    loader.addLoader("username", null, null);
+    assertFalse(loader.isEmpty());
+    Author proxy = (Author) proxyFactory.createProxy(author, loader, new Configuration(), new DefaultObjectFactory(),
+        new ArrayList<>(), new ArrayList<>());
+    proxy.setId(1);
+    assertFalse(loader.isEmpty());
+    proxy.setUsername("jim");
+    assertTrue(loader.isEmpty());
+    assertEquals("jim", proxy.getUsername());
+  }
+
 }
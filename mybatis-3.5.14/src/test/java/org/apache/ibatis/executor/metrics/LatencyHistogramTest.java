@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldPlaceValuesInPowerOfTwoBuckets() {
+    assertEquals(0, LatencyHistogram.bucket(0));
+    assertEquals(0, LatencyHistogram.bucket(1024));
+    assertEquals(1, LatencyHistogram.bucket(1025));
+    assertEquals(1, LatencyHistogram.bucket(2048));
+    assertEquals(30, LatencyHistogram.bucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  void shouldEstimatePercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(1_000);
+    }
+    histogram.record(1_000_000);
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(100, snapshot.getCount());
+    assertEquals(1_000_000, snapshot.getMaxNanos());
+    assertEquals(10_990, snapshot.getMeanNanos());
+    assertEquals(1_024, snapshot.getMedianNanos());
+    assertEquals(1_024, snapshot.getP99Nanos());
+    assertEquals(1_000_000, snapshot.percentileNanos(100));
+  }
+
+  @Test
+  void shouldReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(5_000);
+    histogram.reset();
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0, snapshot.getMaxNanos());
+    assertEquals(0, snapshot.getMedianNanos());
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CountSqlSourceTest {
+
+  @Test
+  void shouldWrapQuery() {
+    assertThat(CountSqlSource.getCountSql("select * from users where id > ? ;"))
+        .isEqualTo("SELECT COUNT(*) FROM (select * from users where id > ?) COUNT_");
+  }
+
+  @Test
+  void shouldRemoveTrailingOrderBy() {
+    assertThat(CountSqlSource.removeOrderBy("select * from users order by name desc, id"))
+        .isEqualTo("select * from users");
+    assertThat(CountSqlSource.removeOrderBy("select * from users\n  ORDER\n BY id")).isEqualTo("select * from users");
+    assertThat(CountSqlSource.removeOrderBy("select a from t union select a from u order by 1"))
+        .isEqualTo("select a from t union select a from u");
+  }
+
+  @Test
+  void shouldKeepOrderByThatIsNotTrailingTheQuery() {
+    String nested = "select * from (select * from users order by id) u where u.name = 'x'";
+    assertThat(CountSqlSource.removeOrderBy(nested)).isEqualTo(nested);
+    String quoted = "select * from users where name = 'a order by b'";
+    assertThat(CountSqlSource.removeOrderBy(quoted)).isEqualTo(quoted);
+    String commented = "select * from users -- order by id\nwhere id > 1";
+    assertThat(CountSqlSource.removeOrderBy(commented)).isEqualTo(commented);
+    String column = "select sort_order, by_name from users";
+    assertThat(CountSqlSource.removeOrderBy(column)).isEqualTo(column);
+  }
+
+  @Test
+  void shouldKeepOrderByFollowedByLimit() {
+    String limit = "select * from users order by id limit 10";
+    assertThat(CountSqlSource.removeOrderBy(limit)).isEqualTo(limit);
+    String fetch = "select * from users order by id offset 5 rows fetch next 10 rows only";
+    assertThat(CountSqlSource.removeOrderBy(fetch)).isEqualTo(fetch);
+  }
+
+  @Test
+  void shouldBindSameParameters() {
+    Configuration configuration = new Configuration();
+    StaticSqlSource sqlSource = new StaticSqlSource(configuration, "select * from users where id = ? order by id",
+        Collections.emptyList());
+    BoundSql boundSql = new CountSqlSource(configuration, sqlSource).getBoundSql(1);
+    assertThat(boundSql.getSql()).isEqualTo("SELECT COUNT(*) FROM (select * from users where id = ?) COUNT_");
+    assertThat(boundSql.getParameterObject()).isEqualTo(1);
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class DialectTest {
+
+  private static final String SQL = "select * from users order by id";
+
+  @Test
+  void shouldAppendLimitAndOffset() {
+    Dialect dialect = new LimitOffsetDialect();
+    List<Object> parameters = new ArrayList<>();
+    assertThat(dialect.getPagedSql(SQL, 0, 10, parameters)).isEqualTo(SQL + " LIMIT ?");
+    assertThat(parameters).containsExactly(10);
+
+    parameters.clear();
+    assertThat(dialect.getPagedSql(SQL, 20, 10, parameters)).isEqualTo(SQL + " LIMIT ? OFFSET ?");
+    assertThat(parameters).containsExactly(10, 20);
+
+    parameters.clear();
+    assertThat(dialect.getPagedSql(SQL, 20, RowBounds.NO_ROW_LIMIT, parameters)).isEqualTo(SQL + " LIMIT ? OFFSET ?");
+    assertThat(parameters).containsExactly(Integer.MAX_VALUE, 20);
+  }
+
+  @Test
+  void shouldAppendOffsetAndFetch() {
+    Dialect dialect = new OffsetFetchDialect();
+    List<Object> parameters = new ArrayList<>();
+    assertThat(dialect.getPagedSql(SQL, 0, 10, parameters)).isEqualTo(SQL + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    assertThat(parameters).containsExactly(0, 10);
+
+    parameters.clear();
+    assertThat(dialect.getPagedSql(SQL, 20, RowBounds.NO_ROW_LIMIT, parameters)).isEqualTo(SQL + " OFFSET ? ROWS");
+    assertThat(parameters).containsExactly(20);
+  }
+
+  @Test
+  void shouldWrapWithRowNum() {
+    Dialect dialect = new RowNumDialect();
+    List<Object> parameters = new ArrayList<>();
+    assertThat(dialect.getPagedSql(SQL, 0, 10, parameters)).isEqualTo("SELECT * FROM (" + SQL + ") WHERE ROWNUM <= ?");
+    assertThat(parameters).containsExactly(10);
+
+    parameters.clear();
+    assertThat(dialect.getPagedSql(SQL, 20, 10, parameters)).isEqualTo(
+        "SELECT * FROM (SELECT ROW_.*, ROWNUM ROWNUM_ FROM (" + SQL + ") ROW_ WHERE ROWNUM <= ?) WHERE ROWNUM_ > ?");
+    assertThat(parameters).containsExactly(30L, 20);
+
+    parameters.clear();
+    assertThat(dialect.getPagedSql(SQL, 20, RowBounds.NO_ROW_LIMIT, parameters))
+        .isEqualTo("SELECT * FROM (SELECT ROW_.*, ROWNUM ROWNUM_ FROM (" + SQL + ") ROW_) WHERE ROWNUM_ > ?");
+    assertThat(parameters).containsExactly(20);
+
+    parameters.clear();
+    dialect.getPagedSql(SQL, Integer.MAX_VALUE - 1, 10, parameters);
+    assertThat(parameters).containsExactly(2147483656L, Integer.MAX_VALUE - 1);
+  }
+
+  @Test
+  void shouldRemoveStatementTerminator() {
+    assertThat(new LimitOffsetDialect().getPagedSql(SQL + " ;\n ", 0, 10, new ArrayList<>()))
+        .isEqualTo(SQL + " LIMIT ?");
+  }
+
+  @Test
+  void shouldRejectQueriesThatAreAlreadyPaged() {
+    for (Dialect dialect : Arrays.asList(new LimitOffsetDialect(), new OffsetFetchDialect(), new RowNumDialect())) {
+      assertThatThrownBy(() -> dialect.getPagedSql(SQL + " limit 5", 0, 10, new ArrayList<>()))
+          .isInstanceOf(ExecutorException.class).hasMessageContaining("LIMIT");
+      assertThatThrownBy(() -> dialect.getPagedSql(SQL + " fetch first 5 rows only", 0, 10, new ArrayList<>()))
+          .isInstanceOf(ExecutorException.class).hasMessageContaining("FETCH");
+      assertThat(dialect.isPageable(SQL + " limit 5")).isFalse();
+      assertThat(dialect.isPageable(SQL + " fetch first 5 rows only")).isFalse();
+      assertThat(dialect.isPageable(SQL + ";")).isTrue();
+    }
+    // clauses of subqueries, literals and quoted identifiers are not the query's own
+    String nested = "select * from (select * from users limit 5) u where u.name <> 'limit' order by \"offset\"";
+    assertThat(new LimitOffsetDialect().getPagedSql(nested, 0, 10, new ArrayList<>())).isEqualTo(nested + " LIMIT ?");
+  }
+
+  @Test
+  void shouldRejectQueriesLockingRows() {
+    for (Dialect dialect : Arrays.asList(new LimitOffsetDialect(), new OffsetFetchDialect(), new RowNumDialect())) {
+      assertThatThrownBy(() -> dialect.getPagedSql(SQL + " for update", 0, 10, new ArrayList<>()))
+          .isInstanceOf(ExecutorException.class).hasMessageContaining("FOR UPDATE");
+      assertThat(dialect.isPageable(SQL + " for update")).isFalse();
+    }
+  }
+
+  @Test
+  void shouldRequireOrderByForOffsetAndFetch() {
+    assertThatThrownBy(() -> new OffsetFetchDialect().getPagedSql("select * from users", 0, 10, new ArrayList<>()))
+        .isInstanceOf(ExecutorException.class).hasMessageContaining("ORDER BY");
+    assertThatThrownBy(() -> new OffsetFetchDialect()
+        .getPagedSql("select * from (select * from users order by id) u", 0, 10, new ArrayList<>()))
+        .isInstanceOf(ExecutorException.class).hasMessageContaining("ORDER BY");
+    assertThat(new OffsetFetchDialect().isPageable("select * from users")).isFalse();
+    // the other dialects page unordered queries, as RowBounds does in memory
+    assertThat(new LimitOffsetDialect().isPageable("select * from users")).isTrue();
+    assertThat(new LimitOffsetDialect().getPagedSql("select * from users", 0, 10, new ArrayList<>()))
+        .isEqualTo("select * from users LIMIT ?");
+  }
+
+  @Test
+  void shouldLookUpDialectByDatabaseIdIgnoringCase() {
+    DialectRegistry registry = new DialectRegistry();
+    assertThat(registry.getDialect("MySQL")).isInstanceOf(LimitOffsetDialect.class);
+    assertThat(registry.getDialect("Apache Derby")).isInstanceOf(OffsetFetchDialect.class);
+    assertThat(registry.getDialect("oracle")).isInstanceOf(RowNumDialect.class);
+    assertThat(registry.getDialect("unknown")).isNull();
+    assertThat(registry.getDialect(null)).isNull();
+
+    Dialect dialect = new OffsetFetchDialect();
+    registry.register("Oracle", dialect);
+    assertThat(registry.getDialect("oracle")).isSameAs(dialect);
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.ibatis.executor.pagination.KeysetRowBounds.SortKey;
+import org.junit.jupiter.api.Test;
+
+class KeysetRowBoundsTest {
+
+  private static final String SQL = "select * from users;";
+
+  @Test
+  void shouldOrderFirstPageBySortKeys() {
+    KeysetRowBounds bounds = new KeysetRowBounds(10, SortKey.asc("name"), SortKey.desc("id"));
+    assertThat(bounds.isFirstPage()).isTrue();
+    assertThat(bounds.getSeekSql(SQL))
+        .isEqualTo("SELECT * FROM (select * from users) KEYSET_ ORDER BY name ASC, id DESC");
+    assertThat(bounds.getSeekParameters()).isEmpty();
+    assertThat(bounds.getContinuationToken()).isNull();
+  }
+
+  @Test
+  void shouldSeekPastLastValues() {
+    KeysetRowBounds bounds = new KeysetRowBounds(10, null,
+        Arrays.asList(SortKey.asc("name"), SortKey.desc("score"), SortKey.asc("id")), Arrays.asList("b", 7, 3));
+    assertThat(bounds.getSeekSql(SQL)).isEqualTo("SELECT * FROM (select * from users) KEYSET_"
+        + " WHERE (name > ?) OR (name = ? AND score < ?) OR (name = ? AND score = ? AND id > ?)"
+        + " ORDER BY name ASC, score DESC, id ASC");
+    assertThat(bounds.getSeekParameters()).containsExactly("b", "b", 7, "b", 7, 3);
+  }
+
+  @Test
+  void shouldComputeNextPageFromLastResult() {
+    Map<String, Object> first = new HashMap<>();
+    first.put("id", 1);
+    Map<String, Object> last = new HashMap<>();
+    last.put("id", 2);
+    KeysetRowBounds bounds = new KeysetRowBounds(2, SortKey.asc("ID", "id"));
+    assertThat(bounds.next(Arrays.asList(first, last)).getAfterValues()).containsExactly(2);
+    assertThat(bounds.next(Collections.singletonList(first))).isNull();
+    assertThatThrownBy(() -> bounds.next(Arrays.asList(first, new HashMap<>())))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldRoundTripContinuationToken() {
+    SortKey[] sortKeys = { SortKey.asc("a"), SortKey.asc("b"), SortKey.asc("c"), SortKey.asc("d"),
+        SortKey.asc("e"), SortKey.asc("f") };
+    Timestamp timestamp = Timestamp.valueOf("2023-04-05 06:07:08.123456789");
+    List<Object> values = Arrays.asList("text", 42L, new BigDecimal("12.50"), timestamp, LocalDate.of(2023, 4, 5),
+        UUID.fromString("0b4f4e8e-5d6a-4c1e-9a7a-2f0d8c1b3e5f"));
+    String token = new KeysetRowBounds(5, null, Arrays.asList(sortKeys), values).getContinuationToken();
+
+    assertThat(token).matches("[A-Za-z0-9_-]+");
+    KeysetRowBounds resumed = KeysetRowBounds.fromContinuationToken(token, 5, sortKeys);
+    assertThat(resumed.getAfterValues()).isEqualTo(values);
+    assertThat(resumed.getSortKeys()).containsExactly(sortKeys);
+  }
+
+  @Test
+  void shouldRejectMalformedTokens() {
+    String token = new KeysetRowBounds(5, null, Collections.singletonList(SortKey.asc("id")),
+        Collections.singletonList(1)).getContinuationToken();
+    assertThatThrownBy(() -> KeysetRowBounds.fromContinuationToken("not a token", 5, SortKey.asc("id")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeysetRowBounds.fromContinuationToken(token.substring(0, token.length() - 2), 5,
+        SortKey.asc("id"))).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeysetRowBounds.fromContinuationToken(token, 5, SortKey.asc("id"), SortKey.asc("x")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRejectUnsupportedValues() {
+    KeysetRowBounds bounds = new KeysetRowBounds(5, null, Collections.singletonList(SortKey.asc("id")),
+        Collections.singletonList(new Object()));
+    assertThatThrownBy(bounds::getContinuationToken).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRejectColumnsThatAreNotIdentifiers() {
+    assertThatThrownBy(() -> SortKey.asc("id; drop table users")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SortKey.desc("id desc")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new KeysetRowBounds(0, SortKey.asc("id"))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+}
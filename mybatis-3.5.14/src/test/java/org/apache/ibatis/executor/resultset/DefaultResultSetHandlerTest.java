@@ -18,6 +18,8 @@ package org.apache.ibatis.executor.resultset;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -28,11 +30,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.misc.PrimitiveBean;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -46,6 +50,7 @@ import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnboxedIntTypeHandler;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -88,7 +93,8 @@ class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    // columns are read by index, the name is only used as the map key
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -102,6 +108,114 @@ class DefaultResultSetHandlerTest {
     assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
   }
 
+  @Test
+  void shouldReadColumnByNameWhenNotUsingColumnLabel() throws Exception {
+    final Configuration config = new Configuration();
+    config.setUseColumnLabel(false);
+    final MappedStatement ms = getMappedStatement(config);
+
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/* executor */, ms,
+        null/* parameterHandler */, null/* resultHandler */, null/* boundSql */, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnName(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+  }
+
+  @Test
+  void shouldResolveUnknownTypeHandlerOncePerColumn() throws Exception {
+    final Configuration config = new Configuration();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(new ResultMap.Builder(config, "testMap", HashMap.class,
+            Collections.singletonList(new ResultMapping.Builder(config, "value", "VALUE", Object.class).build()))
+            .build()))
+        .build();
+
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/* executor */, ms,
+        null/* parameterHandler */, null/* resultHandler */, null/* boundSql */, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(1).thenReturn(2);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("VALUE");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(1, ((HashMap) results.get(0)).get("value"));
+    assertEquals(2, ((HashMap) results.get(1)).get("value"));
+    // the metadata is only read when the result set is wrapped, not for every value
+    verify(rs, times(1)).getMetaData();
+    verify(rsmd, times(1)).getColumnClassName(1);
+  }
+
+  @Test
+  void shouldResolveUnknownTypeHandlerByExactNameAndLastDuplicateColumn() throws Exception {
+    final Configuration config = new Configuration();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(new ResultMap.Builder(config, "testMap", HashMap.class,
+            Arrays.asList(new ResultMapping.Builder(config, "value", "VALUE", Object.class).build(),
+                new ResultMapping.Builder(config, "other", "Other", Object.class).build()))
+            .build()))
+        .build();
+
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/* executor */, ms,
+        null/* parameterHandler */, null/* resultHandler */, null/* boundSql */, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rsmd.getColumnCount()).thenReturn(4);
+    when(rsmd.getColumnLabel(1)).thenReturn("VALUE");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("value");
+    when(rsmd.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(2)).thenReturn(Integer.class.getCanonicalName());
+    when(rsmd.getColumnLabel(3)).thenReturn("VALUE");
+    when(rsmd.getColumnType(3)).thenReturn(Types.BIGINT);
+    when(rsmd.getColumnClassName(3)).thenReturn(Long.class.getCanonicalName());
+    when(rsmd.getColumnLabel(4)).thenReturn("OTHER");
+    when(rsmd.getColumnType(4)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(4)).thenReturn(Integer.class.getCanonicalName());
+    // values are read from the first column matching the name, as JDBC does
+    when(rs.getLong(1)).thenReturn(7L);
+    when(rs.getObject(4)).thenReturn("eight");
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    // the handler comes from the last column named exactly "VALUE" (BIGINT), as UnknownTypeHandler resolves it
+    assertEquals(7L, ((HashMap) results.get(0)).get("value"));
+    // no column is named exactly "Other", so the value is read as an object
+    assertEquals("eight", ((HashMap) results.get(0)).get("other"));
+  }
+
   @Test
   void shouldThrowExceptionWithColumnName() throws Exception {
     final MappedStatement ms = getMappedStatement();
@@ -130,8 +244,50 @@ class DefaultResultSetHandlerTest {
     }
   }
 
-  MappedStatement getMappedStatement() {
+  @Test
+  void shouldAutoMapPrimitivePropertiesWithoutBoxing() throws Exception {
     final Configuration config = new Configuration();
+    config.setUseMethodHandles(true);
+    config.getTypeHandlerRegistry().register(int.class, new UnboxedIntTypeHandler());
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(
+            new ResultMap.Builder(config, "testMap", PrimitiveBean.class, new ArrayList<>()).build()))
+        .build();
+
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/* executor */, ms,
+        null/* parameterHandler */, null/* resultHandler */, null/* boundSql */, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    // the second row has a null count, which leaves the property unset
+    when(rs.getInt(1)).thenReturn(5).thenReturn(0);
+    when(rs.wasNull()).thenReturn(true);
+    when(rs.getLong(2)).thenReturn(10L).thenReturn(20L);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("COUNT");
+    when(rsmd.getColumnLabel(2)).thenReturn("TOTAL");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnType(2)).thenReturn(Types.BIGINT);
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(5, ((PrimitiveBean) results.get(0)).getCount());
+    assertEquals(10L, ((PrimitiveBean) results.get(0)).getTotal());
+    assertEquals(0, ((PrimitiveBean) results.get(1)).getCount());
+    assertEquals(20L, ((PrimitiveBean) results.get(1)).getTotal());
+  }
+
+  MappedStatement getMappedStatement() {
+    return getMappedStatement(new Configuration());
+  }
+
+  MappedStatement getMappedStatement(final Configuration config) {
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
     return new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"),
         SqlCommandType.SELECT).resultMaps(new ArrayList<ResultMap>() {
@@ -16,11 +16,16 @@
 package org.apache.ibatis.parsing;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -211,6 +216,28 @@ class XPathParserTest {
     assertEquals("employee[${id_var}]_height", node.getValueBasedIdentifier());
   }
 
+  @Test
+  void shouldSelectChildPathsInDocumentOrder() {
+    XPathParser parser = new XPathParser(
+        "<mapper><sql id=\"a\"/><select id=\"b\"/><cache-ref/><insert id=\"c\"><selectKey/></insert>"
+            + "<select id=\"d\"/><sql id=\"e\"/></mapper>");
+    XNode mapper = parser.evalNode("/mapper");
+    assertEquals(Arrays.asList("b", "c", "d"), ids(mapper.evalNodes("select|insert|update|delete")));
+    assertEquals(Arrays.asList("a", "e"), ids(mapper.evalNodes("/mapper/sql")));
+    assertEquals(Arrays.asList("a", "e"), ids(parser.evalNodes("mapper/sql")));
+    assertEquals("cache-ref", mapper.evalNode("cache-ref").getName());
+    assertEquals("selectKey", mapper.evalNode("insert/selectKey").getName());
+    assertNull(mapper.evalNode("cache"));
+    assertTrue(mapper.evalNodes("update").isEmpty());
+    // other expressions are still evaluated as XPath
+    assertEquals(Arrays.asList("b", "d"), ids(mapper.evalNodes("*[@id='b' or @id='d']")));
+    assertEquals(1, mapper.evalNodes("//selectKey").size());
+  }
+
+  private static List<String> ids(List<XNode> nodes) {
+    return nodes.stream().map(node -> node.getStringAttribute("id")).collect(Collectors.toList());
+  }
+
   @Test
   void formatXNodeToString() {
     XPathParser parser = new XPathParser(
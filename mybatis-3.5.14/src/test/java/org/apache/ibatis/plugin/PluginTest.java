@@ -17,8 +17,11 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -39,6 +42,32 @@ class PluginTest {
     assertNotEquals("Always", map.toString());
   }
 
+  @Test
+  void chainShouldOnlyWrapInterceptedTypes() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new AlwaysMapPlugin());
+    List<Object> list = new ArrayList<>();
+    assertSame(list, chain.pluginAll(list));
+    for (int i = 0; i < 2; i++) {
+      Map map = (Map) chain.pluginAll(new HashMap());
+      assertEquals("Always", map.get("Anything"));
+    }
+  }
+
+  @Test
+  void chainShouldApplyCustomPluginMethods() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new AlwaysMapPlugin() {
+      @Override
+      public Object plugin(Object target) {
+        return new HashMap();
+      }
+    });
+    chain.addInterceptor(new AlwaysMapPlugin());
+    Map map = (Map) chain.pluginAll(new ArrayList<>());
+    assertEquals("Always", map.get("Anything"));
+  }
+
   @Intercepts({ @Signature(type = Map.class, method = "get", args = { Object.class }) })
   public static class AlwaysMapPlugin implements Interceptor {
     @Override
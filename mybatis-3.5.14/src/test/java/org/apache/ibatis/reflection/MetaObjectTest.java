@@ -19,7 +19,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -33,6 +35,7 @@ import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.domain.misc.CustomBeanWrapper;
 import org.apache.ibatis.domain.misc.CustomBeanWrapperFactory;
 import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.junit.jupiter.api.Test;
 
 class MetaObjectTest {
@@ -276,6 +279,41 @@ class MetaObjectTest {
     assertNotEquals(CustomBeanWrapper.class, meta.getObjectWrapper().getClass());
   }
 
+  @Test
+  void shouldNotCacheGeneratedForeachPaths() {
+    assertSame(PropertyPath.of("richType.richProperty"), PropertyPath.of("richType.richProperty"));
+    PropertyPath foreachPath = PropertyPath.of("__frch_item_0.richProperty");
+    assertNotSame(foreachPath, PropertyPath.of("__frch_item_0.richProperty"));
+    assertSame(foreachPath.getChildren(), PropertyPath.of("richProperty"));
+  }
+
+  @Test
+  void shouldGetAndSetDeeplyNestedPropertyThroughCompiledPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    PropertyPath path = PropertyPath.of("richType.richType.richList[0]");
+    assertSame(path, PropertyPath.of("richType.richType.richList[0]"));
+    assertNull(meta.getValue(path));
+    meta.setValue(path, "foo");
+    meta.setValue("richType.richType.richProperty", "bar");
+    assertEquals("foo", meta.getValue(path));
+    assertEquals("foo", rich.getRichType().getRichType().getRichList().get(0));
+    assertEquals("bar", meta.getValue("richType.richType.richProperty"));
+  }
+
+  @Test
+  void shouldUseObjectWrapperFactoryForNestedValues() {
+    Author author = new Author();
+    author.setUsername("bob");
+    Map<String, Object> map = new HashMap<>();
+    map.put("author", author);
+    MetaObject meta = MetaObject.forObject(map, SystemMetaObject.DEFAULT_OBJECT_FACTORY,
+        new CustomBeanWrapperFactory(), new DefaultReflectorFactory());
+    assertEquals("bob", meta.getValue("author.username"));
+    meta.setValue("author.username", "alice");
+    assertEquals("alice", author.getUsername());
+  }
+
   @Test
   void shouldMethodHasGetterReturnTrueWhenListElementSet() {
     List<Object> param1 = new ArrayList<>();
@@ -19,14 +19,20 @@ import static com.googlecode.catchexception.apis.BDDCatchException.caughtExcepti
 import static com.googlecode.catchexception.apis.BDDCatchException.when;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleSetFieldInvoker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -362,4 +368,87 @@ class ReflectorTest {
         "Ambiguous setters defined for property 'bool' in class '" + Bean.class.getName().replace("$", "\\$")
             + "' with types '(java.lang.Integer|boolean)' and '(java.lang.Integer|boolean)'\\.");
   }
+
+  @Test
+  void shouldAccessPropertiesThroughMethodHandles() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private String name;
+      private int age;
+
+      public int getAge() {
+        return age;
+      }
+
+      public void setAge(int age) {
+        if (age < 0) {
+          throw new IllegalStateException("negative age");
+        }
+        this.age = age;
+      }
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.setUseMethodHandles(true);
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertInstanceOf(MethodHandleMethodInvoker.class, reflector.getGetInvoker("age"));
+    assertInstanceOf(MethodHandleMethodInvoker.class, reflector.getSetInvoker("age"));
+    assertInstanceOf(MethodHandleGetFieldInvoker.class, reflector.getGetInvoker("name"));
+    assertInstanceOf(MethodHandleSetFieldInvoker.class, reflector.getSetInvoker("name"));
+
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "Bob" });
+    reflector.getSetInvoker("age").invoke(bean, new Object[] { 42 });
+    assertEquals("Bob", reflector.getGetInvoker("name").invoke(bean, null));
+    assertEquals(42, reflector.getGetInvoker("age").invoke(bean, new Object[0]));
+
+    // widening and mismatches behave as with core reflection
+    reflector.getSetInvoker("age").invoke(bean, new Object[] { (short) 7 });
+    assertEquals(7, bean.age);
+    when(() -> reflector.getSetInvoker("age").invoke(bean, new Object[] { null }));
+    then(caughtException()).isInstanceOf(IllegalArgumentException.class);
+    when(() -> reflector.getSetInvoker("name").invoke(bean, new Object[] { 1 }));
+    then(caughtException()).isInstanceOf(IllegalArgumentException.class);
+    when(() -> reflector.getSetInvoker("age").invoke(bean, new Object[] { -1 }));
+    then(caughtException()).isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldRecreateReflectorsWhenSwitchingToMethodHandles() {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    assertSame(reflector, reflectorFactory.findForClass(Section.class));
+    reflectorFactory.setUseMethodHandles(true);
+    assertInstanceOf(MethodHandleMethodInvoker.class, reflectorFactory.findForClass(Section.class).getGetInvoker("id"));
+  }
+
+  public static class PublicBean {
+    private int age;
+
+    public int getAge() {
+      if (age < 0) {
+        throw new IllegalStateException("negative age");
+      }
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+  }
+
+  @Test
+  void shouldCallPublicAccessorsThroughGeneratedClasses() throws Exception {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.setUseMethodHandles(true);
+    Reflector reflector = reflectorFactory.findForClass(PublicBean.class);
+    PublicBean bean = new PublicBean();
+    reflector.getSetInvoker("age").invoke(bean, new Object[] { 42 });
+    assertEquals(42, reflector.getGetInvoker("age").invoke(bean, new Object[0]));
+
+    reflector.getSetInvoker("age").invoke(bean, new Object[] { -1 });
+    when(() -> reflector.getGetInvoker("age").invoke(bean, new Object[0]));
+    then(caughtException()).isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+class MethodHandleSupportTest {
+
+  public static class PublicBean {
+    private int age;
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    public PublicBean setAgeFluently(int age) {
+      this.age = age;
+      return this;
+    }
+  }
+
+  static class PackagePrivateBean {
+    public String getName() {
+      return "name";
+    }
+  }
+
+  @Test
+  void shouldGenerateAccessorsForPublicMethods() throws Exception {
+    Function<Object, Object> getter = MethodHandleSupport.getterFunction(PublicBean.class.getMethod("getAge"));
+    BiConsumer<Object, Object> setter = MethodHandleSupport
+        .setterConsumer(PublicBean.class.getMethod("setAge", int.class));
+    assertNotNull(getter);
+    assertNotNull(setter);
+    PublicBean bean = new PublicBean();
+    setter.accept(bean, 42);
+    assertEquals(42, getter.apply(bean));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldGeneratePrimitiveAccessors() throws Exception {
+    Object getter = MethodHandleSupport.primitiveAccessor(PublicBean.class.getMethod("getAge"));
+    Object setter = MethodHandleSupport.primitiveAccessor(PublicBean.class.getMethod("setAge", int.class));
+    assertTrue(getter instanceof ToIntFunction);
+    assertTrue(setter instanceof ObjIntConsumer);
+    PublicBean bean = new PublicBean();
+    ((ObjIntConsumer<Object>) setter).accept(bean, 42);
+    assertEquals(42, ((ToIntFunction<Object>) getter).applyAsInt(bean));
+    assertNull(MethodHandleSupport.primitiveAccessor(PublicBean.class.getMethod("setAgeFluently", int.class)));
+    assertNull(MethodHandleSupport.primitiveAccessor(PackagePrivateBean.class.getMethod("getName")));
+  }
+
+  @Test
+  void shouldKeepMethodHandlesWhenAccessorsCannotBeGenerated() throws Exception {
+    assertNull(MethodHandleSupport.getterFunction(PackagePrivateBean.class.getMethod("getName")));
+    assertNull(MethodHandleSupport.setterConsumer(PublicBean.class.getMethod("setAgeFluently", int.class)));
+  }
+
+}
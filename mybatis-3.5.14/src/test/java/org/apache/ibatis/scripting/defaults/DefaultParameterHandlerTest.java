@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +34,7 @@ import java.util.List;
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.domain.misc.PrimitiveBean;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -48,10 +50,12 @@ import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnboxedIntTypeHandler;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -242,6 +246,8 @@ class DefaultParameterHandlerTest {
 
     when(mockConfig.getTypeHandlerRegistry()).thenReturn(new TypeHandlerRegistry(mockConfig));
     when(mockConfig.getDefaultScriptingLanguageInstance()).thenReturn(new XMLLanguageDriver());
+    when(mockConfig.getObjectWrapperFactory()).thenReturn(objectWrapperFactory);
+    when(mockConfig.getReflectorFactory()).thenReturn(reflectorFactory);
     when(mockConfig.newMetaObject(parameterObject))
         .thenReturn(MetaObject.forObject(parameterObject, objectFactory, objectWrapperFactory, reflectorFactory));
 
@@ -281,6 +287,120 @@ class DefaultParameterHandlerTest {
     verify(parameterObject, times(1)).getBio();
     verify(parameterObject, times(1)).getFavouriteSection();
 
-    verify(mockConfig, times(1)).newMetaObject(parameterObject);
+    // simple properties of a static statement are read through the compiled parameter binder
+    verify(mockConfig, never()).newMetaObject(parameterObject);
+  }
+
+  @Test
+  void shouldReuseParameterBinderForStaticParameterMappings() throws SQLException {
+    Configuration config = new Configuration();
+    TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+
+    MappedStatement mappedStatement = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).build();
+
+    List<ParameterMapping> parameterMappings = new ArrayList<ParameterMapping>() {
+      {
+        add(new ParameterMapping.Builder(config, "id", registry.getTypeHandler(int.class)).build());
+        add(new ParameterMapping.Builder(config, "username", registry.getTypeHandler(String.class)).build());
+        add(new ParameterMapping.Builder(config, "email", registry.getTypeHandler(String.class)).build());
+      }
+    };
+
+    for (int i = 0; i < 2; i++) {
+      Author parameterObject = new Author(i, "user" + i, "******", "cbegin@nowhere.com", "N/A", Section.NEWS);
+      BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, parameterObject);
+      PreparedStatement ps = mock(PreparedStatement.class);
+      new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+
+      verify(ps, times(1)).setInt(1, i);
+      verify(ps, times(1)).setString(2, "user" + i);
+      verify(ps, times(1)).setString(3, "cbegin@nowhere.com");
+    }
+
+    ParameterBinder binder = mappedStatement.getParameterBinder(Author.class, type -> null);
+    Assertions.assertNotNull(binder);
+    Assertions.assertTrue(binder.matches(parameterMappings));
+  }
+
+  @Test
+  void shouldRecompileParameterBinderWhenPropertyAccessModeChanges() throws SQLException {
+    Configuration config = new Configuration();
+    TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    MappedStatement mappedStatement = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).build();
+    List<ParameterMapping> parameterMappings = Collections
+        .singletonList(new ParameterMapping.Builder(config, "username", registry.getTypeHandler(String.class)).build());
+    Author parameterObject = new Author(1, "user1", "******", "cbegin@nowhere.com", "N/A", Section.NEWS);
+    BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, parameterObject);
+
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql)
+        .setParameters(mock(PreparedStatement.class));
+    ParameterBinder reflective = mappedStatement.getParameterBinder(Author.class, type -> null);
+    Assertions.assertTrue(reflective.isCurrent());
+
+    config.setUseMethodHandles(true);
+    Assertions.assertFalse(reflective.isCurrent());
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+    verify(ps).setString(1, "user1");
+    ParameterBinder recompiled = mappedStatement.getParameterBinder(Author.class, type -> null);
+    Assertions.assertNotSame(reflective, recompiled);
+    Assertions.assertTrue(recompiled.isCurrent());
+  }
+
+  @Test
+  void shouldBindPrimitivePropertiesWithoutBoxing() throws SQLException {
+    Configuration config = new Configuration();
+    config.setUseMethodHandles(true);
+    TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    MappedStatement mappedStatement = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).build();
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    parameterMappings.add(new ParameterMapping.Builder(config, "count", new UnboxedIntTypeHandler()).build());
+    parameterMappings.add(new ParameterMapping.Builder(config, "total", registry.getTypeHandler(long.class)).build());
+    parameterMappings.add(new ParameterMapping.Builder(config, "ratio", registry.getTypeHandler(double.class)).build());
+    parameterMappings
+        .add(new ParameterMapping.Builder(config, "active", registry.getTypeHandler(boolean.class)).build());
+    PrimitiveBean parameterObject = new PrimitiveBean();
+    parameterObject.setCount(5);
+    parameterObject.setTotal(10L);
+    parameterObject.setRatio(0.5);
+    parameterObject.setActive(true);
+    BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, parameterObject);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+
+    verify(ps).setInt(1, 5);
+    verify(ps).setLong(2, 10L);
+    verify(ps).setDouble(3, 0.5);
+    verify(ps).setBoolean(4, true);
+  }
+
+  @Test
+  void shouldKeepBoxedBindingForSubclassesOfBuiltInHandlers() throws SQLException {
+    Configuration config = new Configuration();
+    config.setUseMethodHandles(true);
+    MappedStatement mappedStatement = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).build();
+    TypeHandler<Integer> typeHandler = new IntegerTypeHandler() {
+      @Override
+      public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType)
+          throws SQLException {
+        ps.setString(i, "#" + parameter);
+      }
+    };
+    List<ParameterMapping> parameterMappings = Collections
+        .singletonList(new ParameterMapping.Builder(config, "count", typeHandler).build());
+    PrimitiveBean parameterObject = new PrimitiveBean();
+    parameterObject.setCount(5);
+    BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, parameterObject);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+
+    verify(ps).setString(1, "#5");
+    verify(ps, never()).setInt(anyInt(), anyInt());
   }
 }
@@ -0,0 +1,204 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final StatementCounter counter = new StatementCounter();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(counter);
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    counter.count.set(0);
+  }
+
+  @AfterEach
+  void resetBatchSize() {
+    sqlSessionFactory.getConfiguration().setBatchSelectSize(100);
+  }
+
+  @Test
+  void shouldLoadLazyAssociationsOfSiblingsInOneQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Order> orders = mapper.getOrders();
+      assertEquals(3, orders.size());
+      assertEquals(1, counter.count.get());
+
+      assertEquals("Customer1", orders.get(0).getCustomer().getName());
+      assertEquals(2, counter.count.get());
+
+      assertEquals("Customer2", orders.get(1).getCustomer().getName());
+      assertEquals("Customer1", orders.get(2).getCustomer().getName());
+      assertEquals(2, counter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadLazyCollectionsOfSiblingsInOneQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Customer> customers = mapper.getCustomers();
+      assertEquals(3, customers.size());
+      assertEquals(1, counter.count.get());
+
+      List<Order> orders = customers.get(0).getOrders();
+      assertEquals(2, orders.size());
+      assertEquals(1, orders.get(0).getId());
+      assertEquals(3, orders.get(1).getId());
+      assertEquals(2, counter.count.get());
+
+      assertEquals(1, customers.get(1).getOrders().size());
+      assertTrue(customers.get(2).getOrders().isEmpty());
+      assertEquals(2, counter.count.get());
+    }
+  }
+
+  @Test
+  void shouldSplitBatchesByBatchSelectSize() {
+    sqlSessionFactory.getConfiguration().setBatchSelectSize(1);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Order> orders = mapper.getOrders();
+
+      // the third order shares its key with the first one and is loaded along with it
+      assertEquals("Customer1", orders.get(0).getCustomer().getName());
+      assertEquals("Customer1", orders.get(2).getCustomer().getName());
+      assertEquals(2, counter.count.get());
+
+      assertEquals("Customer2", orders.get(1).getCustomer().getName());
+      assertEquals(3, counter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadEagerAssociationsOfAllRowsInOneQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Order> orders = mapper.getOrdersEagerly();
+      assertEquals(2, counter.count.get());
+      assertEquals("Customer1", orders.get(0).getCustomer().getName());
+      assertEquals("Customer2", orders.get(1).getCustomer().getName());
+      assertEquals("Customer1", orders.get(2).getCustomer().getName());
+    }
+  }
+
+  @Test
+  void shouldLoadEagerCollectionsOfAllRowsInOneQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Customer> customers = mapper.getCustomersEagerly();
+      assertEquals(2, counter.count.get());
+      assertEquals(2, customers.get(0).getOrders().size());
+      assertEquals(1, customers.get(1).getOrders().size());
+      assertEquals(2, customers.get(1).getOrders().get(0).getId());
+      assertTrue(customers.get(2).getOrders().isEmpty());
+    }
+  }
+
+  @Test
+  void shouldReuseCachedBatchWhenParentQueryIsRepeated() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      String statement = "org.apache.ibatis.submitted.batch_nested_select.Mapper.getOrdersEagerly";
+      List<Order> orders = sqlSession.selectList(statement);
+      assertEquals(2, counter.count.get());
+      // other row bounds run the parent query again, its batch query is served by the local cache
+      List<Order> again = sqlSession.selectList(statement, null, new RowBounds(0, 10));
+      assertEquals(3, counter.count.get());
+      assertEquals(orders.size(), again.size());
+      assertEquals("Customer1", again.get(0).getCustomer().getName());
+      assertEquals("Customer2", again.get(1).getCustomer().getName());
+    }
+  }
+
+  @Test
+  void shouldSplitEagerBatchesByBatchSelectSize() {
+    sqlSessionFactory.getConfiguration().setBatchSelectSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Customer> customers = mapper.getCustomersEagerly();
+      assertEquals(3, counter.count.get());
+      assertEquals(2, customers.get(0).getOrders().size());
+      assertTrue(customers.get(2).getOrders().isEmpty());
+    }
+  }
+
+  @Test
+  void shouldLoadEagerNestedSelectsPerRowWithResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.batch_nested_select.Mapper.getOrdersEagerly",
+          context -> orders.add((Order) context.getResultObject()));
+      // the handler sees each order before the rest of the rows are read, so children cannot be deferred
+      assertEquals("Customer1", orders.get(0).getCustomer().getName());
+      assertEquals("Customer2", orders.get(1).getCustomer().getName());
+      assertEquals(3, counter.count.get());
+    }
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class,
+      Integer.class }))
+  static class StatementCounter implements Interceptor {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      count.incrementAndGet();
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.completable_future;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompletableFutureTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/completable_future/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/completable_future/CreateDB.sql");
+  }
+
+  @Test
+  void shouldRunSelectsInParallel() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(2);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      CompletableFuture<Map<Integer, User>> usersById = mapper.getUsersById();
+      CompletableFuture.allOf(user, users, usersById).get(5, TimeUnit.SECONDS);
+
+      Assertions.assertEquals("User2", user.get().getName());
+      Assertions.assertEquals(3, users.get().size());
+      Assertions.assertEquals("User1", users.get().get(0).getName());
+      Assertions.assertEquals("User3", usersById.get().get(3).getName());
+    }
+  }
+
+  @Test
+  void shouldOpenAsyncSessionsConcurrently() throws Exception {
+    Configuration configuration;
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/completable_future/mybatis-config.xml")) {
+      configuration = new SqlSessionFactoryBuilder().build(reader).getConfiguration();
+    }
+    // each connection waits until the other select has opened its own
+    CountDownLatch connected = new CountDownLatch(2);
+    DataSource dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:completable_future", "sa",
+        "") {
+      @Override
+      public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        connected.countDown();
+        try {
+          if (!connected.await(5, TimeUnit.SECONDS)) {
+            throw new SQLException("The selects did not run in parallel.");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException(e);
+        }
+        return connection;
+      }
+    };
+    configuration.setEnvironment(new Environment("parallel", new JdbcTransactionFactory(), dataSource));
+    try (SqlSession sqlSession = new DefaultSqlSessionFactory(configuration).openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user1 = mapper.getUser(1);
+      CompletableFuture<User> user2 = mapper.getUser(2);
+      CompletableFuture.allOf(user1, user2).get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals("User1", user1.get().getName());
+      Assertions.assertEquals("User2", user2.get().getName());
+    }
+  }
+
+  @Test
+  void shouldRejectAsyncSelectWhileCallerHasUncommittedChanges() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(3);
+      user.setName("Updated");
+      mapper.updateName(user);
+      // the async select runs on its own connection and would not see the update
+      Assertions.assertThrows(PersistenceException.class, () -> mapper.getUser(3));
+      sqlSession.commit();
+      Assertions.assertEquals("Updated", mapper.getUser(3).get(5, TimeUnit.SECONDS).getName());
+
+      user.setName("User3");
+      mapper.updateName(user);
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldRunUpdateInCallerTransaction() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(1);
+      user.setName("Updated");
+      CompletableFuture<Integer> updated = mapper.updateName(user);
+      Assertions.assertTrue(updated.isDone());
+      Assertions.assertEquals(1, updated.get());
+      sqlSession.rollback(true);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Assertions.assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).get().getName());
+    }
+  }
+
+}
@@ -0,0 +1,164 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.count_query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.pagination.CountSqlSource;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CountQueryTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.count_query.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlCapture sqlCapture;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/count_query/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlCapture = new SqlCapture();
+    sqlSessionFactory.getConfiguration().addInterceptor(sqlCapture);
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/count_query/CreateDB.sql");
+  }
+
+  @Test
+  void shouldCountRowsWithoutOrdering() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(5);
+    }
+    assertThat(sqlCapture.sqls).containsExactly("SELECT COUNT(*) FROM (select * from users) COUNT_");
+  }
+
+  @Test
+  void shouldBindTheParametersOfTheSelect() {
+    Map<String, Object> params = new HashMap<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      params.put("prefix", "User");
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsersByName", params)).isEqualTo(3);
+      params.put("prefix", "Admin");
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsersByName", params)).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldKeepOrderingFollowedByLimit() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getFirstUsers")).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldResolveCountStatementById() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Long count = sqlSession.selectOne(NAMESPACE + "getUsers" + CountSqlSource.COUNT_SUFFIX);
+      assertThat(count).isEqualTo(5L);
+    }
+    assertThat(sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + "getUsers!count"))
+        .isSameAs(sqlSessionFactory.getConfiguration().getCountStatement(NAMESPACE + "getUsers"));
+  }
+
+  @Test
+  void shouldCacheCountsUntilNamespaceIsFlushed() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(5);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(5);
+      assertThat(sqlSession.<Map<String, Object>> selectList(NAMESPACE + "getUsers")).hasSize(5);
+    }
+    assertThat(countQueries()).isEqualTo(1);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> user = new HashMap<>();
+      user.put("id", 6);
+      user.put("name", "User6");
+      sqlSession.insert(NAMESPACE + "insertUser", user);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(6);
+    }
+    assertThat(countQueries()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldExpireCachedCounts() throws Exception {
+    sqlSessionFactory.getConfiguration().setCountCacheTtl(1L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(5);
+    }
+    Thread.sleep(20);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsers")).isEqualTo(5);
+    }
+    assertThat(countQueries()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotCountOtherStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThatThrownBy(() -> sqlSession.selectCount(NAMESPACE + "updateUsers"))
+          .isInstanceOf(PersistenceException.class).hasMessageContaining("Cannot derive a count statement");
+      assertThatThrownBy(() -> sqlSession.selectCount(NAMESPACE + "unknown"))
+          .isInstanceOf(PersistenceException.class);
+    }
+  }
+
+  private long countQueries() {
+    return sqlCapture.sqls.stream().filter(sql -> sql.startsWith("SELECT COUNT(*)")).count();
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class,
+      Integer.class }))
+  static class SqlCapture implements Interceptor {
+
+    private final List<String> sqls = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      sqls.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql().trim());
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -21,9 +21,18 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -361,6 +370,117 @@ class CursorSimpleTest {
     }
   }
 
+  @Test
+  void shouldStreamUsersFromMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Stream<User> users = mapper.streamAllUsers(new RowBounds(1, 3, 2))) {
+        List<String> names = users.map(User::getName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("User2", "User3", "User4"), names);
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseCursorWhenStreamIsClosed() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> usersCursor = sqlSession.selectCursor("getAllUsers");
+      try (Stream<User> users = usersCursor.stream()) {
+        Assertions.assertEquals("User1", users.findFirst().map(User::getName).orElse(null));
+        Assertions.assertTrue(usersCursor.isOpen());
+      }
+      Assertions.assertFalse(usersCursor.isOpen());
+      Assertions.assertFalse(usersCursor.isConsumed());
+    }
+  }
+
+  @Test
+  void shouldSplitStreamForParallelConsumers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Stream<User> users = sqlSession.selectStream("getAllUsers", null, RowBounds.withFetchSize(2))) {
+      List<Integer> ids = users.parallel().map(User::getId).collect(Collectors.toList());
+      Assertions.assertEquals(List.of(1, 2, 3, 4, 5), ids);
+    }
+  }
+
+  @Test
+  void shouldPublishUsersOnDemand() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectPublisher("getAllUsers", null, executor);
+      List<String> names = new CopyOnWriteArrayList<>();
+      CountDownLatch completed = new CountDownLatch(1);
+      AtomicReference<CursorPublisher.Subscription> subscription = new AtomicReference<>();
+      publisher.subscribe(new CursorPublisher.Subscriber<User>() {
+        @Override
+        public void onSubscribe(CursorPublisher.Subscription s) {
+          subscription.set(s);
+          s.request(2);
+        }
+
+        @Override
+        public void onNext(User item) {
+          names.add(item.getName());
+          if (names.size() % 2 == 0) {
+            subscription.get().request(2);
+          }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+          Assertions.fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+          completed.countDown();
+        }
+      });
+      Assertions.assertTrue(completed.await(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(List.of("User1", "User2", "User3", "User4", "User5"), names);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldStopPublishingOnCancel() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectPublisher("getAllUsers", null, executor);
+      List<String> names = new CopyOnWriteArrayList<>();
+      AtomicReference<CursorPublisher.Subscription> subscription = new AtomicReference<>();
+      publisher.subscribe(new CursorPublisher.Subscriber<User>() {
+        @Override
+        public void onSubscribe(CursorPublisher.Subscription s) {
+          subscription.set(s);
+          s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(User item) {
+          names.add(item.getName());
+          subscription.get().cancel();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+          Assertions.fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+          Assertions.fail("Should not complete after cancel.");
+        }
+      });
+      executor.shutdown();
+      Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(List.of("User1"), names);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void shouldThrowIllegalStateExceptionUsingIteratorOnSessionClosed() {
     Cursor<User> usersCursor;
@@ -0,0 +1,158 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.keyset_paging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds.SortKey;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KeysetPagingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlCapture sqlCapture;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/keyset_paging/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlCapture = new SqlCapture();
+    sqlSessionFactory.getConfiguration().addInterceptor(sqlCapture);
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/keyset_paging/CreateDB.sql");
+  }
+
+  @Test
+  void shouldWalkThroughPages() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetRowBounds bounds = new KeysetRowBounds(2, SortKey.desc("score"), SortKey.asc("id"));
+      List<User> page = mapper.getUsers(bounds);
+      assertThat(ids(page)).containsExactly(1, 3);
+      bounds = bounds.next(page);
+      page = mapper.getUsers(bounds);
+      assertThat(ids(page)).containsExactly(6, 2);
+      bounds = bounds.next(page);
+      page = mapper.getUsers(bounds);
+      assertThat(ids(page)).containsExactly(5, 4);
+      bounds = bounds.next(page);
+      page = mapper.getUsers(bounds);
+      assertThat(page).isEmpty();
+      assertThat(bounds.next(page)).isNull();
+    }
+    assertThat(sqlCapture.sqls).hasSize(4);
+    assertThat(sqlCapture.sqls.get(0)).doesNotContain("WHERE").endsWith("ORDER BY score DESC, id ASC LIMIT ?");
+    assertThat(sqlCapture.sqls.get(1)).endsWith(
+        "KEYSET_ WHERE (score < ?) OR (score = ? AND id > ?) ORDER BY score DESC, id ASC LIMIT ?");
+  }
+
+  @Test
+  void shouldResumeFromContinuationToken() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetRowBounds first = new KeysetRowBounds(2, SortKey.desc("score"), SortKey.asc("id"));
+      String token = first.next(mapper.getUsers(first)).getContinuationToken();
+
+      KeysetRowBounds resumed = KeysetRowBounds.fromContinuationToken(token, 3, SortKey.desc("score"),
+          SortKey.asc("id"));
+      assertThat(ids(mapper.getUsers(resumed))).containsExactly(6, 2, 5);
+    }
+  }
+
+  @Test
+  void shouldBindStatementParametersBeforeSortKeyValues() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetRowBounds bounds = new KeysetRowBounds(2, SortKey.asc("id"));
+      List<User> page = mapper.getUsersByMinScore(20, bounds);
+      assertThat(ids(page)).containsExactly(1, 2);
+      bounds = bounds.next(page);
+      page = mapper.getUsersByMinScore(20, bounds);
+      assertThat(ids(page)).containsExactly(3, 5);
+      bounds = bounds.next(page);
+      page = mapper.getUsersByMinScore(20, bounds);
+      assertThat(ids(page)).containsExactly(6);
+      assertThat(bounds.next(page)).isNull();
+    }
+  }
+
+  @Test
+  void shouldLimitInMemoryWithoutDialect() {
+    sqlSessionFactory.getConfiguration().setDatabaseId(null);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetRowBounds bounds = new KeysetRowBounds(2, SortKey.asc("id"));
+      bounds = bounds.next(mapper.getUsers(bounds));
+      assertThat(ids(mapper.getUsers(bounds))).containsExactly(3, 4);
+    }
+    assertThat(sqlCapture.sqls).allSatisfy(sql -> assertThat(sql).doesNotContain("LIMIT"));
+  }
+
+  @Test
+  void shouldCacheEachPageSeparately() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetRowBounds first = new KeysetRowBounds(2, SortKey.asc("id"));
+      KeysetRowBounds second = first.next(mapper.getUsers(first));
+      assertThat(ids(mapper.getUsers(second))).containsExactly(3, 4);
+      assertThat(ids(mapper.getUsers(first))).containsExactly(1, 2);
+      assertThat(ids(mapper.getUsers(new KeysetRowBounds(2, SortKey.desc("id"))))).containsExactly(6, 5);
+    }
+    // the query of the first page again is answered by the local cache
+    assertThat(sqlCapture.sqls).hasSize(3);
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class,
+      Integer.class }))
+  static class SqlCapture implements Interceptor {
+
+    private final List<String> sqls = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      sqls.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql().trim());
+      return invocation.proceed();
+    }
+  }
+
+}
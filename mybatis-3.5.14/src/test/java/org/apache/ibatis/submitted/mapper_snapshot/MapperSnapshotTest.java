@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.mapper_snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import javassist.ClassPool;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MapperSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldWriteSnapshotAndLoadItOnNextStartup() throws Exception {
+    Path snapshot = tempDir.resolve("mappers.snapshot");
+
+    SqlSessionFactory first = build(snapshot);
+    assertTrue(Files.isRegularFile(snapshot));
+    // the mapper xml was parsed, so its sql fragments are known
+    assertFalse(first.getConfiguration().getSqlFragments().isEmpty());
+    assertMapperWorks(first);
+
+    SqlSessionFactory second = build(snapshot);
+    Configuration configuration = second.getConfiguration();
+    // the mappings were restored from the snapshot without parsing the mapper xml
+    assertTrue(configuration.getSqlFragments().isEmpty());
+    assertTrue(configuration.hasMapper(Mapper.class));
+    assertTrue(configuration.isResourceLoaded("org/apache/ibatis/submitted/mapper_snapshot/Mapper.xml"));
+    assertThat(configuration.getMappedStatementNames())
+        .containsExactlyInAnyOrderElementsOf(first.getConfiguration().getMappedStatementNames());
+    assertThat(configuration.getMappedStatement("org.apache.ibatis.submitted.mapper_snapshot.Mapper.insertUser")
+        .getKeyGenerator()).isInstanceOf(SelectKeyGenerator.class);
+    assertEquals("org.apache.ibatis.submitted.mapper_snapshot.Mapper",
+        configuration.getMappedStatement("org.apache.ibatis.submitted.mapper_snapshot.Mapper.getUser").getCache()
+            .getId());
+    assertMapperWorks(second);
+  }
+
+  @Test
+  void shouldReplaceCorruptSnapshot() throws Exception {
+    Path snapshot = tempDir.resolve("mappers.snapshot");
+    Files.write(snapshot, new byte[] { 1, 2, 3 });
+
+    SqlSessionFactory sqlSessionFactory = build(snapshot);
+    assertFalse(sqlSessionFactory.getConfiguration().getSqlFragments().isEmpty());
+    assertMapperWorks(sqlSessionFactory);
+
+    assertTrue(build(snapshot).getConfiguration().getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldRejectSnapshotWhenScannedPackageGetsNewMapper() throws Exception {
+    Path snapshot = tempDir.resolve("mappers.snapshot");
+    String config = "org/apache/ibatis/submitted/mapper_snapshot/mybatis-package-config.xml";
+    build(snapshot, config);
+    assertTrue(build(snapshot, config).getConfiguration().getSqlFragments().isEmpty());
+
+    // a mapper interface added to the scanned package after the snapshot was written
+    Path classes = Files.createDirectories(tempDir.resolve("classes"));
+    String newMapper = Mapper.class.getPackage().getName() + ".NewMapper";
+    new ClassPool(true).makeInterface(newMapper).writeFile(classes.toString());
+    Thread thread = Thread.currentThread();
+    ClassLoader contextClassLoader = thread.getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() }, contextClassLoader)) {
+      thread.setContextClassLoader(loader);
+      Configuration configuration = build(snapshot, config).getConfiguration();
+      // the snapshot was stale, so the mappers were parsed again and the new one was registered
+      assertFalse(configuration.getSqlFragments().isEmpty());
+      assertThat(configuration.getMapperRegistry().getMappers()).extracting(Class::getName).contains(newMapper);
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private SqlSessionFactory build(Path snapshot) throws Exception {
+    return build(snapshot, "org/apache/ibatis/submitted/mapper_snapshot/mybatis-config.xml");
+  }
+
+  private SqlSessionFactory build(Path snapshot, String config) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("snapshotFile", snapshot.toString());
+    SqlSessionFactory sqlSessionFactory;
+    try (Reader reader = Resources.getResourceAsReader(config)) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader, properties);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/mapper_snapshot/CreateDB.sql");
+    return sqlSessionFactory;
+  }
+
+  private void assertMapperWorks(SqlSessionFactory sqlSessionFactory) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertEquals(2, mapper.findUsers(new User()).size());
+      assertEquals(1, mapper.findUsers(new User(null, "User2")).size());
+      assertEquals(2, mapper.getUsersByIds(Arrays.asList(1, 2)).size());
+      User user = new User(null, "User3");
+      assertEquals(1, mapper.insertUser(user));
+      assertEquals(3, user.getId());
+      assertEquals("User3", mapper.getUser(3).getName());
+    }
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.physical_paging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.pagination.LimitOffsetDialect;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PhysicalPagingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlCapture sqlCapture;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/physical_paging/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlCapture = new SqlCapture();
+    sqlSessionFactory.getConfiguration().addInterceptor(sqlCapture);
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/physical_paging/CreateDB.sql");
+  }
+
+  @Test
+  void shouldResolveDialectFromDatabaseId() {
+    assertThat(sqlSessionFactory.getConfiguration().getDatabaseId()).isEqualTo("hsqldb");
+    assertThat(sqlSessionFactory.getConfiguration().getPagingDialect()).isInstanceOf(LimitOffsetDialect.class);
+  }
+
+  @Test
+  void shouldPageInDatabase() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(new RowBounds(1, 2));
+      assertThat(ids(users)).containsExactly(2, 3);
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().endsWith("LIMIT ? OFFSET ?");
+  }
+
+  @Test
+  void shouldSkipRowsWithoutLimit() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(new RowBounds(3, RowBounds.NO_ROW_LIMIT));
+      assertThat(ids(users)).containsExactly(4, 5);
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().endsWith("LIMIT ? OFFSET ?");
+  }
+
+  @Test
+  void shouldBindOffsetAndLimitSoPagesShareTheirSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.getUsers(new RowBounds(1, 2)))).containsExactly(2, 3);
+      assertThat(ids(mapper.getUsers(new RowBounds(3, 2)))).containsExactly(4, 5);
+    }
+    assertThat(sqlCapture.sqls).hasSize(2).containsOnly(sqlCapture.sqls.get(0));
+  }
+
+  @Test
+  void shouldKeepAdditionalParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersByName("User", new RowBounds(3, 10));
+      assertThat(ids(users)).containsExactly(4, 5);
+    }
+  }
+
+  @Test
+  void shouldNotRewriteUnpagedQueries() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUsers(RowBounds.DEFAULT)).hasSize(5);
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().doesNotContain("LIMIT");
+  }
+
+  @Test
+  void shouldPageNestedResultMapsInMemory() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithGroups(new RowBounds(0, 2));
+      assertThat(ids(users)).containsExactly(1, 2);
+      assertThat(users.get(0).getGroups()).containsExactly("admin", "dev");
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().doesNotContain("LIMIT");
+  }
+
+  @Test
+  void shouldPageQueriesTheDialectCannotRewriteInMemory() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getFirstUsers(new RowBounds(1, 2));
+      assertThat(ids(users)).containsExactly(2, 3);
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().endsWith("limit 4").doesNotContain("?");
+  }
+
+  @Test
+  void shouldCacheEachPageSeparately() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.getUsers(new RowBounds(0, 2)))).containsExactly(1, 2);
+      assertThat(ids(mapper.getUsers(new RowBounds(2, 2)))).containsExactly(3, 4);
+      assertThat(ids(mapper.getUsers(new RowBounds(0, 2)))).containsExactly(1, 2);
+    }
+    // the third query is answered by the local cache
+    assertThat(sqlCapture.sqls).hasSize(2);
+  }
+
+  @Test
+  void shouldPageInMemoryWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setPhysicalPagingEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(new RowBounds(1, 2));
+      assertThat(ids(users)).containsExactly(2, 3);
+    }
+    assertThat(sqlCapture.sqls).singleElement().asString().doesNotContain("LIMIT");
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class,
+      Integer.class }))
+  static class SqlCapture implements Interceptor {
+
+    private final List<String> sqls = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      sqls.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql().trim());
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.read_write_splitting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.replica.ReplicaDataSources;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReadWriteSplittingTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.read_write_splitting.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/read_write_splitting/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory databases
+    Environment environment = sqlSessionFactory.getConfiguration().getEnvironment();
+    BaseDataTest.runScript(environment.getDataSource(),
+        "org/apache/ibatis/submitted/read_write_splitting/CreatePrimary.sql");
+    BaseDataTest.runScript(environment.getReplicas().getDataSources().get(0),
+        "org/apache/ibatis/submitted/read_write_splitting/CreateReplica.sql");
+  }
+
+  @Test
+  void shouldReadFromReplica() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getName", 1)).isEqualTo("replica");
+    }
+  }
+
+  @Test
+  void shouldReadOwnWritesAfterWriting() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(1);
+      sqlSession.insert(NAMESPACE + "insertUser", user(2, "primary2"));
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getName", 1)).isEqualTo("primary");
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(2);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      // a new session reads from the replica again
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldNotReuseReplicaStatementsAfterWriting() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.REUSE, true)) {
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(1);
+      sqlSession.insert(NAMESPACE + "insertUser", user(2, "primary2"));
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldExcludeFailingReplicas() {
+    Environment environment = sqlSessionFactory.getConfiguration().getEnvironment();
+    DataSource failing = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:unknown:replica", "sa", "");
+    ReplicaDataSources replicas = new ReplicaDataSources(
+        Arrays.asList(failing, environment.getReplicas().getDataSources().get(0)));
+    sqlSessionFactory.getConfiguration().setEnvironment(new Environment(environment.getId(),
+        environment.getTransactionFactory(), environment.getDataSource(), replicas));
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getName", 1)).isEqualTo("replica");
+    }
+    assertThat(replicas.isExcluded(0)).isTrue();
+    assertThat(replicas.isExcluded(1)).isFalse();
+  }
+
+  @Test
+  void shouldFallBackToPrimaryWithoutAvailableReplica() {
+    Environment environment = sqlSessionFactory.getConfiguration().getEnvironment();
+    ReplicaDataSources replicas = new ReplicaDataSources(environment.getReplicas().getDataSources());
+    replicas.exclude(0);
+    sqlSessionFactory.getConfiguration().setEnvironment(new Environment(environment.getId(),
+        environment.getTransactionFactory(), environment.getDataSource(), replicas));
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getName", 1)).isEqualTo("primary");
+    }
+  }
+
+  @Test
+  void shouldUsePrimaryForReadsInTransactions() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // the read that decides the write must see the data the write is applied to
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getName", 1)).isEqualTo("primary");
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(1);
+      sqlSession.insert(NAMESPACE + "insertUser", user(2, "primary2"));
+      assertThat(sqlSession.<Integer> selectOne(NAMESPACE + "countUsers")).isEqualTo(2);
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldSendLockingReadsToPrimary() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getNameForUpdate", 1)).isEqualTo("primary");
+    }
+  }
+
+  @Test
+  void shouldSendCacheFlushingSelectsToPrimary() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertThat(sqlSession.<String> selectOne(NAMESPACE + "getNameFlushingCache", 1)).isEqualTo("primary");
+    }
+  }
+
+  private static Map<String, Object> user(int id, String name) {
+    Map<String, Object> user = new HashMap<>();
+    user.put("id", id);
+    user.put("name", name);
+    return user;
+  }
+
+}
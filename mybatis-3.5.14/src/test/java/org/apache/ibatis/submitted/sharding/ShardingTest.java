@@ -0,0 +1,200 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.sharding.ShardedSqlSession;
+import org.apache.ibatis.session.sharding.ShardedSqlSessionFactory;
+import org.apache.ibatis.session.sharding.ShardingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardingTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.sharding.Mapper.";
+
+  private Map<String, DataSource> shards;
+  private ExecutorService executor;
+  private ShardedSqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Configuration configuration;
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/sharding/mybatis-config.xml")) {
+      configuration = new SqlSessionFactoryBuilder().build(reader).getConfiguration();
+    }
+    shards = new LinkedHashMap<>();
+    shards.put("shard0", new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:sharding_0", "sa", ""));
+    shards.put("shard1", new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:sharding_1", "sa", ""));
+    executor = Executors.newFixedThreadPool(2);
+    sqlSessionFactory = new ShardedSqlSessionFactory(configuration, shards, executor);
+
+    // populate in-memory databases
+    BaseDataTest.runScript(shards.get("shard0"), "org/apache/ibatis/submitted/sharding/CreateShard0.sql");
+    BaseDataTest.runScript(shards.get("shard1"), "org/apache/ibatis/submitted/sharding/CreateShard1.sql");
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldRouteByShardKey() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(names(mapper.getUsersByTenant(1))).containsExactly("a1", "b1");
+      assertThat(mapper.getUser(new User(2, 0, null)).getName()).isEqualTo("b0");
+      assertThat(sqlSession.getShard(NAMESPACE + "getUsersByTenant", 0)).isEqualTo("shard0");
+      assertThat(sqlSession.getShard(NAMESPACE + "getAllUsers", null)).isNull();
+    }
+  }
+
+  @Test
+  void shouldScatterSelectWithoutShardKey() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.getAllUsers())).containsExactly(1, 2, 3, 4);
+      assertThat(sqlSession.selectCount(NAMESPACE + "getAllUsers")).isEqualTo(4);
+      Map<Integer, User> users = sqlSession.selectMap(NAMESPACE + "getAllUsers", "id");
+      assertThat(users).containsOnlyKeys(1, 2, 3, 4);
+    }
+  }
+
+  @Test
+  void shouldRouteCountByShardKey() throws Exception {
+    // a row stored on the wrong shard is only counted when the count is sent to every shard
+    try (Connection connection = shards.get("shard0").getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("insert into users values(5, 1, 'c1')");
+    }
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.selectCount(NAMESPACE + "getUsersByTenant", 1)).isEqualTo(2);
+    }
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertThat(configuration.getCountStatement(NAMESPACE + "getUsersByTenant").getShardingStrategy())
+        .isSameAs(configuration.getMappedStatement(NAMESPACE + "getUsersByTenant").getShardingStrategy());
+  }
+
+  @Test
+  void shouldRequireScatterExecutor() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ShardedSqlSessionFactory(sqlSessionFactory.getConfiguration(), shards, null));
+  }
+
+  @Test
+  void shouldRejectRowBoundsAcrossShards() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThrows(ShardingException.class,
+          () -> sqlSession.selectList(NAMESPACE + "getAllUsers", null, new RowBounds(1, 2)));
+      assertThrows(ShardingException.class,
+          () -> sqlSession.select(NAMESPACE + "getAllUsers", null, new RowBounds(0, 2), context -> {
+          }));
+      // the fetch size alone does not change the merged results
+      RowBounds fetchSizeOnly = new RowBounds(RowBounds.NO_ROW_OFFSET, RowBounds.NO_ROW_LIMIT, 10);
+      List<User> users = sqlSession.selectList(NAMESPACE + "getAllUsers", null, fetchSizeOnly);
+      assertThat(ids(users)).containsExactly(1, 2, 3, 4);
+    }
+  }
+
+  @Test
+  void shouldHashShardKeysStably() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      String statement = NAMESPACE + "getUsersByTenant";
+      // String#hashCode is specified, "tenant-a" hashes to an even value and "tenant-b" to an odd one
+      assertThat(sqlSession.getShard(statement, "tenant-a")).isEqualTo("shard0");
+      assertThat(sqlSession.getShard(statement, "tenant-b")).isEqualTo("shard1");
+      // integral keys go to the same shard whatever their type
+      assertThat(sqlSession.getShard(statement, 1)).isEqualTo("shard1");
+      assertThat(sqlSession.getShard(statement, 1L)).isEqualTo("shard1");
+      assertThat(sqlSession.getShard(statement, BigInteger.ONE)).isEqualTo("shard1");
+      // decimals are hashed without trailing zeros, enums by their name
+      assertThat(sqlSession.getShard(statement, new BigDecimal("1.50")))
+          .isEqualTo(sqlSession.getShard(statement, new BigDecimal("1.5"))).isEqualTo("shard0");
+      assertThat(sqlSession.getShard(statement, DayOfWeek.MONDAY)).isEqualTo("shard0");
+      assertThat(sqlSession.getShard(statement, DayOfWeek.TUESDAY)).isEqualTo("shard1");
+      // keys without a stable hash are rejected
+      assertThrows(ShardingException.class, () -> sqlSession.getShard(statement, 1.5d));
+    }
+  }
+
+  @Test
+  void shouldWriteToShardOfKey() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.insertUser(new User(5, 1, "c1"))).isEqualTo(1);
+      sqlSession.commit();
+    }
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(names(mapper.getUsersByTenant(1))).containsExactly("a1", "b1", "c1");
+      assertThat(names(mapper.getUsersByTenant(0))).containsExactly("a0", "b0");
+    }
+  }
+
+  @Test
+  void shouldFailToWriteWithoutShardKey() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(ShardingException.class, () -> mapper.insertUser(new User(5, null, "c1")));
+      assertThrows(ShardingException.class, () -> sqlSession.selectCursor(NAMESPACE + "getAllUsers"));
+    }
+  }
+
+  @Test
+  void shouldKeepCachedResultsOfShardsApart() {
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(ids(sqlSession.getMapper(Mapper.class).getAllUsers())).containsExactly(1, 2, 3, 4);
+    }
+    try (ShardedSqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // both shards read the cache now, each one its own results
+      assertThat(ids(sqlSession.getMapper(Mapper.class).getAllUsers())).containsExactly(1, 2, 3, 4);
+    }
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  private static List<String> names(List<User> users) {
+    return users.stream().map(User::getName).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.statement_metrics.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_metrics/CreateDB.sql");
+  }
+
+  @Test
+  void shouldRecordQueriesAndCacheLookups() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUser(1);
+      mapper.getUser(1);
+      assertEquals(2, mapper.getUsers().size());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUser(1);
+    }
+
+    StatementMetricsRegistry registry = sqlSessionFactory.getConfiguration().getStatementMetrics();
+    StatementMetrics.Snapshot getUser = registry.snapshot(NAMESPACE + "getUser");
+    assertEquals(1, getUser.getExecutions());
+    assertEquals(1, getUser.getRows());
+    assertEquals(1, getUser.getPrepare().getCount());
+    assertEquals(1, getUser.getResultMapping().getCount());
+    assertTrue(getUser.getExecute().getTotalNanos() > 0);
+    // the second call in the session hits the local cache, the call in the second session the second level cache
+    assertEquals(1, getUser.getLocalCacheHits());
+    assertEquals(1, getUser.getLocalCacheMisses());
+    assertEquals(1, getUser.getCacheHits());
+    assertEquals(2, getUser.getCacheMisses());
+    assertEquals(1.0 / 3, getUser.getCacheHitRatio(), 0.0001);
+
+    StatementMetrics.Snapshot getUsers = registry.snapshot(NAMESPACE + "getUsers");
+    assertEquals(1, getUsers.getExecutions());
+    assertEquals(2, getUsers.getRows());
+    assertEquals(0, getUsers.getCacheHits() + getUsers.getCacheMisses());
+
+    registry.reset();
+    assertEquals(0, registry.snapshot(NAMESPACE + "getUser").getExecutions());
+  }
+
+  @Test
+  void shouldRecordBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 3; i < 6; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      sqlSession.flushStatements();
+      sqlSession.rollback();
+    }
+
+    StatementMetrics.Snapshot insertUser = sqlSessionFactory.getConfiguration().getStatementMetrics()
+        .snapshot(NAMESPACE + "insertUser");
+    assertEquals(1, insertUser.getBatches());
+    assertEquals(3, insertUser.getBatchedStatements());
+    assertEquals(1, insertUser.getExecutions());
+    assertEquals(3, insertUser.getPrepare().getCount());
+  }
+
+  @Test
+  void shouldExposeMetricsOverJmx() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+
+    StatementMetricsRegistry registry = sqlSessionFactory.getConfiguration().getStatementMetrics();
+    ObjectName name = registry.registerMBean("statement_metrics");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      CompositeData[] statements = (CompositeData[]) server.getAttribute(name, "Statements");
+      assertEquals(1, statements.length);
+      assertEquals(NAMESPACE + "getUsers", statements[0].get("statementId"));
+      assertEquals(2L, statements[0].get("rows"));
+      assertEquals(1L, ((CompositeData) statements[0].get("execute")).get("count"));
+    } finally {
+      registry.unregisterMBean();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  void shouldNotRecordWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setStatementMetricsEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    assertNull(sqlSessionFactory.getConfiguration().getStatementMetrics());
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.warm_up;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.MapperProxyFactory;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ConfigurationWarmUp;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WarmUpTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/warm_up/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/warm_up/CreateDB.sql");
+  }
+
+  @Test
+  void shouldBuildMapperMethodsAndStatements() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    ConfigurationWarmUp.Report report = configuration.warmUp();
+    assertReport(report);
+    assertWarmedUp(configuration);
+    assertMapperWorks();
+  }
+
+  @Test
+  void shouldBuildInParallel() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      assertReport(configuration.warmUp(executorService));
+    } finally {
+      executorService.shutdown();
+    }
+    assertWarmedUp(configuration);
+    assertMapperWorks();
+  }
+
+  private void assertReport(ConfigurationWarmUp.Report report) {
+    // the unbound countUsers is skipped
+    assertEquals(4, report.getMapperMethods());
+    // includes OtherMapper.getUser, whose short name is ambiguous
+    assertEquals(5, report.getStatements());
+    // "name != null" and "list"
+    assertEquals(2, report.getExpressions());
+    assertEquals(0, report.getFailures());
+  }
+
+  private void assertWarmedUp(Configuration configuration) {
+    MapperProxyFactory<?> factory = configuration.getMapperRegistry().getMapperProxyFactories().iterator().next();
+    assertEquals(4, factory.getMethodCache().size());
+    MappedStatement insert = configuration.getMappedStatement("org.apache.ibatis.submitted.warm_up.Mapper.insertUser");
+    ParameterBinder binder = insert.getParameterBinder(User.class, type -> null);
+    assertNotNull(binder);
+  }
+
+  private void assertMapperWorks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertEquals(1, mapper.findUsers(new User(null, "User2")).size());
+      List<User> users = mapper.getUsersByIds(Arrays.asList(1, 2));
+      assertEquals(2, users.size());
+      assertEquals(1, mapper.insertUser(new User(3, "User3")));
+      sqlSession.rollback();
+    }
+  }
+
+}
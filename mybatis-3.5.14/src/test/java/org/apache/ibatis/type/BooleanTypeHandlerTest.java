@@ -16,7 +16,9 @@
 package org.apache.ibatis.type;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -81,4 +83,15 @@ class BooleanTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldMovePrimitiveValues() throws Exception {
+    PrimitiveTypeHandler.OfBoolean handler = new BooleanTypeHandler();
+    handler.setBoolean(ps, 1, true);
+    verify(ps).setBoolean(1, true);
+    when(rs.getBoolean("column")).thenReturn(true);
+    when(rs.getBoolean(1)).thenReturn(false);
+    assertTrue(handler.getBoolean(rs, "column"));
+    assertFalse(handler.getBoolean(rs, 1));
+  }
+
 }
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ByteBufferTypeHandlerTest extends BaseTypeHandlerTest {
+
+  private static final TypeHandler<ByteBuffer> TYPE_HANDLER = new ByteBufferTypeHandler();
+
+  @Override
+  @Test
+  public void shouldSetParameter() throws Exception {
+    ByteBuffer buffer = ByteBuffer.wrap("Hello World".getBytes(StandardCharsets.US_ASCII), 6, 5);
+    TYPE_HANDLER.setParameter(ps, 1, buffer, null);
+    ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+    verify(ps).setBinaryStream(eq(1), captor.capture(), eq(5));
+    assertThat(new String(readAll(captor.getValue()), StandardCharsets.US_ASCII)).isEqualTo("World");
+    assertThat(buffer.position()).isEqualTo(6);
+  }
+
+  @Test
+  void shouldSetDirectBufferParameter() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(5);
+    buffer.put("Hello".getBytes(StandardCharsets.US_ASCII)).flip();
+    TYPE_HANDLER.setParameter(ps, 1, buffer, null);
+    ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+    verify(ps).setBinaryStream(eq(1), captor.capture(), eq(5));
+    assertThat(new String(readAll(captor.getValue()), StandardCharsets.US_ASCII)).isEqualTo("Hello");
+    assertThat(buffer.remaining()).isEqualTo(5);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByName() throws Exception {
+    byte[] bytes = { 1, 2, 3 };
+    when(rs.getBytes("column")).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(rs, "column").array()).isSameAs(bytes);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByName() throws Exception {
+    when(rs.getBytes("column")).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, "column")).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByPosition() throws Exception {
+    byte[] bytes = { 1, 2, 3 };
+    when(rs.getBytes(1)).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(rs, 1).array()).isSameAs(bytes);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByPosition() throws Exception {
+    when(rs.getBytes(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, 1)).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromCallableStatement() throws Exception {
+    byte[] bytes = { 1, 2, 3 };
+    when(cs.getBytes(1)).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(cs, 1).array()).isSameAs(bytes);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromCallableStatement() throws Exception {
+    when(cs.getBytes(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(cs, 1)).isNull();
+  }
+
+  private static byte[] readAll(InputStream in) throws Exception {
+    byte[] bytes = new byte[in.available()];
+    assertThat(in.read(bytes, 0, bytes.length)).isEqualTo(bytes.length);
+    assertThat(in.read()).isEqualTo(-1);
+    return bytes;
+  }
+
+}
@@ -81,4 +81,15 @@ class DoubleTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldMovePrimitiveValues() throws Exception {
+    PrimitiveTypeHandler.OfDouble handler = new DoubleTypeHandler();
+    handler.setDouble(ps, 1, 1.5);
+    verify(ps).setDouble(1, 1.5);
+    when(rs.getDouble("column")).thenReturn(1.5);
+    when(rs.getDouble(1)).thenReturn(2.5);
+    assertEquals(1.5, handler.getDouble(rs, "column"));
+    assertEquals(2.5, handler.getDouble(rs, 1));
+  }
+
 }
@@ -81,4 +81,15 @@ class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldMovePrimitiveValues() throws Exception {
+    PrimitiveTypeHandler.OfInt handler = new IntegerTypeHandler();
+    handler.setInt(ps, 1, 100);
+    verify(ps).setInt(1, 100);
+    when(rs.getInt("column")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(200);
+    assertEquals(100, handler.getInt(rs, "column"));
+    assertEquals(200, handler.getInt(rs, 1));
+  }
+
 }
@@ -81,4 +81,15 @@ class LongTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldMovePrimitiveValues() throws Exception {
+    PrimitiveTypeHandler.OfLong handler = new LongTypeHandler();
+    handler.setLong(ps, 1, 100L);
+    verify(ps).setLong(1, 100L);
+    when(rs.getLong("column")).thenReturn(100L);
+    when(rs.getLong(1)).thenReturn(200L);
+    assertEquals(100L, handler.getLong(rs, "column"));
+    assertEquals(200L, handler.getLong(rs, 1));
+  }
+
 }
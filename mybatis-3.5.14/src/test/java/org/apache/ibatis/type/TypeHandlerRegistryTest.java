@@ -227,6 +227,19 @@ class TypeHandlerRegistryTest {
     assertTrue(typeHandlerRegistry.hasTypeHandler(Address.class));
   }
 
+  @Test
+  void shouldResolveAgainAfterLateRegistration() {
+    TypeHandler<String> clobTypeHandler = typeHandlerRegistry.getTypeHandler(String.class, JdbcType.CLOB);
+    TypeHandler<String> stringTypeHandler = typeHandlerRegistry.getTypeHandler(String.class, JdbcType.VARCHAR);
+    assertTrue(clobTypeHandler instanceof ClobTypeHandler);
+    assertSame(clobTypeHandler, typeHandlerRegistry.getTypeHandler(String.class, JdbcType.CLOB));
+
+    NStringTypeHandler nStringTypeHandler = new NStringTypeHandler();
+    typeHandlerRegistry.register(String.class, JdbcType.CLOB, nStringTypeHandler);
+    assertSame(nStringTypeHandler, typeHandlerRegistry.getTypeHandler(String.class, JdbcType.CLOB));
+    assertSame(stringTypeHandler, typeHandlerRegistry.getTypeHandler(String.class, JdbcType.VARCHAR));
+  }
+
   enum TestEnum {
     ONE, TWO
   }
@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fails on the boxed methods, so a test passes only when the primitive methods are used.
+ */
+public class UnboxedIntTypeHandler extends BaseTypeHandler<Integer> implements PrimitiveTypeHandler.OfInt {
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType) {
+    throw new UnsupportedOperationException("boxed");
+  }
+
+  @Override
+  public Integer getNullableResult(ResultSet rs, String columnName) {
+    throw new UnsupportedOperationException("boxed");
+  }
+
+  @Override
+  public Integer getNullableResult(ResultSet rs, int columnIndex) {
+    throw new UnsupportedOperationException("boxed");
+  }
+
+  @Override
+  public Integer getNullableResult(CallableStatement cs, int columnIndex) {
+    throw new UnsupportedOperationException("boxed");
+  }
+
+  @Override
+  public void setInt(PreparedStatement ps, int i, int parameter) throws SQLException {
+    ps.setInt(i, parameter);
+  }
+
+  @Override
+  public int getInt(ResultSet rs, String columnName) throws SQLException {
+    return rs.getInt(columnName);
+  }
+
+  @Override
+  public int getInt(ResultSet rs, int columnIndex) throws SQLException {
+    return rs.getInt(columnIndex);
+  }
+}